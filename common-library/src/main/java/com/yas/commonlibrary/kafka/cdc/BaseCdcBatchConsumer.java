@@ -0,0 +1,39 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+/**
+ * Base class for CDC (Change Data Capture) Kafka batch consumers, the records of a poll being handled together.
+ * When a batch fails, its records are handled again one by one and the first failing record is reported with
+ * {@link BatchListenerFailedException}, so the error handler commits the records before it, retries and
+ * dead-letters this record alone, and redelivers the records after it.
+ *
+ * @param <K> Type of the message key.
+ * @param <V> Type of the message payload.
+ */
+public abstract class BaseCdcBatchConsumer<K, V> {
+
+    public static final Logger LOGGER = LoggerFactory.getLogger(BaseCdcBatchConsumer.class);
+    public static final String RECEIVED_BATCH_SIZE = "## Received batch of {} records";
+
+    protected void processBatch(List<ConsumerRecord<K, V>> records, Consumer<List<ConsumerRecord<K, V>>> consumer) {
+        LOGGER.debug(RECEIVED_BATCH_SIZE, records.size());
+        try {
+            consumer.accept(records);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Batch of {} records failed, processing them one by one", records.size(), e);
+            for (int index = 0; index < records.size(); index++) {
+                try {
+                    consumer.accept(List.of(records.get(index)));
+                } catch (RuntimeException recordException) {
+                    throw new BatchListenerFailedException("Failed to process record", recordException, index);
+                }
+            }
+        }
+    }
+}
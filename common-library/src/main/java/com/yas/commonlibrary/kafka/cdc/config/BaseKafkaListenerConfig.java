@@ -1,12 +1,20 @@
 package com.yas.commonlibrary.kafka.cdc.config;
 
+import com.yas.commonlibrary.kafka.cdc.BaseCdcBatchConsumer;
 import java.util.Map;
+import java.util.Properties;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 /**
  * Base configuration class for setting up Kafka consumers with typed deserialization.
@@ -15,6 +23,14 @@ import org.springframework.kafka.support.serializer.JsonDeserializer;
  */
 public abstract class BaseKafkaListenerConfig<K, V> {
 
+    // Same retry policy and dead letter topic as @RetrySupportDql on the record listeners
+    private static final long RETRY_INTERVAL_MS = 6000L;
+    private static final long RETRY_ATTEMPTS = 3L;
+    private static final String DLT_SUFFIX = "-dlt";
+
+    // Let the broker hold a fetch until a batch is full or max wait has elapsed
+    private static final int BATCH_FETCH_MIN_BYTES = 1024 * 1024;
+
     private final Class<K> keyType;
     private final Class<V> valueType;
     private final KafkaProperties kafkaProperties;
@@ -45,6 +61,34 @@ public abstract class BaseKafkaListenerConfig<K, V> {
         return factory;
     }
 
+    /**
+     * Batch instance type ConcurrentKafkaListenerContainerFactory, for the listeners of a {@link BaseCdcBatchConsumer}.
+     * The failing record reported by the consumer is retried then published to the dead letter topic.
+     *
+     * @param batchSize     maximum number of records handled by one batch.
+     * @param maxWaitMs     maximum time the broker waits to fill a batch before returning what it has.
+     * @param kafkaTemplate template publishing the failed records to the dead letter topic.
+     * @return concurrentKafkaListenerContainerFactory {@link ConcurrentKafkaListenerContainerFactory}.
+     */
+    public ConcurrentKafkaListenerContainerFactory<K, V> batchKafkaListenerContainerFactory(
+        int batchSize, int maxWaitMs, KafkaTemplate<Object, Object> kafkaTemplate) {
+        var factory = kafkaListenerContainerFactory();
+        factory.setBatchListener(true);
+
+        // Overrides must be String values, they are read through Properties#getProperty
+        var consumerProperties = new Properties();
+        consumerProperties.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(batchSize));
+        consumerProperties.setProperty(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(maxWaitMs));
+        consumerProperties.setProperty(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, String.valueOf(BATCH_FETCH_MIN_BYTES));
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+
+        var recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+            (consumerRecord, exception) -> new TopicPartition(consumerRecord.topic() + DLT_SUFFIX, -1));
+        factory.setCommonErrorHandler(
+            new DefaultErrorHandler(recoverer, new FixedBackOff(RETRY_INTERVAL_MS, RETRY_ATTEMPTS)));
+        return factory;
+    }
+
     private ConsumerFactory<K, V> typeConsumerFactory(Class<K> keyClazz, Class<V> valueClazz) {
         Map<String, Object> props = buildConsumerProperties();
         // wrapper in case serialization/deserialization occur
@@ -17,4 +17,25 @@ public class Product {
     @JsonProperty("is_published")
     private boolean isPublished;
 
+    private String name;
+
+    private String slug;
+
+    private Double price;
+
+    @JsonProperty("is_visible_individually")
+    private boolean isVisibleIndividually;
+
+    @JsonProperty("is_allowed_to_order")
+    private boolean isAllowedToOrder;
+
+    @JsonProperty("is_featured")
+    private boolean isFeatured;
+
+    @JsonProperty("thumbnail_media_id")
+    private Long thumbnailMediaId;
+
+    @JsonProperty("brand_id")
+    private Long brandId;
+
 }
@@ -0,0 +1,23 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of a table linking a product to its categories or attribute values.
+ */
+@lombok.Getter
+@lombok.Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRelation {
+
+    private long id;
+
+    @JsonProperty("product_id")
+    private Long productId;
+
+}
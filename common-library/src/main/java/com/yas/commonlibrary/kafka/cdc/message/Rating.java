@@ -0,0 +1,23 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+
+@lombok.Getter
+@lombok.Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Rating {
+
+    private long id;
+
+    @JsonProperty("product_id")
+    private Long productId;
+
+    @JsonProperty("rating_star")
+    private int ratingStar;
+
+}
@@ -0,0 +1,21 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+
+@lombok.Getter
+@lombok.Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingCdcMessage {
+
+    private Rating after;
+
+    private Rating before;
+
+    private Operation op;
+
+}
+
@@ -0,0 +1,54 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+class BaseCdcBatchConsumerTest {
+
+    private static final String TOPIC = "topic";
+
+    private static class TestBaseCdcBatchConsumer extends BaseCdcBatchConsumer<String, String> {
+        public void testProcessBatch(List<ConsumerRecord<String, String>> records,
+                                     Consumer<List<ConsumerRecord<String, String>>> consumer) {
+            processBatch(records, consumer);
+        }
+    }
+
+    @Test
+    void testProcessBatch_whenBatchSucceeds_processItOnce() {
+        List<ConsumerRecord<String, String>> records = List.of(record(0, "a"), record(1, "b"));
+        List<List<ConsumerRecord<String, String>>> processed = new ArrayList<>();
+
+        new TestBaseCdcBatchConsumer().testProcessBatch(records, processed::add);
+
+        assertThat(processed).containsExactly(records);
+    }
+
+    @Test
+    void testProcessBatch_whenRecordFails_reportItsIndex() {
+        List<ConsumerRecord<String, String>> records = List.of(record(0, "a"), record(1, "poison"), record(2, "c"));
+        List<String> processedValues = new ArrayList<>();
+
+        assertThatThrownBy(() -> new TestBaseCdcBatchConsumer().testProcessBatch(records, batch -> {
+            if (batch.stream().anyMatch(consumerRecord -> "poison".equals(consumerRecord.value()))) {
+                throw new IllegalStateException("Poison record");
+            }
+            batch.forEach(consumerRecord -> processedValues.add(consumerRecord.value()));
+        }))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                exception -> assertThat(exception.getIndex()).isEqualTo(1));
+
+        assertThat(processedValues).containsExactly("a");
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String value) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, "key", value);
+    }
+}
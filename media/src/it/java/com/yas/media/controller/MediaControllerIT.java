@@ -1,7 +1,10 @@
 package com.yas.media.controller;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -10,16 +13,17 @@ import com.yas.media.config.FilesystemConfig;
 import com.yas.commonlibrary.IntegrationTestConfiguration;
 import com.yas.media.config.YasConfig;
 import com.yas.media.model.Media;
+import com.yas.media.model.dto.PersistedFileDto;
 import com.yas.media.repository.FileSystemRepository;
 import com.yas.media.repository.MediaRepository;
 import com.yas.media.service.MediaService;
 import com.yas.media.viewmodel.MediaPostVm;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import javax.imageio.ImageIO;
 
 import jakarta.ws.rs.core.MediaType;
@@ -31,6 +35,8 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
@@ -53,12 +59,14 @@ class MediaControllerIT extends AbstractControllerIT {
     private MediaService mediaService;
     private Media media;
 
-    public static InputStream createFakeInputStream(String content) {
-        return new ByteArrayInputStream(content.getBytes());
+    public static FileSystemResource createFakeFile(String content) throws IOException {
+        Path file = Files.createTempFile("media", ".jpeg");
+        file.toFile().deleteOnExit();
+        return new FileSystemResource(Files.write(file, content.getBytes()));
     }
 
     @BeforeEach
-    public void insertTestData() {
+    public void insertTestData() throws IOException {
         media = new Media();
         media.setId(1L);
         media.setCaption("test");
@@ -68,6 +76,8 @@ class MediaControllerIT extends AbstractControllerIT {
         media = mediaRepository.save(media);
 
         when(yasConfig.publicUrl()).thenReturn("/media/");
+        when(fileSystemRepository.persistTempFile(any())).thenReturn(new PersistedFileDto("temp", "hash", 0));
+        when(fileSystemRepository.storeFile(any())).thenReturn("path");
     }
 
     private MultipartFile createMultipart(String typeImage) throws IOException {
@@ -116,6 +126,25 @@ class MediaControllerIT extends AbstractControllerIT {
             .log().ifValidationFails();
     }
 
+    @Test
+    void test_getMediasByIds_shouldReturnDataInRequestedOrder() {
+        Media other = new Media();
+        other.setCaption("other");
+        other.setFileName("other");
+        other.setMediaType("image/png");
+        other = mediaRepository.save(other);
+
+        given(getRequestSpecification())
+            .queryParam("ids", other.getId() + "," + media.getId())
+            .when()
+            .get(MEDIA_URL)
+            .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("id", contains(other.getId().intValue(), media.getId().intValue()))
+            .body("[1].url", equalTo("/media/medias/" + media.getId() + "/file/file"))
+            .log().ifValidationFails();
+    }
+
     @Test
     void test_deleteMedia_shouldDelete_ifProvideValidAccessTokenAndValidId() {
         Long mediaId = media.getId();
@@ -315,9 +344,8 @@ class MediaControllerIT extends AbstractControllerIT {
     void test_getFile_shouldSuccess_ifProvideValidIdAndValidFileName() throws IOException {
         Long mediaId = media.getId();
         String fileName = media.getFileName();
-        when(fileSystemRepository.getFile(any())).thenReturn(createFakeInputStream("test"));
+        when(fileSystemRepository.getFile(any())).thenReturn(createFakeFile("test"));
 
-        System.out.println(fileSystemRepository.getFile("test") == null);
         given(getRequestSpecification())
             .pathParam("id", mediaId)
             .pathParam("fileName", fileName)
@@ -325,6 +353,63 @@ class MediaControllerIT extends AbstractControllerIT {
             .get("/v1/medias/{id}/file/{fileName}")
             .then()
             .statusCode(HttpStatus.OK.value())
+            .header(HttpHeaders.CONTENT_LENGTH, "4")
+            .header(HttpHeaders.ETAG, notNullValue())
+            .header(HttpHeaders.LAST_MODIFIED, notNullValue())
+            .header(HttpHeaders.CACHE_CONTROL, containsString("immutable"))
+            .body(equalTo("test"))
+            .log().ifValidationFails();
+    }
+
+    @Test
+    void test_getFile_shouldReturn304_ifProvideMatchingETag() throws IOException {
+        when(fileSystemRepository.getFile(any())).thenReturn(createFakeFile("test"));
+        String etag = given(getRequestSpecification())
+            .get("/v1/medias/{id}/file/{fileName}", media.getId(), media.getFileName())
+            .header(HttpHeaders.ETAG);
+
+        given(getRequestSpecification())
+            .header(HttpHeaders.IF_NONE_MATCH, etag)
+            .when()
+            .get("/v1/medias/{id}/file/{fileName}", media.getId(), media.getFileName())
+            .then()
+            .statusCode(HttpStatus.NOT_MODIFIED.value())
+            .log().ifValidationFails();
+    }
+
+    @Test
+    void test_getFile_shouldReturnPartialContent_ifProvideRange() throws IOException {
+        when(fileSystemRepository.getFile(any())).thenReturn(createFakeFile("test content"));
+
+        given(getRequestSpecification())
+            .header(HttpHeaders.RANGE, "bytes=5-11")
+            .when()
+            .get("/v1/medias/{id}/file/{fileName}", media.getId(), media.getFileName())
+            .then()
+            .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+            .header(HttpHeaders.CONTENT_RANGE, "bytes 5-11/12")
+            .body(equalTo("content"))
+            .log().ifValidationFails();
+    }
+
+    @Test
+    void test_getFile_shouldReturn404_ifProvideInvalidFileName() {
+        given(getRequestSpecification())
+            .when()
+            .get("/v1/medias/{id}/file/{fileName}", media.getId(), "other")
+            .then()
+            .statusCode(HttpStatus.NOT_FOUND.value())
+            .log().ifValidationFails();
+    }
+
+    @Test
+    void test_getFile_shouldReturn400_ifProvideInvalidSize() {
+        given(getRequestSpecification())
+            .queryParam("size", "HUGE")
+            .when()
+            .get("/v1/medias/{id}/file/{fileName}", media.getId(), media.getFileName())
+            .then()
+            .statusCode(HttpStatus.BAD_REQUEST.value())
             .log().ifValidationFails();
     }
 }
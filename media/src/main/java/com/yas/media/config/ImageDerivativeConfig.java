@@ -0,0 +1,21 @@
+package com.yas.media.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Resized copies of the uploaded images.
+ *
+ * @param eager generate every size right after the upload instead of on the first request of a size
+ * @param workerThreads number of threads resizing images
+ * @param queueCapacity maximum number of images waiting to be resized, further ones are skipped or served as is
+ * @param timeout maximum wait of a request for the resizing of its image before serving the original
+ */
+@ConfigurationProperties(prefix = "yas.image-derivative")
+public record ImageDerivativeConfig(
+    @DefaultValue("true") boolean eager,
+    @DefaultValue("2") int workerThreads,
+    @DefaultValue("100") int queueCapacity,
+    @DefaultValue("10s") Duration timeout) {
+}
@@ -0,0 +1,24 @@
+package com.yas.media.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * In-memory cache of the small media files.
+ *
+ * @param enabled serve small files from memory
+ * @param maxFileSize largest cached file
+ * @param maxSize maximum total size of the cached files
+ * @param ttl lifetime of a cached file, bounds how long a media removed by another instance is still served
+ * @param maxMediaCount maximum number of media whose file name, type and path are cached
+ */
+@ConfigurationProperties(prefix = "yas.media-file-cache")
+public record MediaFileCacheConfig(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("64KB") DataSize maxFileSize,
+    @DefaultValue("64MB") DataSize maxSize,
+    @DefaultValue("10m") Duration ttl,
+    @DefaultValue("100000") long maxMediaCount) {
+}
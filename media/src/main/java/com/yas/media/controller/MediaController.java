@@ -1,5 +1,6 @@
 package com.yas.media.controller;
 
+import com.yas.media.model.ImageSize;
 import com.yas.media.model.Media;
 import com.yas.media.model.dto.MediaDto;
 import com.yas.media.service.MediaService;
@@ -14,9 +15,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
+import java.time.Duration;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -35,6 +38,9 @@ import org.springframework.web.bind.annotation.RestController;
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RequiredArgsConstructor
 public class MediaController {
+    private static final CacheControl FILE_CACHE_CONTROL =
+        CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
     private final MediaService mediaService;
 
     @PostMapping(path = "/medias", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
@@ -86,14 +92,26 @@ public class MediaController {
         return ResponseEntity.ok().body(medias);
     }
 
+    /**
+     * Serve the file of a media, or its copy resized to a width bucket. The file of a media ID never changes,
+     * it is cached by clients for a year, conditional and range requests are answered from the ETag and
+     * Last-Modified headers and the file resource.
+     */
     @Hidden
     @GetMapping("/medias/{id}/file/{fileName}")
-    public ResponseEntity<InputStreamResource> getFile(@PathVariable Long id, @PathVariable String fileName) {
-        MediaDto mediaDto = mediaService.getFile(id, fileName);
+    public ResponseEntity<Resource> getFile(@PathVariable Long id, @PathVariable String fileName,
+                                            @RequestParam(required = false) ImageSize size) {
+        MediaDto mediaDto = mediaService.getFile(id, fileName, size);
+        if (mediaDto.getContent() == null) {
+            return ResponseEntity.notFound().build();
+        }
 
         return ResponseEntity.ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
             .contentType(mediaDto.getMediaType())
-            .body(new InputStreamResource(mediaDto.getContent()));
+            .eTag(mediaDto.getEtag())
+            .lastModified(mediaDto.getLastModified())
+            .cacheControl(mediaDto.isTemporary() ? CacheControl.noCache() : FILE_CACHE_CONTROL)
+            .body(mediaDto.getContent());
     }
 }
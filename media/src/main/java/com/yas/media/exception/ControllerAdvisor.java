@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @ControllerAdvice
 @Slf4j
@@ -50,6 +51,15 @@ public class ControllerAdvisor {
         return buildErrorResponse(status, "Request information is not valid", errors, ex, null, 0, "");
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    protected ResponseEntity<ErrorVm> handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException ex,
+                                                                       WebRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        String message = String.format("Invalid value %s of %s", ex.getValue(), ex.getName());
+
+        return buildErrorResponse(status, message, null, ex, request, 400, "");
+    }
+
     @ExceptionHandler({ConstraintViolationException.class})
     public ResponseEntity<ErrorVm> handleConstraintViolation(ConstraintViolationException ex) {
         HttpStatus status = HttpStatus.BAD_REQUEST;
@@ -0,0 +1,20 @@
+package com.yas.media.model;
+
+/**
+ * Width buckets of the resized copies of an image, the height keeps the aspect ratio of the original.
+ */
+public enum ImageSize {
+    THUMBNAIL(160),
+    CARD(480),
+    DETAIL(1200);
+
+    private final int width;
+
+    ImageSize(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+}
@@ -25,4 +25,8 @@ public class Media {
     private String filePath;
 
     private String mediaType;
+
+    private String contentHash;
+
+    private Long fileSize;
 }
@@ -0,0 +1,22 @@
+package com.yas.media.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A stored file content with the number of media referencing it, the file is deleted with the last reference.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "media_content")
+public class MediaContent {
+
+    @Id
+    private String contentHash;
+
+    private long referenceCount;
+}
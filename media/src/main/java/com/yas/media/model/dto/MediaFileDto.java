@@ -0,0 +1,7 @@
+package com.yas.media.model.dto;
+
+/**
+ * What serving the file of a media needs, read without loading the media entity.
+ */
+public record MediaFileDto(Long id, String fileName, String mediaType, String filePath) {
+}
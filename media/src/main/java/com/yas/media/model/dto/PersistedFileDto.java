@@ -0,0 +1,7 @@
+package com.yas.media.model.dto;
+
+/**
+ * A file written to the file system, with the SHA-256 hex digest and size of its content.
+ */
+public record PersistedFileDto(String filePath, String contentHash, long size) {
+}
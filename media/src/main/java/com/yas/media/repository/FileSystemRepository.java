@@ -1,15 +1,27 @@
 package com.yas.media.repository;
 
 import com.yas.media.config.FilesystemConfig;
+import com.yas.media.model.dto.PersistedFileDto;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Repository;
 
 @Slf4j
@@ -18,48 +30,98 @@ import org.springframework.stereotype.Repository;
 public class FileSystemRepository {
 
     private static final String DIRECTORY_DOES_NOT_EXIST = "Directory %s does not exist.";
+    private static final String TEMP_FILE_PREFIX = ".upload-";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final long TRANSFER_CHUNK_BYTES = 1L << 20;
+    private static final Pattern CONTENT_HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
 
     private final FilesystemConfig filesystemConfig;
 
-    public String persistFile(String filename, byte[] content) throws IOException {
+    /**
+     * Stream the content to a temporary file of the directory, hashing and counting it while it is copied.
+     * The temporary file is then stored with {@link #storeFile(PersistedFileDto)} or deleted.
+     */
+    public PersistedFileDto persistTempFile(InputStream content) throws IOException {
 
         File directory = new File(filesystemConfig.getDirectory());
         checkExistingDirectory(directory);
         checkPermissions(directory);
 
-        Path filePath = buildFilePath(filename);
-        Files.write(filePath, content);
-        log.info("File saved: {}", filename);
-        return filePath.toString();
+        Path tempFile = Files.createTempFile(directory.toPath(), TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        try {
+            MessageDigest digest = newContentDigest();
+            long size = 0;
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(content, digest));
+                 FileChannel target = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = target.transferFrom(source, size, TRANSFER_CHUNK_BYTES)) > 0) {
+                    size += transferred;
+                }
+                target.force(false);
+            }
+            return new PersistedFileDto(tempFile.toString(), HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
     }
 
-    @SneakyThrows
-    public InputStream getFile(String filePath) {
-        Path path = Paths.get(filePath);
-        if (!Files.exists(path)) {
-            throw new IllegalStateException(String.format(DIRECTORY_DOES_NOT_EXIST, filesystemConfig.getDirectory()));
+    /**
+     * Move a temporary file to the path of its content, {@code <directory>/ab/cd/abcd...} for the hash
+     * {@code abcd...}, unless the same content is already stored. Sharding by hash prefix keeps every directory
+     * at most 256 entries wide, however many files are stored.
+     *
+     * @return the path of the stored content
+     */
+    public String storeFile(PersistedFileDto tempFile) throws IOException {
+        Path source = Paths.get(tempFile.filePath());
+        Path filePath = buildContentPath(tempFile.contentHash());
+        if (Files.exists(filePath)) {
+            Files.deleteIfExists(source);
+            log.info("File content {} already stored", tempFile.contentHash());
+            return filePath.toString();
+        }
+        Files.createDirectories(filePath.getParent());
+        try {
+            Files.move(source, filePath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(source);
         }
+        log.info("File saved: {}, {} bytes", filePath, tempFile.size());
+        return filePath.toString();
+    }
 
+    public void deleteFile(String filePath) {
         try {
-            return Files.newInputStream(path);
+            Files.deleteIfExists(Paths.get(filePath));
         } catch (IOException e) {
-            throw new RuntimeException("Failed to read file: " + filePath, e);
+            log.warn("Failed to delete file {}", filePath, e);
         }
     }
 
-    private Path buildFilePath(String filename) {
-        // Validate the filename
-        if (filename.contains("..") || filename.contains("/") || filename.contains("\\")) {
-            throw new IllegalArgumentException("Invalid filename");
+    public FileSystemResource getFile(String filePath) {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            throw new IllegalStateException(String.format(DIRECTORY_DOES_NOT_EXIST, filesystemConfig.getDirectory()));
         }
-        // Normalize the path
-        Path filePath = Paths.get(filesystemConfig.getDirectory(), filename).toAbsolutePath().normalize();
+        return new FileSystemResource(path);
+    }
 
-        // Ensure the file is within the base directory
-        if (!filePath.startsWith(filesystemConfig.getDirectory())) {
-            throw new IllegalArgumentException("Invalid file path");
+    private Path buildContentPath(String contentHash) {
+        // Validate the hash, it is the only part of the path
+        if (!CONTENT_HASH_PATTERN.matcher(contentHash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash");
+        }
+        return Paths.get(filesystemConfig.getDirectory(), contentHash.substring(0, 2), contentHash.substring(2, 4),
+            contentHash).toAbsolutePath().normalize();
+    }
+
+    private static MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return filePath;
     }
 
     private void checkExistingDirectory(File directory) {
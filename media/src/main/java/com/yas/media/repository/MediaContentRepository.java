@@ -0,0 +1,44 @@
+package com.yas.media.repository;
+
+import com.yas.media.model.MediaContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MediaContentRepository extends JpaRepository<MediaContent, String> {
+
+    /**
+     * Lock a content until the end of the transaction, whether its row exists or not. Taken before storing or
+     * deleting the file of the content, so a file reused by an upload is never deleted with its last other
+     * reference.
+     */
+    @Query(value = "SELECT count(*) FROM pg_advisory_xact_lock(hashtext(?1))", nativeQuery = true)
+    long lockContent(String contentHash);
+
+    /**
+     * Add a reference to a content, locking its row until the end of the transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO media_content (content_hash, reference_count) VALUES (?1, 1) "
+        + "ON CONFLICT (content_hash) DO UPDATE SET reference_count = media_content.reference_count + 1",
+        nativeQuery = true)
+    void addReference(String contentHash);
+
+    /**
+     * Remove a reference to a content, locking its row until the end of the transaction.
+     */
+    @Modifying
+    @Query("update MediaContent c set c.referenceCount = c.referenceCount - 1 where c.contentHash = ?1")
+    void removeReference(String contentHash);
+
+    /**
+     * Delete a content when it has no reference left.
+     *
+     * @return 1 when the content was deleted
+     */
+    @Modifying
+    @Query("delete from MediaContent c where c.contentHash = ?1 and c.referenceCount <= 0")
+    int deleteUnreferenced(String contentHash);
+}
@@ -1,7 +1,10 @@
 package com.yas.media.repository;
 
 import com.yas.media.model.Media;
+import com.yas.media.model.dto.MediaFileDto;
 import com.yas.media.viewmodel.NoFileMediaVm;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -11,4 +14,12 @@ public interface MediaRepository extends JpaRepository<Media, Long> {
     @Query(value = "select new com.yas.media.viewmodel.NoFileMediaVm(m.id, m.caption, m.fileName, m.mediaType) "
         + "from Media m where m.id = ?1")
     NoFileMediaVm findByIdWithoutFileInReturn(Long id);
+
+    @Query(value = "select new com.yas.media.viewmodel.NoFileMediaVm(m.id, m.caption, m.fileName, m.mediaType) "
+        + "from Media m where m.id in ?1")
+    List<NoFileMediaVm> findAllByIdWithoutFileInReturn(Collection<Long> ids);
+
+    @Query(value = "select new com.yas.media.model.dto.MediaFileDto(m.id, m.fileName, m.mediaType, m.filePath) "
+        + "from Media m where m.id = ?1")
+    MediaFileDto findFileById(Long id);
 }
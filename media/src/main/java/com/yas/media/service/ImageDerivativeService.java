@@ -0,0 +1,190 @@
+package com.yas.media.service;
+
+import com.yas.media.config.ImageDerivativeConfig;
+import com.yas.media.model.ImageSize;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.imageio.ImageIO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resized copies of the uploaded images, stored next to the original as {@code <original>.<size>}.
+ *
+ * <p>Images are resized by a bounded pool of platform threads, right after the upload when eager, otherwise on
+ * the first request of a size. Concurrent requests of the same copy wait for the same resizing.</p>
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService implements DisposableBean {
+
+    private static final String TEMP_FILE_PREFIX = ".derivative-";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final ImageDerivativeConfig imageDerivativeConfig;
+    private final ThreadPoolExecutor executor;
+    private final Map<Path, CompletableFuture<Path>> resizing = new ConcurrentHashMap<>();
+
+    public ImageDerivativeService(ImageDerivativeConfig imageDerivativeConfig) {
+        this.imageDerivativeConfig = imageDerivativeConfig;
+        this.executor = new ThreadPoolExecutor(imageDerivativeConfig.workerThreads(),
+            imageDerivativeConfig.workerThreads(), 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(imageDerivativeConfig.queueCapacity()),
+            Thread.ofPlatform().name("image-derivative-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static Path getDerivativePath(String filePath, ImageSize size) {
+        return Path.of(filePath + "." + size.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * The copy of an image resized to a size, resized first when it does not exist yet.
+     *
+     * @return the copy, or empty when it could not be resized in time
+     */
+    public Optional<Path> getDerivative(String filePath, String mediaType, ImageSize size) {
+        Path derivativePath = getDerivativePath(filePath, size);
+        if (Files.exists(derivativePath)) {
+            return Optional.of(derivativePath);
+        }
+        try {
+            return Optional.of(submit(filePath, mediaType, size)
+                .get(imageDerivativeConfig.timeout().toMillis(), TimeUnit.MILLISECONDS));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            log.warn("Image {} not resized to {} in time, serving the original", filePath, size);
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            log.error("Failed to resize image {} to {}", filePath, size, e.getCause());
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Resize a new image to every size in background, when eager.
+     */
+    public void generateDerivatives(String filePath, String mediaType) {
+        if (!imageDerivativeConfig.eager()) {
+            return;
+        }
+        for (ImageSize size : ImageSize.values()) {
+            try {
+                submit(filePath, mediaType, size);
+            } catch (RejectedExecutionException e) {
+                log.warn("Resize queue is full, image {} will be resized on request", filePath);
+                return;
+            }
+        }
+    }
+
+    public void deleteDerivatives(String filePath) {
+        for (ImageSize size : ImageSize.values()) {
+            try {
+                Files.deleteIfExists(getDerivativePath(filePath, size));
+            } catch (IOException e) {
+                log.warn("Failed to delete the {} copy of image {}", size, filePath, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<Path> submit(String filePath, String mediaType, ImageSize size) {
+        Path derivativePath = getDerivativePath(filePath, size);
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> running = resizing.putIfAbsent(derivativePath, future);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(resize(filePath, mediaType, size, derivativePath));
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    resizing.remove(derivativePath, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            resizing.remove(derivativePath, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        return future;
+    }
+
+    private static Path resize(String filePath, String mediaType, ImageSize size, Path derivativePath)
+        throws IOException {
+        if (Files.exists(derivativePath)) {
+            return derivativePath;
+        }
+        Path original = Path.of(filePath);
+        BufferedImage image = ImageIO.read(original.toFile());
+        if (image == null) {
+            throw new IOException("Unreadable image " + filePath);
+        }
+
+        Path tempFile = Files.createTempFile(derivativePath.toAbsolutePath().getParent(), TEMP_FILE_PREFIX,
+            TEMP_FILE_SUFFIX);
+        try {
+            if (image.getWidth() <= size.getWidth()) {
+                // Never upscale, the copy of a narrow image is the image itself
+                Files.copy(original, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            } else if (!ImageIO.write(scale(image, size.getWidth(), mediaType), getFormatName(mediaType),
+                tempFile.toFile())) {
+                throw new IOException("No image writer for " + mediaType);
+            }
+            Files.move(tempFile, derivativePath, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        log.debug("Image {} resized to {}", filePath, size);
+        return derivativePath;
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, String mediaType) {
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        boolean opaque = MediaType.IMAGE_JPEG_VALUE.equals(mediaType);
+        BufferedImage scaled = new BufferedImage(width, height,
+            opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static String getFormatName(String mediaType) {
+        return MediaType.parseMediaType(mediaType).getSubtype();
+    }
+}
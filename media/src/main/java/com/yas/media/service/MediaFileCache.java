@@ -0,0 +1,120 @@
+package com.yas.media.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yas.media.config.MediaFileCacheConfig;
+import com.yas.media.model.ImageSize;
+import com.yas.media.model.dto.MediaDto;
+import com.yas.media.model.dto.MediaFileDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory cache of the small media files, mostly thumbnails, with their metadata and ETag.
+ *
+ * <p>The cache is bounded by the total size of the cached files and evicts the least recently used ones.
+ * A media file never changes, entries are dropped when the media is removed by this instance and expire after the
+ * configured TTL otherwise, which bounds how long a media removed by another instance is still served. The file
+ * name, type and path of the served media are cached apart, so files served from disk skip the database too.</p>
+ */
+@Slf4j
+@Component
+public class MediaFileCache {
+
+    /* Approximate heap used by an entry besides its content */
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final boolean enabled;
+    private final long maxFileSize;
+    private final Cache<FileKey, CachedFile> files;
+    private final Cache<Long, MediaFileDto> mediaFiles;
+
+    public MediaFileCache(MediaFileCacheConfig mediaFileCacheConfig, MeterRegistry meterRegistry) {
+        this.enabled = mediaFileCacheConfig.enabled();
+        this.maxFileSize = mediaFileCacheConfig.maxFileSize().toBytes();
+        this.files = Caffeine.newBuilder()
+            .maximumWeight(mediaFileCacheConfig.maxSize().toBytes())
+            .weigher((FileKey key, CachedFile file) -> file.content().length + ENTRY_OVERHEAD_BYTES)
+            .expireAfterWrite(mediaFileCacheConfig.ttl())
+            .recordStats()
+            .build();
+        this.mediaFiles = Caffeine.newBuilder()
+            .maximumSize(mediaFileCacheConfig.maxMediaCount())
+            .expireAfterWrite(mediaFileCacheConfig.ttl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, files, "media.files");
+        CaffeineCacheMetrics.monitor(meterRegistry, mediaFiles, "media.file-locations");
+    }
+
+    /**
+     * Return the cached file name, type and path of a media or load them, an unknown media is not cached.
+     */
+    public MediaFileDto getMediaFile(Long id, Function<Long, MediaFileDto> loader) {
+        return enabled ? mediaFiles.get(id, loader) : loader.apply(id);
+    }
+
+    /**
+     * The cached file of a media, or its copy resized to a size when the size is not null.
+     *
+     * @return the cached file, or null
+     */
+    public CachedFile get(Long id, ImageSize size) {
+        return enabled ? files.getIfPresent(new FileKey(id, size)) : null;
+    }
+
+    /**
+     * Cache a file read from the file system when it is small enough.
+     */
+    public void put(Long id, ImageSize size, String fileName, MediaDto mediaDto) {
+        if (!enabled || mediaDto.getContent() == null || mediaDto.isTemporary()) {
+            return;
+        }
+        try {
+            if (mediaDto.getContent().contentLength() > maxFileSize) {
+                return;
+            }
+            files.put(new FileKey(id, size), new CachedFile(fileName, mediaDto.getMediaType(),
+                mediaDto.getContent().getContentAsByteArray(), mediaDto.getEtag(), mediaDto.getLastModified()));
+        } catch (IOException e) {
+            log.warn("Failed to cache the file of media {}", id, e);
+        }
+    }
+
+    /**
+     * Drop the file of a removed media and its resized copies.
+     */
+    public void invalidate(Long id) {
+        mediaFiles.invalidate(id);
+        files.invalidate(new FileKey(id, null));
+        for (ImageSize size : ImageSize.values()) {
+            files.invalidate(new FileKey(id, size));
+        }
+    }
+
+    private record FileKey(Long id, ImageSize size) {
+    }
+
+    /**
+     * A cached file, the ETag and modification time are those of the file it was read from.
+     */
+    public record CachedFile(String fileName, MediaType mediaType, byte[] content, String etag,
+                             Instant lastModified) {
+
+        public MediaDto toMediaDto() {
+            return MediaDto.builder()
+                .content(new ByteArrayResource(content))
+                .mediaType(mediaType)
+                .etag(etag)
+                .lastModified(lastModified)
+                .build();
+        }
+    }
+}
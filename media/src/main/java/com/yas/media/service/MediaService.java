@@ -1,5 +1,6 @@
 package com.yas.media.service;
 
+import com.yas.media.model.ImageSize;
 import com.yas.media.model.Media;
 import com.yas.media.model.dto.MediaDto;
 import com.yas.media.viewmodel.MediaPostVm;
@@ -15,5 +16,7 @@ public interface MediaService {
 
     MediaDto getFile(Long id, String fileName);
 
+    MediaDto getFile(Long id, String fileName, ImageSize size);
+
     List<MediaVm> getMediaByIds(List<Long> ids);
 }
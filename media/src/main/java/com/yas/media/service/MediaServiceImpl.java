@@ -2,35 +2,54 @@ package com.yas.media.service;
 
 import com.yas.commonlibrary.exception.NotFoundException;
 import com.yas.media.config.YasConfig;
-import com.yas.media.mapper.MediaVmMapper;
+import com.yas.media.model.ImageSize;
 import com.yas.media.model.Media;
 import com.yas.media.model.dto.MediaDto;
 import com.yas.media.model.dto.MediaDto.MediaDtoBuilder;
+import com.yas.media.model.dto.MediaFileDto;
+import com.yas.media.model.dto.PersistedFileDto;
 import com.yas.media.repository.FileSystemRepository;
+import com.yas.media.repository.MediaContentRepository;
 import com.yas.media.repository.MediaRepository;
 import com.yas.media.utils.StringUtils;
 import com.yas.media.viewmodel.MediaPostVm;
 import com.yas.media.viewmodel.MediaVm;
 import com.yas.media.viewmodel.NoFileMediaVm;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @RequiredArgsConstructor
 @Service
 public class MediaServiceImpl implements MediaService {
 
-    private final MediaVmMapper mediaVmMapper;
     private final MediaRepository mediaRepository;
+    private final MediaContentRepository mediaContentRepository;
     private final FileSystemRepository fileSystemRepository;
+    private final ImageDerivativeService imageDerivativeService;
+    private final MediaFileCache mediaFileCache;
     private final YasConfig yasConfig;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
+    @Transactional
     @SneakyThrows
     public Media saveMedia(MediaPostVm mediaPostVm) {
         Media media = new Media();
@@ -42,20 +61,41 @@ public class MediaServiceImpl implements MediaService {
         } else {
             media.setFileName(mediaPostVm.multipartFile().getOriginalFilename());
         }
-        String filePath = fileSystemRepository.persistFile(media.getFileName(),
-            mediaPostVm.multipartFile().getBytes());
-        media.setFilePath(filePath);
+        PersistedFileDto tempFile;
+        try (InputStream content = mediaPostVm.multipartFile().getInputStream()) {
+            tempFile = fileSystemRepository.persistTempFile(content);
+        }
+        try {
+            // Held until the commit, so the file is not deleted with the last other reference of the content
+            mediaContentRepository.lockContent(tempFile.contentHash());
+            mediaContentRepository.addReference(tempFile.contentHash());
+            media.setFilePath(fileSystemRepository.storeFile(tempFile));
+        } finally {
+            fileSystemRepository.deleteFile(tempFile.filePath());
+        }
+        media.setContentHash(tempFile.contentHash());
+        media.setFileSize(tempFile.size());
+        afterTransaction(() -> imageDerivativeService.generateDerivatives(media.getFilePath(), media.getMediaType()),
+            () -> deleteUnreferencedFile(media.getContentHash(), media.getFilePath()));
 
         return mediaRepository.save(media);
     }
 
     @Override
+    @Transactional
     public void removeMedia(Long id) {
-        NoFileMediaVm noFileMediaVm = mediaRepository.findByIdWithoutFileInReturn(id);
-        if (noFileMediaVm == null) {
-            throw new NotFoundException(String.format("Media %s is not found", id));
-        }
+        Media media = mediaRepository.findById(id)
+            .orElseThrow(() -> new NotFoundException(String.format("Media %s is not found", id)));
         mediaRepository.deleteById(id);
+        mediaFileCache.invalidate(id);
+        if (media.getContentHash() == null) {
+            // Stored by file name before content addressing, the file may be shared
+            return;
+        }
+        mediaContentRepository.removeReference(media.getContentHash());
+        if (mediaContentRepository.deleteUnreferenced(media.getContentHash()) > 0) {
+            afterTransaction(() -> deleteUnreferencedFile(media.getContentHash(), media.getFilePath()), () -> { });
+        }
     }
 
     @Override
@@ -77,35 +117,106 @@ public class MediaServiceImpl implements MediaService {
 
     @Override
     public MediaDto getFile(Long id, String fileName) {
+        return getFile(id, fileName, null);
+    }
+
+    @Override
+    @SneakyThrows
+    public MediaDto getFile(Long id, String fileName, ImageSize size) {
 
         MediaDtoBuilder builder = MediaDto.builder();
 
-        Media media = mediaRepository.findById(id).orElse(null);
-        if (media == null || !fileName.equalsIgnoreCase(media.getFileName())) {
+        MediaFileCache.CachedFile cachedFile = mediaFileCache.get(id, size);
+        if (cachedFile != null) {
+            return fileName.equalsIgnoreCase(cachedFile.fileName()) ? cachedFile.toMediaDto() : builder.build();
+        }
+
+        MediaFileDto mediaFile = mediaFileCache.getMediaFile(id, mediaRepository::findFileById);
+        if (mediaFile == null || !fileName.equalsIgnoreCase(mediaFile.fileName())) {
             return builder.build();
         }
-        MediaType mediaType = MediaType.valueOf(media.getMediaType());
-        InputStream fileContent = fileSystemRepository.getFile(media.getFilePath());
+        MediaType mediaType = MediaType.valueOf(mediaFile.mediaType());
+        Path derivativePath = size == null ? null
+            : imageDerivativeService.getDerivative(mediaFile.filePath(), mediaFile.mediaType(), size).orElse(null);
+        FileSystemResource fileContent = derivativePath == null
+            ? fileSystemRepository.getFile(mediaFile.filePath())
+            : new FileSystemResource(derivativePath);
+        long lastModified = fileContent.lastModified();
 
-        return builder
+        MediaDto mediaDto = builder
             .content(fileContent)
             .mediaType(mediaType)
+            .temporary(size != null && derivativePath == null)
+            .etag(String.format("%d-%x-%x", mediaFile.id(), fileContent.contentLength(), lastModified))
+            .lastModified(Instant.ofEpochMilli(lastModified))
             .build();
+        mediaFileCache.put(id, size, mediaFile.fileName(), mediaDto);
+        return mediaDto;
     }
 
     @Override
     public List<MediaVm> getMediaByIds(List<Long> ids) {
-        return mediaRepository.findAllById(ids).stream()
-                .map(mediaVmMapper::toVm)
-                .map(media -> {
-                    String url = getMediaUrl(media.getId(), media.getFileName());
-                    media.setUrl(url);
-                    return media;
-                }).toList();
+        Map<Long, NoFileMediaVm> mediaById = mediaRepository.findAllByIdWithoutFileInReturn(ids).stream()
+            .collect(Collectors.toMap(NoFileMediaVm::id, Function.identity()));
+        String publicUrl = yasConfig.publicUrl();
+        // In the order of the requested ids
+        return ids.stream()
+            .distinct()
+            .map(mediaById::get)
+            .filter(Objects::nonNull)
+            .map(media -> new MediaVm(media.id(), media.caption(), media.fileName(), media.mediaType(),
+                getMediaUrl(publicUrl, media.id(), media.fileName())))
+            .toList();
+    }
+
+    /**
+     * Run the file system changes once the outcome of the current transaction is known, the files then always
+     * match the committed rows. Without a transaction, the changes are applied right away.
+     */
+    private static void afterTransaction(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                onCommit.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Delete a stored content and its derivatives, unless it was referenced again once the transaction ended.
+     * The content is locked meanwhile in a new transaction, an upload of the same content either committed its
+     * reference before or waits for the deletion and stores the file again.
+     */
+    private void deleteUnreferencedFile(String contentHash, String filePath) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.executeWithoutResult(status -> {
+            mediaContentRepository.lockContent(contentHash);
+            if (mediaContentRepository.existsById(contentHash)) {
+                return;
+            }
+            fileSystemRepository.deleteFile(filePath);
+            imageDerivativeService.deleteDerivatives(filePath);
+        });
     }
 
     private String getMediaUrl(Long mediaId, String fileName) {
-        return UriComponentsBuilder.fromUriString(yasConfig.publicUrl())
+        return getMediaUrl(yasConfig.publicUrl(), mediaId, fileName);
+    }
+
+    private static String getMediaUrl(String publicUrl, Long mediaId, String fileName) {
+        return UriComponentsBuilder.fromUriString(publicUrl)
                 .path(String.format("/medias/%1$s/file/%2$s", mediaId, fileName))
                 .build().toUriString();
     }
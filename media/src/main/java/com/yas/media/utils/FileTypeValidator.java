@@ -2,9 +2,12 @@ package com.yas.media.utils;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import lombok.SneakyThrows;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -30,12 +33,7 @@ public class FileTypeValidator implements ConstraintValidator<ValidFileType, Mul
         }
         for (String type : allowedTypes) {
             if (type.equals(file.getContentType())) {
-                try {
-                    BufferedImage image = ImageIO.read(file.getInputStream());
-                    return image != null;
-                } catch (IOException e) {
-                    return false;
-                }
+                return isReadableImage(file);
             }
         }
 
@@ -43,4 +41,29 @@ public class FileTypeValidator implements ConstraintValidator<ValidFileType, Mul
         context.buildConstraintViolationWithTemplate(message).addConstraintViolation();
         return false;
     }
+
+    /**
+     * Check the image header with a reader of its format, without decoding the pixels of the whole image.
+     */
+    private static boolean isReadableImage(MultipartFile file) {
+        try (InputStream content = file.getInputStream();
+             ImageInputStream imageInputStream = ImageIO.createImageInputStream(content)) {
+            if (imageInputStream == null) {
+                return false;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                return reader.getWidth(0) > 0 && reader.getHeight(0) > 0;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
 }
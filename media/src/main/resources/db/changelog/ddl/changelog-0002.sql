@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset yas:media-content-addressed-storage
+ALTER TABLE media ADD COLUMN content_hash varchar(64) NULL;
+ALTER TABLE media ADD COLUMN file_size bigint NULL;
+
+CREATE TABLE media_content
+(
+    content_hash    varchar(64) NOT NULL,
+    reference_count bigint      NOT NULL,
+    CONSTRAINT media_content_pkey PRIMARY KEY (content_hash)
+);
@@ -1,21 +1,27 @@
 package com.yas.media;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
 import com.yas.media.config.FilesystemConfig;
+import com.yas.media.model.dto.PersistedFileDto;
 import com.yas.media.repository.FileSystemRepository;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -59,24 +65,55 @@ class FileSystemRepositoryTest {
     @Test
     void testPersistFile_whenDirectoryNotExist_thenThrowsException() {
         String directoryPath = "non-exist-directory";
-        String filename = "test-file.png";
         byte[] content = "test-content".getBytes();
 
         when(filesystemConfig.getDirectory()).thenReturn(directoryPath);
 
-        assertThrows(IllegalStateException.class, () -> fileSystemRepository.persistFile(filename, content));
+        assertThrows(IllegalStateException.class,
+            () -> fileSystemRepository.persistTempFile(new ByteArrayInputStream(content)));
     }
 
     @Test
-    void testPersistFile_filePathNotContainsDirectory() {
-
-        String filename = "test-file.png";
-        byte[] content = "test-content".getBytes();
-
+    void testStoreFile_whenContentHashInvalid_thenThrowsException() {
         File directory = new File(TEST_URL);
         directory.mkdirs();
         when(filesystemConfig.getDirectory()).thenReturn(TEST_URL);
-        assertThrows(IllegalArgumentException.class, () -> fileSystemRepository.persistFile(filename, content));
+        PersistedFileDto tempFile = new PersistedFileDto(TEST_URL + "/upload.tmp", "../test-file.png", 0);
+
+        assertThrows(IllegalArgumentException.class, () -> fileSystemRepository.storeFile(tempFile));
+    }
+
+    @Test
+    void testPersistFile_whenDirectoryExists_thenStoreFileByContentHash(@TempDir Path directory) throws IOException {
+        String contentHash = "0a3666a0710c08aa6d0de92ce72beeb5b93124cce1bf3701c9d6cdeb543cb73e";
+        byte[] content = "test-content".getBytes();
+
+        when(filesystemConfig.getDirectory()).thenReturn(directory.toString());
+
+        PersistedFileDto tempFile = fileSystemRepository.persistTempFile(new ByteArrayInputStream(content));
+        String filePath = fileSystemRepository.storeFile(tempFile);
+
+        assertEquals(content.length, tempFile.size());
+        assertEquals(contentHash, tempFile.contentHash());
+        assertEquals(directory.resolve("0a").resolve("36").resolve(contentHash).toString(), filePath);
+        assertArrayEquals(content, Files.readAllBytes(Path.of(filePath)));
+        assertFalse(Files.exists(Path.of(tempFile.filePath())));
+    }
+
+    @Test
+    void testStoreFile_whenContentAlreadyStored_thenKeepSingleFile(@TempDir Path directory) throws IOException {
+        byte[] content = "test-content".getBytes();
+        when(filesystemConfig.getDirectory()).thenReturn(directory.toString());
+
+        String filePath = fileSystemRepository.storeFile(
+            fileSystemRepository.persistTempFile(new ByteArrayInputStream(content)));
+        String duplicateFilePath = fileSystemRepository.storeFile(
+            fileSystemRepository.persistTempFile(new ByteArrayInputStream(content)));
+
+        assertEquals(filePath, duplicateFilePath);
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
     }
 
     @Test
@@ -91,7 +128,7 @@ class FileSystemRepositoryTest {
         Files.createDirectories(filePath.getParent());
         Files.write(filePath, content);
 
-        InputStream inputStream = fileSystemRepository.getFile(filePathStr);
+        InputStream inputStream = fileSystemRepository.getFile(filePathStr).getInputStream();
         byte[] fileContent = inputStream.readAllBytes();
         assertArrayEquals(content, fileContent);
     }
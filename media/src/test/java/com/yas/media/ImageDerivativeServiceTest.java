@@ -0,0 +1,79 @@
+package com.yas.media;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.yas.media.config.ImageDerivativeConfig;
+import com.yas.media.model.ImageSize;
+import com.yas.media.service.ImageDerivativeService;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageDerivativeServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private ImageDerivativeService imageDerivativeService;
+
+    @BeforeEach
+    void setUp() {
+        imageDerivativeService = new ImageDerivativeService(
+            new ImageDerivativeConfig(false, 1, 10, Duration.ofSeconds(10)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageDerivativeService.destroy();
+    }
+
+    @Test
+    void getDerivative_whenImageWiderThanSize_thenResizeKeepingAspectRatio() throws IOException {
+        Path image = writeImage(800, 400, "png");
+
+        Optional<Path> derivative = imageDerivativeService.getDerivative(image.toString(), "image/png",
+            ImageSize.THUMBNAIL);
+
+        assertTrue(derivative.isPresent());
+        assertEquals(ImageDerivativeService.getDerivativePath(image.toString(), ImageSize.THUMBNAIL),
+            derivative.get());
+        BufferedImage resized = ImageIO.read(derivative.get().toFile());
+        assertEquals(160, resized.getWidth());
+        assertEquals(80, resized.getHeight());
+    }
+
+    @Test
+    void getDerivative_whenImageNarrowerThanSize_thenCopyOriginal() throws IOException {
+        Path image = writeImage(300, 200, "jpeg");
+
+        Optional<Path> derivative = imageDerivativeService.getDerivative(image.toString(), "image/jpeg",
+            ImageSize.DETAIL);
+
+        assertTrue(derivative.isPresent());
+        assertArrayEquals(Files.readAllBytes(image), Files.readAllBytes(derivative.get()));
+    }
+
+    @Test
+    void getDerivative_whenImageMissing_thenReturnEmpty() {
+        Optional<Path> derivative = imageDerivativeService.getDerivative(directory.resolve("missing").toString(),
+            "image/png", ImageSize.CARD);
+
+        assertTrue(derivative.isEmpty());
+    }
+
+    private Path writeImage(int width, int height, String format) throws IOException {
+        Path image = directory.resolve("image." + format);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, image.toFile());
+        return image;
+    }
+}
@@ -0,0 +1,94 @@
+package com.yas.media;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.yas.media.config.MediaFileCacheConfig;
+import com.yas.media.model.ImageSize;
+import com.yas.media.model.dto.MediaDto;
+import com.yas.media.model.dto.MediaFileDto;
+import com.yas.media.service.MediaFileCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+class MediaFileCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MediaFileCache mediaFileCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        mediaFileCache = new MediaFileCache(new MediaFileCacheConfig(true, DataSize.ofBytes(16),
+            DataSize.ofMegabytes(1), Duration.ofMinutes(10), 100), meterRegistry);
+    }
+
+    @Test
+    void put_whenFileSmall_thenServeFromMemory() throws IOException {
+        mediaFileCache.put(1L, ImageSize.THUMBNAIL, "file", mediaDto("small"));
+
+        MediaFileCache.CachedFile cachedFile = mediaFileCache.get(1L, ImageSize.THUMBNAIL);
+
+        assertEquals("file", cachedFile.fileName());
+        assertEquals("1-5-0", cachedFile.etag());
+        assertArrayEquals("small".getBytes(), cachedFile.toMediaDto().getContent().getContentAsByteArray());
+        assertNull(mediaFileCache.get(1L, null));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "media.files").tag("result", "hit")
+            .functionCounter().count());
+    }
+
+    @Test
+    void put_whenFileLarge_thenNotCached() {
+        mediaFileCache.put(1L, null, "file", mediaDto("larger than sixteen bytes"));
+
+        assertNull(mediaFileCache.get(1L, null));
+    }
+
+    @Test
+    void invalidate_whenMediaRemoved_thenDropFileAndResizedCopies() {
+        mediaFileCache.put(1L, null, "file", mediaDto("small"));
+        mediaFileCache.put(1L, ImageSize.CARD, "file", mediaDto("small"));
+
+        mediaFileCache.invalidate(1L);
+
+        assertNull(mediaFileCache.get(1L, null));
+        assertNull(mediaFileCache.get(1L, ImageSize.CARD));
+    }
+
+    @Test
+    void getMediaFile_whenLoadedOnce_thenServeFromMemory() {
+        MediaFileDto mediaFile = new MediaFileDto(1L, "file", "image/png", "/images/file");
+        AtomicInteger loads = new AtomicInteger();
+
+        mediaFileCache.getMediaFile(1L, id -> {
+            loads.incrementAndGet();
+            return mediaFile;
+        });
+        MediaFileDto cachedMediaFile = mediaFileCache.getMediaFile(1L, id -> {
+            loads.incrementAndGet();
+            return mediaFile;
+        });
+
+        assertEquals(mediaFile, cachedMediaFile);
+        assertEquals(1, loads.get());
+    }
+
+    private static MediaDto mediaDto(String content) {
+        return MediaDto.builder()
+            .content(new ByteArrayResource(content.getBytes()))
+            .mediaType(MediaType.IMAGE_PNG)
+            .etag(String.format("1-%x-0", content.length()))
+            .lastModified(Instant.EPOCH)
+            .build();
+    }
+}
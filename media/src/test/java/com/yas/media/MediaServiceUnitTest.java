@@ -6,51 +6,78 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.yas.commonlibrary.exception.NotFoundException;
 import com.yas.media.config.YasConfig;
-import com.yas.media.mapper.MediaVmMapper;
+import com.yas.media.model.ImageSize;
 import com.yas.media.model.Media;
 import com.yas.media.model.dto.MediaDto;
 import com.yas.media.model.dto.MediaDto.MediaDtoBuilder;
+import com.yas.media.model.dto.MediaFileDto;
+import com.yas.media.model.dto.PersistedFileDto;
 import com.yas.media.repository.FileSystemRepository;
+import com.yas.media.repository.MediaContentRepository;
 import com.yas.media.repository.MediaRepository;
+import com.yas.media.service.ImageDerivativeService;
+import com.yas.media.service.MediaFileCache;
 import com.yas.media.service.MediaServiceImpl;
 import com.yas.media.viewmodel.MediaPostVm;
 import com.yas.media.viewmodel.MediaVm;
 import com.yas.media.viewmodel.NoFileMediaVm;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import org.jetbrains.annotations.NotNull;
+import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mapstruct.factory.Mappers;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.mockito.Spy;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 class MediaServiceUnitTest {
 
-    @Spy
-    private MediaVmMapper mediaVmMapper = Mappers.getMapper(MediaVmMapper.class);
-
     @Mock
     private MediaRepository mediaRepository;
 
+    @Mock
+    private MediaContentRepository mediaContentRepository;
+
     @Mock
     private FileSystemRepository fileSystemRepository;
 
+    @Mock
+    private ImageDerivativeService imageDerivativeService;
+
+    @Mock
+    private MediaFileCache mediaFileCache;
+
     @Mock
     private YasConfig yasConfig;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Mock
     private MediaDtoBuilder builder;
 
@@ -60,8 +87,12 @@ class MediaServiceUnitTest {
     private Media media;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws IOException {
         MockitoAnnotations.openMocks(this);
+        when(fileSystemRepository.persistTempFile(any())).thenReturn(new PersistedFileDto("temp", "hash", 0));
+        when(fileSystemRepository.storeFile(any())).thenReturn("path");
+        when(mediaFileCache.getMediaFile(any(), any())).thenAnswer(
+            invocation -> invocation.<Function<Long, MediaFileDto>>getArgument(1).apply(invocation.getArgument(0)));
         media = new Media();
         media.setId(1L);
         media.setCaption("test");
@@ -101,13 +132,106 @@ class MediaServiceUnitTest {
 
     @Test
     void removeMedia_whenValidId_thenRemoveSuccess() {
-        NoFileMediaVm noFileMediaVm = new NoFileMediaVm(1L, "Test", "fileName", "image/png");
-        when(mediaRepository.findByIdWithoutFileInReturn(1L)).thenReturn(noFileMediaVm);
+        when(mediaRepository.findById(1L)).thenReturn(Optional.of(media));
         doNothing().when(mediaRepository).deleteById(1L);
 
         mediaService.removeMedia(1L);
 
         verify(mediaRepository, times(1)).deleteById(1L);
+        verify(mediaFileCache).invalidate(1L);
+        verify(mediaContentRepository, never()).removeReference(any());
+    }
+
+    @Test
+    void removeMedia_whenLastReference_thenDeleteFile() {
+        media.setContentHash("hash");
+        media.setFilePath("/images/ha/sh/hash");
+        when(mediaRepository.findById(1L)).thenReturn(Optional.of(media));
+        when(mediaContentRepository.deleteUnreferenced("hash")).thenReturn(1);
+
+        mediaService.removeMedia(1L);
+
+        verify(mediaContentRepository).removeReference("hash");
+        verify(fileSystemRepository).deleteFile("/images/ha/sh/hash");
+        verify(imageDerivativeService).deleteDerivatives("/images/ha/sh/hash");
+    }
+
+    @Test
+    void removeMedia_whenLastReference_thenDeleteFileUnderContentLock() {
+        media.setContentHash("hash");
+        media.setFilePath("/images/ha/sh/hash");
+        when(mediaRepository.findById(1L)).thenReturn(Optional.of(media));
+        when(mediaContentRepository.deleteUnreferenced("hash")).thenReturn(1);
+
+        mediaService.removeMedia(1L);
+
+        InOrder inOrder = inOrder(transactionManager, mediaContentRepository, fileSystemRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(mediaContentRepository).lockContent("hash");
+        inOrder.verify(mediaContentRepository).existsById("hash");
+        inOrder.verify(fileSystemRepository).deleteFile("/images/ha/sh/hash");
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void removeMedia_whenContentReferencedAgainByUpload_thenKeepFile() {
+        media.setContentHash("hash");
+        media.setFilePath("/images/ha/sh/hash");
+        when(mediaRepository.findById(1L)).thenReturn(Optional.of(media));
+        when(mediaContentRepository.deleteUnreferenced("hash")).thenReturn(1);
+        when(mediaContentRepository.existsById("hash")).thenReturn(true);
+
+        mediaService.removeMedia(1L);
+
+        verify(mediaContentRepository).lockContent("hash");
+        verify(fileSystemRepository, never()).deleteFile(any());
+    }
+
+    @Test
+    void removeMedia_whenInTransaction_thenDeleteFileAfterCommit() {
+        media.setContentHash("hash");
+        media.setFilePath("/images/ha/sh/hash");
+        when(mediaRepository.findById(1L)).thenReturn(Optional.of(media));
+        when(mediaContentRepository.deleteUnreferenced("hash")).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            mediaService.removeMedia(1L);
+            verify(fileSystemRepository, never()).deleteFile(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(fileSystemRepository).deleteFile("/images/ha/sh/hash");
+        verify(imageDerivativeService).deleteDerivatives("/images/ha/sh/hash");
+    }
+
+    @Test
+    void removeMedia_whenRolledBack_thenKeepFile() {
+        media.setContentHash("hash");
+        media.setFilePath("/images/ha/sh/hash");
+        when(mediaRepository.findById(1L)).thenReturn(Optional.of(media));
+        when(mediaContentRepository.deleteUnreferenced("hash")).thenReturn(1);
+
+        rollBack(() -> mediaService.removeMedia(1L));
+
+        verify(fileSystemRepository, never()).deleteFile(any());
+        verify(imageDerivativeService, never()).deleteDerivatives(any());
+    }
+
+    @Test
+    void removeMedia_whenContentStillReferenced_thenKeepFile() {
+        media.setContentHash("hash");
+        media.setFilePath("/images/ha/sh/hash");
+        when(mediaRepository.findById(1L)).thenReturn(Optional.of(media));
+        when(mediaContentRepository.deleteUnreferenced("hash")).thenReturn(0);
+
+        mediaService.removeMedia(1L);
+
+        verify(mediaContentRepository).removeReference("hash");
+        verify(fileSystemRepository, never()).deleteFile(any());
     }
 
     @Test
@@ -129,6 +253,55 @@ class MediaServiceUnitTest {
         assertEquals("fileName", mediaSave.getFileName());
     }
 
+    @Test
+    void saveMedia_whenValidFile_thenStoreContentWithReference() throws IOException {
+        byte[] content = new byte[] {1, 2, 3};
+        MultipartFile multipartFile = new MockMultipartFile("file", "example.png", "image/png", content);
+        MediaPostVm mediaPostVm = new MediaPostVm("media", multipartFile, null);
+        PersistedFileDto tempFile = new PersistedFileDto("/images/upload.tmp", "hash", content.length);
+        when(mediaRepository.save(any(Media.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fileSystemRepository.persistTempFile(any(InputStream.class))).thenReturn(tempFile);
+        when(fileSystemRepository.storeFile(tempFile)).thenReturn("/images/ha/sh/hash");
+
+        Media mediaSave = mediaService.saveMedia(mediaPostVm);
+
+        assertEquals("/images/ha/sh/hash", mediaSave.getFilePath());
+        assertEquals("hash", mediaSave.getContentHash());
+        assertEquals(content.length, mediaSave.getFileSize());
+        assertEquals("example.png", mediaSave.getFileName());
+        InOrder inOrder = inOrder(mediaContentRepository, fileSystemRepository);
+        inOrder.verify(mediaContentRepository).lockContent("hash");
+        inOrder.verify(mediaContentRepository).addReference("hash");
+        inOrder.verify(fileSystemRepository).storeFile(tempFile);
+        verify(fileSystemRepository).deleteFile("/images/upload.tmp");
+        verify(imageDerivativeService).generateDerivatives("/images/ha/sh/hash", "image/png");
+    }
+
+    @Test
+    void saveMedia_whenRolledBack_thenDeleteStoredFile() {
+        MultipartFile multipartFile = new MockMultipartFile("file", "example.png", "image/png", new byte[] {1});
+        when(mediaRepository.save(any(Media.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mediaContentRepository.existsById("hash")).thenReturn(false);
+
+        rollBack(() -> mediaService.saveMedia(new MediaPostVm("media", multipartFile, null)));
+
+        verify(fileSystemRepository).deleteFile("path");
+        verify(imageDerivativeService).deleteDerivatives("path");
+        verify(imageDerivativeService, never()).generateDerivatives(any(), any());
+    }
+
+    @Test
+    void saveMedia_whenRolledBackAndContentReferencedElsewhere_thenKeepStoredFile() {
+        MultipartFile multipartFile = new MockMultipartFile("file", "example.png", "image/png", new byte[] {1});
+        when(mediaRepository.save(any(Media.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mediaContentRepository.existsById("hash")).thenReturn(true);
+
+        rollBack(() -> mediaService.saveMedia(new MediaPostVm("media", multipartFile, null)));
+
+        verify(fileSystemRepository, never()).deleteFile("path");
+        verify(imageDerivativeService, never()).deleteDerivatives(any());
+    }
+
     @Test
     void saveMedia_whenTypeJPEG_thenSaveSuccess() {
         byte[] pngFileContent = new byte[] {};
@@ -227,7 +400,7 @@ class MediaServiceUnitTest {
     @Test
     void getFile_whenMediaNotFound_thenReturnMediaDto() {
         MediaDto expectedDto = MediaDto.builder().build();
-        when(mediaRepository.findById(1L)).thenReturn(Optional.ofNullable(null));
+        when(mediaRepository.findFileById(1L)).thenReturn(null);
         when(builder.build()).thenReturn(expectedDto);
 
         MediaDto mediaDto = mediaService.getFile(1L, "fileName");
@@ -239,7 +412,7 @@ class MediaServiceUnitTest {
     @Test
     void getFile_whenMediaNameNotMatch_thenReturnMediaDto() {
         MediaDto expectedDto = MediaDto.builder().build();
-        when(mediaRepository.findById(1L)).thenReturn(Optional.ofNullable(media));
+        when(mediaRepository.findFileById(1L)).thenReturn(getMediaFile(media));
         when(builder.build()).thenReturn(expectedDto);
 
         MediaDto mediaDto = mediaService.getFile(1L, "fileName");
@@ -248,31 +421,117 @@ class MediaServiceUnitTest {
         assertEquals(expectedDto.getContent(), mediaDto.getContent());
     }
 
+    @Test
+    void getFile_whenMediaNameMatch_thenReturnFileWithValidators(@TempDir Path directory) throws IOException {
+        Path file = Files.write(directory.resolve("file"), "content".getBytes());
+        media.setFilePath(file.toString());
+        when(mediaRepository.findFileById(1L)).thenReturn(getMediaFile(media));
+        when(fileSystemRepository.getFile(file.toString())).thenReturn(new FileSystemResource(file));
+
+        MediaDto mediaDto = mediaService.getFile(1L, "FILE");
+
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        assertEquals(MediaType.IMAGE_JPEG, mediaDto.getMediaType());
+        assertEquals(file, ((FileSystemResource) mediaDto.getContent()).getFile().toPath());
+        assertEquals(String.format("1-7-%x", lastModified), mediaDto.getEtag());
+        assertEquals(Instant.ofEpochMilli(lastModified), mediaDto.getLastModified());
+    }
+
+    @Test
+    void getFile_whenSizeRequested_thenReturnDerivative(@TempDir Path directory) throws IOException {
+        Path derivative = Files.write(directory.resolve("file.thumbnail"), "thumbnail".getBytes());
+        media.setFilePath(directory.resolve("file").toString());
+        when(mediaRepository.findFileById(1L)).thenReturn(getMediaFile(media));
+        when(imageDerivativeService.getDerivative(media.getFilePath(), "image/jpeg", ImageSize.THUMBNAIL))
+            .thenReturn(Optional.of(derivative));
+
+        MediaDto mediaDto = mediaService.getFile(1L, "file", ImageSize.THUMBNAIL);
+
+        assertEquals(derivative, ((FileSystemResource) mediaDto.getContent()).getFile().toPath());
+        assertFalse(mediaDto.isTemporary());
+    }
+
+    @Test
+    void getFile_whenDerivativeNotReady_thenReturnTemporaryOriginal(@TempDir Path directory) throws IOException {
+        Path file = Files.write(directory.resolve("file"), "content".getBytes());
+        media.setFilePath(file.toString());
+        when(mediaRepository.findFileById(1L)).thenReturn(getMediaFile(media));
+        when(imageDerivativeService.getDerivative(any(), any(), any())).thenReturn(Optional.empty());
+        when(fileSystemRepository.getFile(file.toString())).thenReturn(new FileSystemResource(file));
+
+        MediaDto mediaDto = mediaService.getFile(1L, "file", ImageSize.CARD);
+
+        assertEquals(file, ((FileSystemResource) mediaDto.getContent()).getFile().toPath());
+        assertTrue(mediaDto.isTemporary());
+    }
+
+    @Test
+    void getFile_whenFileCached_thenReturnCachedFileWithoutLookup() {
+        MediaFileCache.CachedFile cachedFile = new MediaFileCache.CachedFile("file", MediaType.IMAGE_JPEG,
+            "content".getBytes(), "1-7-0", Instant.EPOCH);
+        when(mediaFileCache.get(1L, ImageSize.THUMBNAIL)).thenReturn(cachedFile);
+
+        MediaDto mediaDto = mediaService.getFile(1L, "file", ImageSize.THUMBNAIL);
+
+        assertEquals("1-7-0", mediaDto.getEtag());
+        assertEquals(MediaType.IMAGE_JPEG, mediaDto.getMediaType());
+        verify(mediaRepository, never()).findFileById(any());
+    }
+
+    @Test
+    void getFile_whenCachedFileNameNotMatch_thenReturnEmptyMediaDto() {
+        MediaFileCache.CachedFile cachedFile = new MediaFileCache.CachedFile("file", MediaType.IMAGE_JPEG,
+            "content".getBytes(), "1-7-0", Instant.EPOCH);
+        when(mediaFileCache.get(1L, null)).thenReturn(cachedFile);
+
+        MediaDto mediaDto = mediaService.getFile(1L, "other");
+
+        assertNull(mediaDto.getContent());
+    }
+
+    @Test
+    void getFile_whenFileNotCached_thenCacheFile(@TempDir Path directory) throws IOException {
+        Path file = Files.write(directory.resolve("file"), "content".getBytes());
+        media.setFilePath(file.toString());
+        when(mediaRepository.findFileById(1L)).thenReturn(getMediaFile(media));
+        when(fileSystemRepository.getFile(file.toString())).thenReturn(new FileSystemResource(file));
+
+        MediaDto mediaDto = mediaService.getFile(1L, "file");
+
+        verify(mediaFileCache).put(1L, null, "file", mediaDto);
+    }
+
     @Test
     void getFileByIds() {
         // Given
-        var ip15 = getMedia(-1L, "Iphone 15");
-        var macbook = getMedia(-2L, "Macbook");
-        var existingMedias = List.of(ip15, macbook);
-        when(mediaRepository.findAllById(List.of(ip15.getId(), macbook.getId())))
-            .thenReturn(existingMedias);
+        var ip15 = new NoFileMediaVm(-1L, "Iphone 15", "ip15.png", "image/png");
+        var macbook = new NoFileMediaVm(-2L, "Macbook", "macbook.png", "image/png");
+        when(mediaRepository.findAllByIdWithoutFileInReturn(List.of(ip15.id(), -3L, macbook.id())))
+            .thenReturn(List.of(macbook, ip15));
         when(yasConfig.publicUrl()).thenReturn("https://media/");
 
         // When
-        var medias = mediaService.getMediaByIds(List.of(ip15.getId(), macbook.getId()));
+        var medias = mediaService.getMediaByIds(List.of(ip15.id(), -3L, macbook.id()));
 
         // Then
-        assertFalse(medias.isEmpty());
-        verify(mediaVmMapper, times(existingMedias.size())).toVm(any());
-        assertThat(medias).allMatch(m -> m.getUrl() != null);
+        assertThat(medias).extracting(MediaVm::getId).containsExactly(ip15.id(), macbook.id());
+        assertThat(medias).extracting(MediaVm::getUrl)
+            .containsExactly("https://media/medias/-1/file/ip15.png", "https://media/medias/-2/file/macbook.png");
+        verify(mediaRepository, never()).findAllById(any());
     }
 
-    private static @NotNull Media getMedia(Long id, String name) {
-        var media = new Media();
-        media.setId(id);
-        media.setFileName(name);
-        return media;
+    private static MediaFileDto getMediaFile(Media media) {
+        return new MediaFileDto(media.getId(), media.getFileName(), media.getMediaType(), media.getFilePath());
     }
 
-
+    private static void rollBack(Runnable operation) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            operation.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(
+                synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
 }
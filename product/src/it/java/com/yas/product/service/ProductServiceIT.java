@@ -24,10 +24,12 @@ import com.yas.product.repository.ProductOptionRepository;
 import com.yas.product.repository.ProductOptionValueRepository;
 import com.yas.product.repository.ProductRepository;
 import com.yas.product.viewmodel.NoFileMediaVm;
+import com.yas.product.viewmodel.product.ProductEsDetailVm;
 import com.yas.product.viewmodel.product.ProductFeatureGetVm;
 import com.yas.product.viewmodel.product.ProductListGetFromCategoryVm;
 import com.yas.product.viewmodel.product.ProductListGetVm;
 import com.yas.product.viewmodel.product.ProductListVm;
+import com.yas.product.viewmodel.product.ProductQuantityPostVm;
 import com.yas.product.viewmodel.product.ProductThumbnailGetVm;
 import com.yas.product.viewmodel.product.ProductThumbnailVm;
 import com.yas.product.viewmodel.product.ProductsGetVm;
@@ -46,6 +48,8 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.TestExecutionEvent;
+import org.springframework.security.test.context.support.WithMockUser;
 
 @SpringBootTest
 @Import(IntegrationTestConfiguration.class)
@@ -441,4 +445,50 @@ class ProductServiceIT {
         assertEquals(0, newResponse.size());
     }
 
+    @Test
+    void testUpdateProductQuantity_WhenDuplicatedProductIds_firstQuantityWins() {
+        Product first = products.getFirst();
+        Product second = products.get(1);
+
+        productService.updateProductQuantity(List.of(
+            new ProductQuantityPostVm(first.getId(), 100L),
+            new ProductQuantityPostVm(second.getId(), 200L),
+            new ProductQuantityPostVm(first.getId(), 300L)
+        ));
+
+        assertEquals(100L, productRepository.findById(first.getId()).orElseThrow().getStockQuantity());
+        assertEquals(200L, productRepository.findById(second.getId()).orElseThrow().getStockQuantity());
+        assertThat(productRepository.findById(products.get(2).getId()).orElseThrow().getStockQuantity()).isNull();
+    }
+
+    @Test
+    @WithMockUser(username = "inventory-admin", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+    void testUpdateProductQuantity_whenAuthenticated_setLastModifiedByToCurrentUser() {
+        Product first = products.getFirst();
+
+        productService.updateProductQuantity(List.of(new ProductQuantityPostVm(first.getId(), 100L)));
+
+        Product updated = productRepository.findById(first.getId()).orElseThrow();
+        assertEquals(100L, updated.getStockQuantity());
+        assertEquals("inventory-admin", updated.getLastModifiedBy());
+        assertThat(productRepository.findById(products.get(1).getId()).orElseThrow().getLastModifiedBy())
+            .isNotEqualTo("inventory-admin");
+    }
+
+    @Test
+    void testGetProductEsDetailByIds_whenIdsContainDuplicatesAndMissing_returnExistingProducts() {
+        Product first = products.getFirst();
+        Product second = products.get(1);
+
+        List<ProductEsDetailVm> actual = productService.getProductEsDetailByIds(
+            List.of(first.getId(), second.getId(), first.getId(), Long.MAX_VALUE));
+
+        assertThat(actual).extracting(ProductEsDetailVm::id).containsExactly(first.getId(), second.getId());
+        assertThat(actual.getFirst().brand()).isEqualTo(brand1.getName());
+        assertThat(actual.getFirst().categories()).containsExactly(category1.getName());
+        assertThat(actual.get(1).brand()).isEqualTo(brand2.getName());
+        assertThat(actual.get(1).categories()).containsExactly(category2.getName());
+        assertThat(actual.get(1).attributes()).isEmpty();
+    }
+
 }
@@ -188,6 +188,19 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductEsDetailById(productId));
     }
 
+    @GetMapping("/storefront/products-es")
+    public ResponseEntity<List<ProductEsDetailVm>> getProductEsDetailByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductEsDetailByIds(ids));
+    }
+
+    @GetMapping("/storefront/products-es/published")
+    public ResponseEntity<List<ProductEsDetailVm>> getPublishedProductEsDetails(
+        @RequestParam(defaultValue = "0") long afterId,
+        @RequestParam(defaultValue = "500") int pageSize
+    ) {
+        return ResponseEntity.ok(productService.getPublishedProductEsDetails(afterId, pageSize));
+    }
+
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Get related products by product id successfully",
                 content = @Content(mediaType = "application/json",
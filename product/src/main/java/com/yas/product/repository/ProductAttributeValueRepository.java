@@ -2,11 +2,19 @@ package com.yas.product.repository;
 
 import com.yas.product.model.Product;
 import com.yas.product.model.attribute.ProductAttributeValue;
+import com.yas.product.viewmodel.product.ProductAssociatedNameVm;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ProductAttributeValueRepository extends JpaRepository<ProductAttributeValue, Long> {
     List<ProductAttributeValue> findAllByProduct(Product product);
+
+    @Query("SELECT new com.yas.product.viewmodel.product.ProductAssociatedNameVm(pav.product.id, pa.name) "
+            + "FROM ProductAttributeValue pav JOIN pav.productAttribute pa "
+            + "WHERE pav.product.id IN :productIds ORDER BY pav.id ASC")
+    List<ProductAssociatedNameVm> findAttributeNamesByProductIdIn(@Param("productIds") List<Long> productIds);
 }
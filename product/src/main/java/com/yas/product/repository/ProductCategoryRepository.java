@@ -2,10 +2,13 @@ package com.yas.product.repository;
 
 import com.yas.product.model.Category;
 import com.yas.product.model.ProductCategory;
+import com.yas.product.viewmodel.product.ProductAssociatedNameVm;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -13,4 +16,8 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
     Page<ProductCategory> findAllByCategory(Pageable pageable, Category category);
 
     List<ProductCategory> findAllByProductId(Long productId);
+
+    @Query("SELECT new com.yas.product.viewmodel.product.ProductAssociatedNameVm(pc.product.id, c.name) "
+            + "FROM ProductCategory pc JOIN pc.category c WHERE pc.product.id IN :productIds ORDER BY pc.id ASC")
+    List<ProductAssociatedNameVm> findCategoryNamesByProductIdIn(@Param("productIds") List<Long> productIds);
 }
@@ -2,6 +2,7 @@ package com.yas.product.repository;
 
 import com.yas.product.model.Brand;
 import com.yas.product.model.Product;
+import com.yas.product.viewmodel.product.ProductEsDetailVm;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -12,7 +13,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     List<Product> findAllByBrandAndIsPublishedTrueOrderByIdAsc(Brand brand);
 
     Optional<Product> findBySlugAndIsPublishedTrue(String slug);
@@ -39,6 +40,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findAllByIdIn(List<Long> productIds);
 
+    @Query("SELECT new com.yas.product.viewmodel.product.ProductEsDetailVm(p.id, p.name, p.slug, p.price, "
+            + "p.isPublished, p.isVisibleIndividually, p.isAllowedToOrder, p.isFeatured, p.thumbnailMediaId, b.name) "
+            + "FROM Product p LEFT JOIN p.brand b WHERE p.id IN :productIds ORDER BY p.id ASC")
+    List<ProductEsDetailVm> findProductEsDetailsByIdIn(@Param("productIds") List<Long> productIds);
+
+    @Query("SELECT p.id FROM Product p WHERE p.isPublished = TRUE AND p.id > :afterId ORDER BY p.id ASC")
+    List<Long> findPublishedProductIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     @Query(value = "FROM Product p WHERE p.isFeatured = TRUE "
             + "AND p.isVisibleIndividually = TRUE "
             + "AND p.isPublished = TRUE ORDER BY p.id ASC ")
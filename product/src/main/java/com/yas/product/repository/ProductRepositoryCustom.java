@@ -0,0 +1,14 @@
+package com.yas.product.repository;
+
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Set the stock quantity of many products with set-based {@code UPDATE ... FROM (VALUES ...)} statements.
+     *
+     * @param stockQuantityByProductId new stock quantity keyed by product id
+     * @return number of updated product rows
+     */
+    int bulkUpdateStockQuantity(Map<Long, Long> stockQuantityByProductId);
+}
@@ -0,0 +1,74 @@
+package com.yas.product.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.collections4.ListUtils;
+import org.springframework.data.domain.AuditorAware;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    /* Two bind parameters per row, keeps each statement far below the PostgreSQL limit of 65535 parameters */
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String UPDATE_STOCK_QUANTITY_PREFIX = "UPDATE product p "
+        + "SET stock_quantity = v.stock_quantity, last_modified_on = CURRENT_TIMESTAMP, "
+        + "last_modified_by = CAST(?1 AS VARCHAR) "
+        + "FROM (VALUES ";
+
+    private static final String UPDATE_STOCK_QUANTITY_SUFFIX = ") AS v(id, stock_quantity) WHERE p.id = v.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AuditorAware<String> auditorAware;
+
+    public ProductRepositoryCustomImpl(AuditorAware<String> auditorAware) {
+        this.auditorAware = auditorAware;
+    }
+
+    @Override
+    public int bulkUpdateStockQuantity(Map<Long, Long> stockQuantityByProductId) {
+        if (stockQuantityByProductId.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+
+        // The native statement bypasses the auditing entity listener
+        String lastModifiedBy = auditorAware.getCurrentAuditor().orElse("");
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(stockQuantityByProductId.entrySet());
+        int updatedRows = 0;
+        for (List<Map.Entry<Long, Long>> chunk : ListUtils.partition(entries, MAX_ROWS_PER_STATEMENT)) {
+            updatedRows += executeStockQuantityUpdate(chunk, lastModifiedBy);
+        }
+
+        // Managed Product instances no longer reflect the database after a native bulk update
+        entityManager.clear();
+        return updatedRows;
+    }
+
+    private int executeStockQuantityUpdate(List<Map.Entry<Long, Long>> rows, String lastModifiedBy) {
+        StringBuilder sql = new StringBuilder(UPDATE_STOCK_QUANTITY_PREFIX);
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            int position = i * 2 + 2;
+            sql.append("(CAST(?").append(position).append(" AS BIGINT), CAST(?")
+                .append(position + 1).append(" AS BIGINT))");
+        }
+        sql.append(UPDATE_STOCK_QUANTITY_SUFFIX);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter(1, lastModifiedBy);
+        for (int i = 0; i < rows.size(); i++) {
+            Map.Entry<Long, Long> row = rows.get(i);
+            query.setParameter(i * 2 + 2, row.getKey());
+            query.setParameter(i * 2 + 3, row.getValue());
+        }
+        return query.executeUpdate();
+    }
+}
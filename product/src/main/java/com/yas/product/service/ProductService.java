@@ -20,6 +20,7 @@ import com.yas.product.model.attribute.ProductAttributeValue;
 import com.yas.product.model.enumeration.FilterExistInWhSelection;
 import com.yas.product.repository.BrandRepository;
 import com.yas.product.repository.CategoryRepository;
+import com.yas.product.repository.ProductAttributeValueRepository;
 import com.yas.product.repository.ProductCategoryRepository;
 import com.yas.product.repository.ProductImageRepository;
 import com.yas.product.repository.ProductOptionCombinationRepository;
@@ -29,6 +30,7 @@ import com.yas.product.repository.ProductRelatedRepository;
 import com.yas.product.repository.ProductRepository;
 import com.yas.product.utils.Constants;
 import com.yas.product.viewmodel.ImageVm;
+import com.yas.product.viewmodel.product.ProductAssociatedNameVm;
 import com.yas.product.viewmodel.product.ProductCheckoutListVm;
 import com.yas.product.viewmodel.product.ProductDetailGetVm;
 import com.yas.product.viewmodel.product.ProductDetailVm;
@@ -60,6 +62,7 @@ import io.micrometer.common.util.StringUtils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -82,6 +85,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class ProductService {
     private static final String NONE_GROUP = "None group";
+    private static final int PRODUCT_ES_DETAIL_BATCH_SIZE = 500;
     private final ProductRepository productRepository;
     private final MediaService mediaService;
     private final BrandRepository brandRepository;
@@ -92,6 +96,7 @@ public class ProductService {
     private final ProductOptionValueRepository productOptionValueRepository;
     private final ProductOptionCombinationRepository productOptionCombinationRepository;
     private final ProductRelatedRepository productRelatedRepository;
+    private final ProductAttributeValueRepository productAttributeValueRepository;
 
     public ProductService(ProductRepository productRepository,
                           MediaService mediaService,
@@ -102,7 +107,8 @@ public class ProductService {
                           ProductOptionRepository productOptionRepository,
                           ProductOptionValueRepository productOptionValueRepository,
                           ProductOptionCombinationRepository productOptionCombinationRepository,
-                          ProductRelatedRepository productRelatedRepository) {
+                          ProductRelatedRepository productRelatedRepository,
+                          ProductAttributeValueRepository productAttributeValueRepository) {
         this.productRepository = productRepository;
         this.mediaService = mediaService;
         this.brandRepository = brandRepository;
@@ -113,6 +119,7 @@ public class ProductService {
         this.productOptionValueRepository = productOptionValueRepository;
         this.productOptionCombinationRepository = productOptionCombinationRepository;
         this.productRelatedRepository = productRelatedRepository;
+        this.productAttributeValueRepository = productAttributeValueRepository;
     }
 
     public ProductGetDetailVm createProduct(ProductPostVm productPostVm) {
@@ -1025,6 +1032,47 @@ public class ProductService {
         );
     }
 
+    /**
+     * Load search details of many products with three queries per chunk of ids (products with brand,
+     * category names and attribute names), whatever the number of products.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductEsDetailVm> getProductEsDetailByIds(List<Long> productIds) {
+        List<Long> distinctProductIds = productIds.stream().distinct().toList();
+        List<ProductEsDetailVm> productEsDetailVms = new ArrayList<>(distinctProductIds.size());
+        for (List<Long> chunk : ListUtils.partition(distinctProductIds, PRODUCT_ES_DETAIL_BATCH_SIZE)) {
+            Map<Long, List<String>> categoryNames = groupNamesByProductId(
+                productCategoryRepository.findCategoryNamesByProductIdIn(chunk));
+            Map<Long, List<String>> attributeNames = groupNamesByProductId(
+                productAttributeValueRepository.findAttributeNamesByProductIdIn(chunk));
+
+            productRepository.findProductEsDetailsByIdIn(chunk).forEach(productEsDetailVm ->
+                productEsDetailVms.add(productEsDetailVm.withCategoriesAndAttributes(
+                    categoryNames.getOrDefault(productEsDetailVm.id(), List.of()),
+                    attributeNames.getOrDefault(productEsDetailVm.id(), List.of())
+                )));
+        }
+        return productEsDetailVms;
+    }
+
+    /**
+     * Keyset paging over published products for a full search reindex, ordered by id.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductEsDetailVm> getPublishedProductEsDetails(long afterId, int pageSize) {
+        int boundedPageSize = Math.clamp(pageSize, 1, PRODUCT_ES_DETAIL_BATCH_SIZE);
+        List<Long> productIds = productRepository.findPublishedProductIdsAfter(afterId,
+            PageRequest.of(0, boundedPageSize));
+        return getProductEsDetailByIds(productIds);
+    }
+
+    private static Map<Long, List<String>> groupNamesByProductId(List<ProductAssociatedNameVm> associatedNames) {
+        return associatedNames.stream().collect(Collectors.groupingBy(
+            ProductAssociatedNameVm::productId,
+            Collectors.mapping(ProductAssociatedNameVm::name, Collectors.toList())
+        ));
+    }
+
     public List<ProductListVm> getRelatedProductsBackoffice(Long id) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, id));
@@ -1082,17 +1130,11 @@ public class ProductService {
     }
 
     public void updateProductQuantity(List<ProductQuantityPostVm> productQuantityPostVms) {
+        Map<Long, Long> stockQuantityByProductId = new LinkedHashMap<>();
+        productQuantityPostVms.forEach(productQuantityPostVm -> stockQuantityByProductId.putIfAbsent(
+            productQuantityPostVm.productId(), productQuantityPostVm.stockQuantity()));
 
-        List<Long> productIds = productQuantityPostVms.stream().map(ProductQuantityPostVm::productId).toList();
-        List<Product> products = productRepository.findAllByIdIn(productIds);
-        products.parallelStream().forEach(product -> {
-            Optional<ProductQuantityPostVm> productQuantityPostVmOptional = productQuantityPostVms.parallelStream()
-                .filter(productPostVm -> product.getId().equals(productPostVm.productId())).findFirst();
-            productQuantityPostVmOptional.ifPresent(productQuantityPostVm
-                -> product.setStockQuantity(productQuantityPostVm.stockQuantity()));
-        });
-
-        productRepository.saveAll(products);
+        productRepository.bulkUpdateStockQuantity(stockQuantityByProductId);
     }
 
     private void partitionUpdateStockQuantityByCalculation(List<ProductQuantityPutVm> productQuantityItems,
@@ -0,0 +1,7 @@
+package com.yas.product.viewmodel.product;
+
+/**
+ * Name of an entity associated with a product, such as a category or an attribute.
+ */
+public record ProductAssociatedNameVm(Long productId, String name) {
+}
@@ -15,4 +15,19 @@ public record ProductEsDetailVm(
         String brand,
         List<String> categories,
         List<String> attributes) {
+
+    /**
+     * Used by JPQL constructor expressions, categories and attributes are loaded by separate queries.
+     */
+    public ProductEsDetailVm(Long id, String name, String slug, Double price, boolean isPublished,
+                             boolean isVisibleIndividually, boolean isAllowedToOrder, boolean isFeatured,
+                             Long thumbnailMediaId, String brand) {
+        this(id, name, slug, price, isPublished, isVisibleIndividually, isAllowedToOrder, isFeatured,
+            thumbnailMediaId, brand, List.of(), List.of());
+    }
+
+    public ProductEsDetailVm withCategoriesAndAttributes(List<String> categories, List<String> attributes) {
+        return new ProductEsDetailVm(id, name, slug, price, isPublished, isVisibleIndividually, isAllowedToOrder,
+            isFeatured, thumbnailMediaId, brand, categories, attributes);
+    }
 }
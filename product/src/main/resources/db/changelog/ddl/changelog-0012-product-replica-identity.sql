@@ -0,0 +1,4 @@
+--liquibase formatted sql
+
+--changeset yas:product-replica-identity-full
+alter table product replica identity full;
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset yas:product-relation-replica-identity-full
+alter table product_category replica identity full;
+alter table product_attribute_value replica identity full;
@@ -0,0 +1,92 @@
+package com.yas.product.benchmark;
+
+import com.yas.product.model.Product;
+import com.yas.product.viewmodel.product.ProductQuantityPostVm;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the nested parallel-stream matching formerly used by
+ * {@code ProductService.updateProductQuantity} with the single-pass map used now.
+ *
+ * <p>Run with {@code mvn -pl product test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.yas.product.benchmark.ProductQuantityMatchingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductQuantityMatchingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private List<Product> products;
+
+    private List<ProductQuantityPostVm> productQuantityPostVms;
+
+    @Setup
+    public void setUp() {
+        products = new ArrayList<>(size);
+        productQuantityPostVms = new ArrayList<>(size);
+        Random random = new Random(42);
+        for (long id = 1; id <= size; id++) {
+            products.add(Product.builder().id(id).stockQuantity(0L).build());
+            productQuantityPostVms.add(new ProductQuantityPostVm(id, (long) random.nextInt(1000)));
+        }
+        Collections.shuffle(productQuantityPostVms, random);
+    }
+
+    @Benchmark
+    public List<Product> nestedParallelStream() {
+        products.parallelStream().forEach(product -> {
+            Optional<ProductQuantityPostVm> productQuantityPostVmOptional = productQuantityPostVms.parallelStream()
+                .filter(productPostVm -> product.getId().equals(productPostVm.productId())).findFirst();
+            productQuantityPostVmOptional.ifPresent(productQuantityPostVm
+                -> product.setStockQuantity(productQuantityPostVm.stockQuantity()));
+        });
+        return products;
+    }
+
+    @Benchmark
+    public List<Product> singlePassMap() {
+        Map<Long, Long> stockQuantityByProductId = new LinkedHashMap<>();
+        productQuantityPostVms.forEach(productQuantityPostVm -> stockQuantityByProductId.putIfAbsent(
+            productQuantityPostVm.productId(), productQuantityPostVm.stockQuantity()));
+        products.forEach(product -> {
+            Long stockQuantity = stockQuantityByProductId.get(product.getId());
+            if (stockQuantity != null) {
+                product.setStockQuantity(stockQuantity);
+            }
+        });
+        return products;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ProductQuantityMatchingBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
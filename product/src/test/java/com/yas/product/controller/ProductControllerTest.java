@@ -173,6 +173,21 @@ class ProductControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testGetProductEsDetailByIds() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/storefront/products-es")
+                        .param("ids", "1,2,3"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetPublishedProductEsDetails() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/storefront/products-es/published")
+                        .param("afterId", "10")
+                        .param("pageSize", "100"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void testGetRelatedProductsBackoffice() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/backoffice/products/related-products/1"))
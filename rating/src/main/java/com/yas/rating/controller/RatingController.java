@@ -1,6 +1,7 @@
 package com.yas.rating.controller;
 
 import com.yas.rating.service.RatingService;
+import com.yas.rating.viewmodel.ProductRatingSummaryVm;
 import com.yas.rating.viewmodel.RatingListVm;
 import com.yas.rating.viewmodel.RatingPostVm;
 import com.yas.rating.viewmodel.RatingVm;
@@ -75,4 +76,9 @@ public class RatingController {
     public Double getAverageStarOfProduct(@PathVariable Long productId) {
         return ratingService.calculateAverageStar(productId);
     }
+
+    @GetMapping("/storefront/ratings/products/summary")
+    public ResponseEntity<List<ProductRatingSummaryVm>> getRatingSummaries(@RequestParam List<Long> productIds) {
+        return ResponseEntity.ok(ratingService.getRatingSummaries(productIds));
+    }
 }
@@ -1,7 +1,9 @@
 package com.yas.rating.repository;
 
 import com.yas.rating.model.Rating;
+import com.yas.rating.viewmodel.ProductRatingSummaryVm;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -30,6 +32,10 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     @Query(value = "SELECT SUM(r.ratingStar), COUNT(r) FROM Rating r Where r.productId = :productId")
     List<Object[]> getTotalStarsAndTotalRatings(@Param("productId") long productId);
 
+    @Query("SELECT new com.yas.rating.viewmodel.ProductRatingSummaryVm(r.productId, AVG(r.ratingStar), COUNT(r)) "
+            + "FROM Rating r WHERE r.productId IN :productIds GROUP BY r.productId")
+    List<ProductRatingSummaryVm> getRatingSummariesByProductIds(@Param("productIds") Collection<Long> productIds);
+
     boolean existsByCreatedByAndProductId(String createdBy, Long productId);
 
     @Query("SELECT r FROM Rating r ORDER BY r.createdOn DESC")
@@ -8,6 +8,7 @@ import com.yas.rating.repository.RatingRepository;
 import com.yas.rating.utils.AuthenticationUtils;
 import com.yas.rating.utils.Constants;
 import com.yas.rating.viewmodel.CustomerVm;
+import com.yas.rating.viewmodel.ProductRatingSummaryVm;
 import com.yas.rating.viewmodel.RatingListVm;
 import com.yas.rating.viewmodel.RatingPostVm;
 import com.yas.rating.viewmodel.RatingVm;
@@ -139,4 +140,14 @@ public class RatingService {
         int totalRatings = (Integer.parseInt(totalStarsAndRatings.get(0)[1].toString()));
         return (totalStars * 1.0) / totalRatings;
     }
+
+    /**
+     * Average star and number of ratings of each product, products without rating are not returned.
+     */
+    public List<ProductRatingSummaryVm> getRatingSummaries(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return ratingRepository.getRatingSummariesByProductIds(productIds);
+    }
 }
@@ -0,0 +1,4 @@
+package com.yas.rating.viewmodel;
+
+public record ProductRatingSummaryVm(Long productId, Double averageStar, Long ratingCount) {
+}
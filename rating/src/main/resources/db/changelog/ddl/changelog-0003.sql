@@ -0,0 +1,4 @@
+--liquibase formatted sql
+
+--changeset yas:rating-replica-identity-full
+alter table rating replica identity full;
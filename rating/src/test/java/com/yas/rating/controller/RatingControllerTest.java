@@ -19,6 +19,7 @@ import com.yas.commonlibrary.exception.NotFoundException;
 import com.yas.rating.RatingApplication;
 import com.yas.rating.service.RatingService;
 import com.yas.rating.utils.Constants;
+import com.yas.rating.viewmodel.ProductRatingSummaryVm;
 import com.yas.rating.viewmodel.RatingListVm;
 import com.yas.rating.viewmodel.RatingPostVm;
 import com.yas.rating.viewmodel.RatingVm;
@@ -177,4 +178,17 @@ class RatingControllerTest {
             ).andExpect(status().isOk());
     }
 
+    @Test
+    void testGetRatingSummaries_ShouldReturnSummaryPerProduct() throws Exception {
+        when(ratingService.getRatingSummaries(List.of(1L, 2L)))
+            .thenReturn(List.of(new ProductRatingSummaryVm(1L, 4.5, 2L)));
+
+        this.mockMvc.perform(get("/storefront/ratings/products/summary")
+                .param("productIds", "1,2")
+                .contentType(MediaType.APPLICATION_JSON)
+            ).andExpect(status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].productId", Matchers.is(1)))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].averageStar", Matchers.is(4.5)))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].ratingCount", Matchers.is(2)));
+    }
 }
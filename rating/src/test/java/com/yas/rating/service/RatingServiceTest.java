@@ -15,10 +15,12 @@ import com.yas.rating.model.Rating;
 import com.yas.rating.repository.RatingRepository;
 import com.yas.rating.viewmodel.CustomerVm;
 import com.yas.rating.viewmodel.OrderExistsByProductAndUserGetVm;
+import com.yas.rating.viewmodel.ProductRatingSummaryVm;
 import com.yas.rating.viewmodel.RatingListVm;
 import com.yas.rating.viewmodel.RatingPostVm;
 import com.yas.rating.viewmodel.RatingVm;
 import java.time.ZonedDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
@@ -240,4 +242,20 @@ class RatingServiceTest {
         List<RatingVm>  newResponse = ratingService.getLatestRatings(5);
         assertEquals(0, newResponse.size());
     }
+
+    @Test
+    void getRatingSummaries_WhenProductsHaveRatings_returnAverageAndCountPerProduct() {
+        List<ProductRatingSummaryVm> summaries = ratingService.getRatingSummaries(List.of(1L, 2L, 3L)).stream()
+            .sorted(Comparator.comparing(ProductRatingSummaryVm::productId))
+            .toList();
+
+        assertEquals(2, summaries.size());
+        assertEquals(new ProductRatingSummaryVm(1L, 3.0, 2L), summaries.getFirst());
+        assertEquals(new ProductRatingSummaryVm(2L, 3.0, 1L), summaries.get(1));
+    }
+
+    @Test
+    void getRatingSummaries_WhenProductIdsEmpty_returnEmpty() {
+        assertEquals(0, ratingService.getRatingSummaries(List.of()).size());
+    }
 }
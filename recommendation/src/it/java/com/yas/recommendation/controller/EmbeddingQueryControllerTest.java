@@ -1,7 +1,6 @@
 package com.yas.recommendation.controller;
 
-import com.yas.recommendation.vector.common.query.VectorQuery;
-import com.yas.recommendation.vector.product.document.ProductDocument;
+import com.yas.recommendation.vector.product.service.RelatedProductService;
 import com.yas.recommendation.viewmodel.RelatedProductVm;
 import java.util.Arrays;
 import java.util.List;
@@ -27,13 +26,13 @@ class EmbeddingQueryControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
-    // Mock the VectorQuery service
+    // Mock the related product service
     @MockBean
-    private VectorQuery<ProductDocument, RelatedProductVm> relatedProductSearch;
+    private RelatedProductService relatedProductService;
 
     @BeforeEach
     void setUp() {
-        // Prepare some mock data to be returned by the relatedProductSearch
+        // Prepare some mock data to be returned by the relatedProductService
         RelatedProductVm product1 = new RelatedProductVm();
         product1.setName("Mock Product 1");
 
@@ -42,8 +41,8 @@ class EmbeddingQueryControllerTest {
 
         List<RelatedProductVm> mockProducts = Arrays.asList(product1, product2);
 
-        // Mock the behavior of relatedProductSearch
-        Mockito.when(relatedProductSearch.similaritySearch(anyLong())).thenReturn(mockProducts);
+        // Mock the behavior of relatedProductService
+        Mockito.when(relatedProductService.getRelatedProducts(anyLong())).thenReturn(mockProducts);
     }
 
     @Test
@@ -59,7 +58,7 @@ class EmbeddingQueryControllerTest {
     @Test
     void shouldReturnEmptyList_whenNoSimilarProductsFound() throws Exception {
         // Mock empty search results
-        Mockito.when(relatedProductSearch.similaritySearch(anyLong())).thenReturn(Arrays.asList());
+        Mockito.when(relatedProductService.getRelatedProducts(anyLong())).thenReturn(Arrays.asList());
 
         // Perform a GET request to /embedding/product/{id}/similarity
         mockMvc.perform(get("/embedding/product/2/similarity"))
@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -219,7 +220,7 @@ public class ProductCdcConsumerTest extends CdcConsumerTest<ProductMsgKey, Produ
         ProductDetailVm response = getProductDetailVmUpdate(productId);
 
         // When
-        when(embeddingModel.embed(any(Document.class))).thenReturn(randomEmbed());
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(randomEmbed()));
 
         // Simulate Product Detail API response
         final URI url = UriComponentsBuilder.fromHttpUrl(recommendationConfig.getApiUrl())
@@ -1,12 +1,24 @@
 package com.yas.recommendation;
 
 import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import com.yas.recommendation.configuration.InProcessVectorIndexConfig;
+import com.yas.recommendation.configuration.ProductSyncBatchConfig;
+import com.yas.recommendation.configuration.RelatedProductConfig;
+import com.yas.recommendation.configuration.VectorIndexConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(EmbeddingSearchConfiguration.class)
+@EnableScheduling
+@EnableConfigurationProperties({
+    EmbeddingSearchConfiguration.class,
+    InProcessVectorIndexConfig.class,
+    ProductSyncBatchConfig.class,
+    RelatedProductConfig.class,
+    VectorIndexConfig.class
+})
 public class RecommendationApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,31 @@
+package com.yas.recommendation.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * In-process HNSW index serving similarity queries without a database round trip. The vector store table stays
+ * the source of truth, the index is rebuilt from it on startup and mirrors the writes of this instance. Its vector
+ * file is scratch space, it is not reused across restarts.
+ *
+ * @param enabled        serve similarity queries from the in-process index once it is built
+ * @param directory      directory of the memory-mapped vector files, deleted once their index is closed
+ * @param dimensions     dimensions of the embeddings
+ * @param m              maximum number of connections per layer
+ * @param efConstruction size of the candidate list while building the graph
+ * @param efSearch       size of the candidate list while querying, higher gives better recall but slower
+ * @param rebuildCron    cron of the rebuild from the vector store, picking up writes of other instances and
+ *                       reclaiming the slots of removed vectors, "-" to disable
+ */
+@ConfigurationProperties(prefix = "yas.recommendation.in-process-index")
+public record InProcessVectorIndexConfig(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("data/vector-index") String directory,
+    @DefaultValue("1536") int dimensions,
+    @DefaultValue("16") int m,
+    @DefaultValue("100") int efConstruction,
+    @DefaultValue("64") int efSearch,
+    @DefaultValue("0 0 */6 * * *") String rebuildCron) {
+
+    public static final String ENABLED_PROPERTY = "yas.recommendation.in-process-index.enabled";
+}
@@ -0,0 +1,20 @@
+package com.yas.recommendation.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Precomputed related products, served by a key lookup instead of a similarity query per request.
+ *
+ * @param enabled            serve related products from the precomputed table, computing missing entries on read
+ * @param refreshDelayMs     delay between two refreshes of the products whose vector changed
+ * @param refreshBatchSize   maximum number of changed products handled by one refresh
+ * @param fullRefreshCron    cron of the refresh of every product, "-" to disable
+ */
+@ConfigurationProperties(prefix = "yas.recommendation.related-products")
+public record RelatedProductConfig(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("1000") long refreshDelayMs,
+    @DefaultValue("100") int refreshBatchSize,
+    @DefaultValue("-") String fullRefreshCron) {
+}
@@ -0,0 +1,30 @@
+package com.yas.recommendation.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Approximate nearest neighbour index on the vector store embeddings, used by the related products query.
+ *
+ * @param type           index type, changing it or the build parameters rebuilds the index on startup
+ * @param m              HNSW: maximum number of connections per layer
+ * @param efConstruction HNSW: size of the candidate list while building the index
+ * @param efSearch       HNSW: size of the candidate list while querying, higher gives better recall but slower
+ * @param lists          IVFFlat: number of inverted lists, build it once the table holds representative data
+ * @param probes         IVFFlat: number of lists scanned while querying, higher gives better recall but slower
+ */
+@ConfigurationProperties(prefix = "yas.recommendation.vector-index")
+public record VectorIndexConfig(
+    @DefaultValue("HNSW") IndexType type,
+    @DefaultValue("16") int m,
+    @DefaultValue("64") int efConstruction,
+    @DefaultValue("40") int efSearch,
+    @DefaultValue("100") int lists,
+    @DefaultValue("10") int probes) {
+
+    public enum IndexType {
+        NONE,
+        HNSW,
+        IVFFLAT
+    }
+}
@@ -1,7 +1,6 @@
 package com.yas.recommendation.controller;
 
-import com.yas.recommendation.vector.common.query.VectorQuery;
-import com.yas.recommendation.vector.product.document.ProductDocument;
+import com.yas.recommendation.vector.product.service.RelatedProductService;
 import com.yas.recommendation.viewmodel.RelatedProductVm;
 import java.util.List;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,14 +15,14 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("embedding")
 public class EmbeddingQueryController {
 
-    private final VectorQuery<ProductDocument, RelatedProductVm> relatedProductSearch;
+    private final RelatedProductService relatedProductService;
 
-    public EmbeddingQueryController(VectorQuery<ProductDocument, RelatedProductVm> relatedProductSearch) {
-        this.relatedProductSearch = relatedProductSearch;
+    public EmbeddingQueryController(RelatedProductService relatedProductService) {
+        this.relatedProductService = relatedProductService;
     }
 
     @GetMapping("/product/{id}/similarity")
     public List<RelatedProductVm> searchProduct(@PathVariable("id") Long productId) {
-        return relatedProductSearch.similaritySearch(productId);
+        return relatedProductService.getRelatedProducts(productId);
     }
 }
@@ -3,11 +3,14 @@ package com.yas.recommendation.kafka.config.consumer;
 import com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.recommendation.configuration.ProductSyncBatchConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
 
 /**
  * Product CDC kafka listener, support convert product cdc message to java object.
@@ -18,6 +21,8 @@ public class ProductCdcKafkaListenerConfig extends BaseKafkaListenerConfig<Produ
 
     public static final String PRODUCT_CDC_LISTENER_CONTAINER_FACTORY = "productCdcListenerContainerFactory";
 
+    public static final String PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY = "productCdcBatchListenerContainerFactory";
+
     public ProductCdcKafkaListenerConfig(KafkaProperties kafkaProperties) {
         super(ProductMsgKey.class, ProductCdcMessage.class, kafkaProperties);
     }
@@ -28,4 +33,13 @@ public class ProductCdcKafkaListenerConfig extends BaseKafkaListenerConfig<Produ
         return super.kafkaListenerContainerFactory();
     }
 
-}
\ No newline at end of file
+    @Bean(name = PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY)
+    @ConditionalOnProperty(name = ProductSyncBatchConfig.ENABLED_PROPERTY, havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<ProductMsgKey, ProductCdcMessage> batchListenerContainerFactory(
+        ProductSyncBatchConfig batchConfig,
+        KafkaTemplate<Object, Object> kafkaTemplate
+    ) {
+        return super.batchKafkaListenerContainerFactory(batchConfig.size(), batchConfig.maxWaitMs(), kafkaTemplate);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.yas.recommendation.kafka.consumer;
+
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
+import static com.yas.recommendation.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY;
+
+import com.yas.commonlibrary.kafka.cdc.BaseCdcBatchConsumer;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.recommendation.configuration.ProductSyncBatchConfig;
+import com.yas.recommendation.vector.product.service.ProductVectorSyncService;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Product synchronize data consumer for pgvector, batch mode.
+ * Events of one poll are coalesced per product id, the remaining products are embedded with one
+ * embedding request and written with one upsert.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = ProductSyncBatchConfig.ENABLED_PROPERTY, havingValue = "true")
+public class ProductBatchSyncDataConsumer extends BaseCdcBatchConsumer<ProductMsgKey, ProductCdcMessage> {
+
+    private final ProductVectorSyncService productVectorSyncService;
+
+    public ProductBatchSyncDataConsumer(ProductVectorSyncService productVectorSyncService) {
+        this.productVectorSyncService = productVectorSyncService;
+    }
+
+    @KafkaListener(
+        id = "product-sync-recommendation-batch",
+        groupId = "product-sync",
+        topics = "${product.topic.name}",
+        containerFactory = PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY
+    )
+    public void processMessages(List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        processBatch(records, this::sync);
+    }
+
+    public void sync(List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        // The last event of a product decides whether its vector is kept or removed
+        Map<Long, Boolean> upsertByProductId = new LinkedHashMap<>();
+        for (ConsumerRecord<ProductMsgKey, ProductCdcMessage> consumerRecord : records) {
+            if (consumerRecord.key() == null) {
+                log.warn("Skip product record without key at offset {}", consumerRecord.offset());
+                continue;
+            }
+            var productId = consumerRecord.key().getId();
+            var productCdcMessage = consumerRecord.value();
+            boolean isHardDeleteEvent = productCdcMessage == null || DELETE.equals(productCdcMessage.getOp());
+            if (isHardDeleteEvent) {
+                upsertByProductId.put(productId, false);
+            } else if (productCdcMessage.getAfter() != null) {
+                upsertByProductId.put(productId, productCdcMessage.getAfter().isPublished());
+            }
+        }
+
+        Set<Long> upsertIds = new LinkedHashSet<>();
+        Set<Long> deleteIds = new LinkedHashSet<>();
+        upsertByProductId.forEach((productId, upsert) -> (upsert ? upsertIds : deleteIds).add(productId));
+        productVectorSyncService.syncProductVectors(upsertIds, deleteIds);
+        log.debug("## Batch processed - {} upserted, {} deleted", upsertIds.size(), deleteIds.size());
+    }
+}
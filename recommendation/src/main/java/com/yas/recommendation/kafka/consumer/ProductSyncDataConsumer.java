@@ -6,7 +6,9 @@ import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
 import com.yas.commonlibrary.kafka.cdc.RetrySupportDql;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.recommendation.configuration.ProductSyncBatchConfig;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.MessageHeaders;
@@ -19,6 +21,7 @@ import org.springframework.stereotype.Component;
  * Product synchronize data consumer for pgvector.
  */
 @Component
+@ConditionalOnProperty(name = ProductSyncBatchConfig.ENABLED_PROPERTY, havingValue = "false", matchIfMissing = true)
 public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, ProductCdcMessage> {
 
     private final ProductSyncService productSyncService;
@@ -0,0 +1,241 @@
+package com.yas.recommendation.vector.common.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Hierarchical navigable small world graph for cosine distance, the vectors are normalized and kept off-heap in
+ * a {@link MappedVectorStorage}, the graph is kept on heap.
+ *
+ * <p>Removed or replaced vectors are only marked as deleted, they keep routing searches but are not returned,
+ * rebuilding the index reclaims them. Not thread safe, writes must be guarded against concurrent reads.</p>
+ */
+public class HnswIndex implements Closeable {
+
+    private final MappedVectorStorage vectors;
+    private final int m;
+    private final int maxConnectionsLevel0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+
+    private final Map<String, Integer> slotsByKey = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+    /* Neighbour slots of each slot, by level */
+    private final List<int[][]> neighbours = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(Path file, int dimensions, int m, int efConstruction) throws IOException {
+        this.vectors = new MappedVectorStorage(file, dimensions);
+        this.m = m;
+        this.maxConnectionsLevel0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    /**
+     * Add a vector, replacing the vector of the same key.
+     */
+    public void add(String key, float[] vector) throws IOException {
+        remove(key);
+        float[] normalized = normalize(vector);
+        int slot = vectors.append(normalized);
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        int[][] slotNeighbours = new int[level + 1][];
+        for (int i = 0; i <= level; i++) {
+            slotNeighbours[i] = new int[0];
+        }
+        keys.add(key);
+        neighbours.add(slotNeighbours);
+        slotsByKey.put(key, slot);
+
+        if (entryPoint < 0) {
+            entryPoint = slot;
+            maxLevel = level;
+            return;
+        }
+        int nearest = entryPoint;
+        for (int i = maxLevel; i > level; i--) {
+            nearest = searchLayer(normalized, nearest, 1, i).getFirst().slot();
+        }
+        for (int i = Math.min(level, maxLevel); i >= 0; i--) {
+            List<Candidate> candidates = searchLayer(normalized, nearest, efConstruction, i);
+            int[] selected = candidates.stream().limit(m).mapToInt(Candidate::slot).toArray();
+            slotNeighbours[i] = selected;
+            for (int neighbour : selected) {
+                connect(neighbour, slot, i);
+            }
+            nearest = candidates.getFirst().slot();
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = slot;
+        }
+    }
+
+    public void remove(String key) {
+        Integer slot = slotsByKey.remove(key);
+        if (slot != null) {
+            deleted.set(slot);
+        }
+    }
+
+    public boolean contains(String key) {
+        return slotsByKey.containsKey(key);
+    }
+
+    /**
+     * Nearest neighbours of the vector of a key, not including the key itself.
+     *
+     * @return neighbours ordered by distance, empty when the key is unknown
+     */
+    public List<Neighbour> searchByKey(String key, int k, int ef) {
+        Integer slot = slotsByKey.get(key);
+        if (slot == null) {
+            return List.of();
+        }
+        return search(vectors.get(slot), k + 1, ef).stream()
+            .filter(neighbour -> !neighbour.key().equals(key))
+            .limit(k)
+            .toList();
+    }
+
+    /**
+     * Nearest neighbours of a vector.
+     *
+     * @return neighbours ordered by distance
+     */
+    public List<Neighbour> search(float[] vector, int k, int ef) {
+        if (entryPoint < 0) {
+            return List.of();
+        }
+        float[] normalized = normalize(vector);
+        int nearest = entryPoint;
+        for (int i = maxLevel; i > 0; i--) {
+            nearest = searchLayer(normalized, nearest, 1, i).getFirst().slot();
+        }
+        return searchLayer(normalized, nearest, Math.max(ef, k), 0).stream()
+            .filter(candidate -> !deleted.get(candidate.slot()))
+            .limit(k)
+            .map(candidate -> new Neighbour(keys.get(candidate.slot()), candidate.distance()))
+            .toList();
+    }
+
+    public int size() {
+        return slotsByKey.size();
+    }
+
+    /**
+     * Number of removed or replaced vectors still taking a slot, until the index is rebuilt.
+     */
+    public int deletedSize() {
+        return deleted.cardinality();
+    }
+
+    @Override
+    public void close() throws IOException {
+        vectors.close();
+    }
+
+    /**
+     * Best first search of a layer from an entry point.
+     *
+     * @return the ef nearest slots found, ordered by distance
+     */
+    private List<Candidate> searchLayer(float[] vector, int entry, int ef, int level) {
+        BitSet visited = new BitSet(vectors.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        PriorityQueue<Candidate> nearest =
+            new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance).reversed());
+        Candidate start = new Candidate(entry, distance(vector, entry));
+        visited.set(entry);
+        candidates.add(start);
+        nearest.add(start);
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (current.distance() > nearest.peek().distance() && nearest.size() >= ef) {
+                break;
+            }
+            int[][] currentNeighbours = neighbours.get(current.slot());
+            if (level >= currentNeighbours.length) {
+                continue;
+            }
+            for (int neighbour : currentNeighbours[level]) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float distance = distance(vector, neighbour);
+                if (nearest.size() < ef || distance < nearest.peek().distance()) {
+                    Candidate candidate = new Candidate(neighbour, distance);
+                    candidates.add(candidate);
+                    nearest.add(candidate);
+                    if (nearest.size() > ef) {
+                        nearest.poll();
+                    }
+                }
+            }
+        }
+        List<Candidate> result = new ArrayList<>(nearest);
+        result.sort(Comparator.comparingDouble(Candidate::distance));
+        return result;
+    }
+
+    /**
+     * Link a slot to a neighbour, keeping the closest connections of the neighbour when it has too many.
+     */
+    private void connect(int neighbour, int slot, int level) {
+        int[] current = neighbours.get(neighbour)[level];
+        int maxConnections = level == 0 ? maxConnectionsLevel0 : m;
+        int[] connections = new int[current.length + 1];
+        System.arraycopy(current, 0, connections, 0, current.length);
+        connections[current.length] = slot;
+        if (connections.length > maxConnections) {
+            float[] neighbourVector = vectors.get(neighbour);
+            connections = Arrays.stream(connections).boxed()
+                .sorted(Comparator.comparingDouble(connection -> distance(neighbourVector, connection)))
+                .limit(maxConnections)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        }
+        neighbours.get(neighbour)[level] = connections;
+    }
+
+    private float distance(float[] vector, int slot) {
+        return 1 - vectors.dot(slot, vector);
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = norm == 0 ? 0 : (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    private record Candidate(int slot, float distance) {
+    }
+
+    /**
+     * A neighbour with its cosine distance.
+     */
+    public record Neighbour(String key, float distance) {
+    }
+}
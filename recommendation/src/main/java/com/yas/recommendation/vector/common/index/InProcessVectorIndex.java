@@ -0,0 +1,343 @@
+package com.yas.recommendation.vector.common.index;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import com.yas.recommendation.configuration.InProcessVectorIndexConfig;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves similarity queries from an in-process {@link HnswIndex} instead of the vector store table.
+ *
+ * <p>The index is rebuilt from the vector store in background on startup, queries fall back to the database
+ * until it is ready and for the documents it does not hold. Writes of this instance are mirrored by reloading
+ * the written rows, writes of other instances are picked up by the scheduled rebuild. A rebuild also reclaims
+ * the slots of removed vectors, it is started early once they outnumber the live ones.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = InProcessVectorIndexConfig.ENABLED_PROPERTY, havingValue = "true")
+public class InProcessVectorIndex implements DisposableBean {
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {};
+    private static final int FETCH_SIZE = 1000;
+    private static final int MAX_CATCH_UP_ROUNDS = 3;
+    /* Removed vectors below this count are not worth an early rebuild */
+    private static final int MIN_DELETED_FOR_REBUILD = 1000;
+    private static final String VECTOR_TABLE_NAME = "${spring.ai.vectorstore.pgvector.table-name:vector_store}";
+
+    private final String vectorTableName;
+    private final JdbcTemplate jdbcClient;
+    private final ObjectMapper objectMapper;
+    private final InProcessVectorIndexConfig indexConfig;
+    private final EmbeddingSearchConfiguration embeddingSearchConfiguration;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /* Guarded by lock */
+    private HnswIndex index;
+    private Map<String, Document> documents = new HashMap<>();
+    /* Documents written while a rebuild reads the table, reapplied to the rebuilt index */
+    private Set<String> changedDuringRebuild;
+    private boolean isRebuildRequested;
+    private int generation;
+
+    public InProcessVectorIndex(JdbcTemplate jdbcClient,
+                                ObjectMapper objectMapper,
+                                InProcessVectorIndexConfig indexConfig,
+                                EmbeddingSearchConfiguration embeddingSearchConfiguration,
+                                @Value(VECTOR_TABLE_NAME) String vectorTableName) {
+        this.vectorTableName = vectorTableName;
+        this.jdbcClient = jdbcClient;
+        this.objectMapper = objectMapper;
+        this.indexConfig = indexConfig;
+        this.embeddingSearchConfiguration = embeddingSearchConfiguration;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        startRebuild();
+    }
+
+    /**
+     * Rebuild the index from the vector store into a new file, then swap it with the current one.
+     */
+    @Scheduled(cron = "${yas.recommendation.in-process-index.rebuild-cron:0 0 */6 * * *}")
+    public void rebuild() {
+        int nextGeneration;
+        lock.writeLock().lock();
+        try {
+            isRebuildRequested = false;
+            if (changedDuringRebuild != null) {
+                log.debug("Vector index rebuild already running");
+                return;
+            }
+            changedDuringRebuild = new HashSet<>();
+            nextGeneration = generation + 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        HnswIndex rebuilt = null;
+        try {
+            long start = System.currentTimeMillis();
+            rebuilt = newIndex(nextGeneration);
+            Map<String, Document> rebuiltDocuments = new HashMap<>();
+            load(rebuilt, rebuiltDocuments, null);
+            swap(rebuilt, rebuiltDocuments, nextGeneration);
+            log.info("Vector index rebuilt with {} documents in {} ms", rebuilt.size(),
+                System.currentTimeMillis() - start);
+        } catch (RuntimeException | IOException e) {
+            log.error("Failed to rebuild the vector index, similarity queries keep the previous index", e);
+            closeQuietly(rebuilt);
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Nearest documents of a document, with the top K and similarity threshold of the database query.
+     *
+     * @return the nearest documents, or empty when the index is not built yet or does not hold the document
+     */
+    public Optional<List<Document>> similaritySearch(String documentId) {
+        lock.readLock().lock();
+        try {
+            if (index == null || !index.contains(documentId)) {
+                return Optional.empty();
+            }
+            return Optional.of(index.searchByKey(documentId, embeddingSearchConfiguration.topK(),
+                    Math.max(indexConfig.efSearch(), embeddingSearchConfiguration.topK())).stream()
+                .filter(neighbour -> neighbour.distance() > embeddingSearchConfiguration.similarityThreshold())
+                .map(neighbour -> documents.get(neighbour.key()))
+                .toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reload documents written to the vector store.
+     */
+    public void reload(Collection<String> documentIds) {
+        if (documentIds.isEmpty()) {
+            return;
+        }
+        Map<String, Document> loadedDocuments = new HashMap<>();
+        Map<String, float[]> embeddings = new HashMap<>();
+        String sql = "SELECT id::text AS id, content, metadata::text AS metadata, embedding::text AS embedding "
+            + "FROM %s WHERE id = ANY (?::uuid[])".formatted(vectorTableName);
+        jdbcClient.query(sql,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", documentIds.toArray())),
+            (RowCallbackHandler) rs -> {
+                Document document = toDocument(rs);
+                loadedDocuments.put(document.getId(), document);
+                embeddings.put(document.getId(), parseEmbedding(rs.getString("embedding")));
+            });
+
+        lock.writeLock().lock();
+        try {
+            for (String documentId : documentIds) {
+                Document document = loadedDocuments.get(documentId);
+                apply(documentId, document, embeddings.get(documentId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove documents deleted from the vector store.
+     */
+    public void remove(Collection<String> documentIds) {
+        lock.writeLock().lock();
+        try {
+            documentIds.forEach(documentId -> apply(documentId, null, null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lock.writeLock().lock();
+        try {
+            closeQuietly(index);
+            index = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* Must hold the write lock */
+    private void apply(String documentId, Document document, float[] embedding) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(documentId);
+        }
+        if (index == null) {
+            return;
+        }
+        if (document == null) {
+            index.remove(documentId);
+            documents.remove(documentId);
+        } else {
+            try {
+                index.add(documentId, embedding);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            documents.put(documentId, document);
+        }
+        int deleted = index.deletedSize();
+        if (deleted >= MIN_DELETED_FOR_REBUILD && deleted > index.size() && changedDuringRebuild == null
+            && !isRebuildRequested) {
+            log.info("Vector index holds {} removed vectors for {} live ones, rebuilding it", deleted, index.size());
+            isRebuildRequested = true;
+            startRebuild();
+        }
+    }
+
+    private void startRebuild() {
+        Thread.ofPlatform().name("vector-index-rebuild").daemon().start(this::rebuild);
+    }
+
+    private void swap(HnswIndex rebuilt, Map<String, Document> rebuiltDocuments, int nextGeneration) {
+        // Catch up on the documents written during the rebuild without blocking queries, the last ones under the lock
+        for (int round = 0; round < MAX_CATCH_UP_ROUNDS; round++) {
+            Set<String> changed = takeChangedDuringRebuild();
+            if (changed.isEmpty()) {
+                break;
+            }
+            load(rebuilt, rebuiltDocuments, changed);
+        }
+        lock.writeLock().lock();
+        try {
+            if (!changedDuringRebuild.isEmpty()) {
+                load(rebuilt, rebuiltDocuments, changedDuringRebuild);
+            }
+            HnswIndex previous = index;
+            index = rebuilt;
+            documents = rebuiltDocuments;
+            generation = nextGeneration;
+            changedDuringRebuild = null;
+            closeQuietly(previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Set<String> takeChangedDuringRebuild() {
+        lock.writeLock().lock();
+        try {
+            Set<String> changed = changedDuringRebuild;
+            changedDuringRebuild = new HashSet<>();
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Load documents of the vector store into an index not yet serving queries, every document when ids is null.
+     */
+    private void load(HnswIndex target, Map<String, Document> targetDocuments, Collection<String> documentIds) {
+        String sql = "SELECT id::text AS id, content, metadata::text AS metadata, embedding::text AS embedding FROM "
+            + vectorTableName + (documentIds == null ? "" : " WHERE id = ANY (?::uuid[])");
+        jdbcClient.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            // Without a transaction the driver fetches the whole result at once
+            connection.setAutoCommit(false);
+            try (var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(FETCH_SIZE);
+                if (documentIds != null) {
+                    statement.setArray(1, connection.createArrayOf("text", documentIds.toArray()));
+                }
+                Set<String> found = new HashSet<>();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        Document document = toDocument(rs);
+                        target.add(document.getId(), parseEmbedding(rs.getString("embedding")));
+                        targetDocuments.put(document.getId(), document);
+                        found.add(document.getId());
+                    }
+                }
+                if (documentIds != null) {
+                    documentIds.stream().filter(documentId -> !found.contains(documentId)).forEach(documentId -> {
+                        target.remove(documentId);
+                        targetDocuments.remove(documentId);
+                    });
+                }
+                connection.commit();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private HnswIndex newIndex(int nextGeneration) throws IOException {
+        Path file = Path.of(indexConfig.directory(), "%s-%d.vectors".formatted(vectorTableName, nextGeneration % 2));
+        return new HnswIndex(file, indexConfig.dimensions(), indexConfig.m(), indexConfig.efConstruction());
+    }
+
+    @SneakyThrows
+    private Document toDocument(ResultSet rs) throws SQLException {
+        Map<String, Object> metadata = objectMapper.readValue(rs.getString("metadata"), METADATA_TYPE);
+        return new Document(rs.getString("id"), rs.getString("content"), metadata);
+    }
+
+    /**
+     * Parse the text representation of a pgvector value, "[1,2,3]".
+     */
+    static float[] parseEmbedding(String text) {
+        String[] values = text.substring(1, text.length() - 1).split(",");
+        float[] embedding = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            embedding[i] = Float.parseFloat(values[i]);
+        }
+        return embedding;
+    }
+
+    private static void closeQuietly(HnswIndex hnswIndex) {
+        if (hnswIndex == null) {
+            return;
+        }
+        try {
+            hnswIndex.close();
+        } catch (IOException e) {
+            log.warn("Failed to close vector index", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.yas.recommendation.vector.common.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append only array of fixed size float vectors, kept off-heap in a memory-mapped file.
+ * The file is mapped by segments as a single mapping is limited to 2GB.
+ *
+ * <p>The file is only scratch space backing the mapping, it is truncated when opened and deleted when closed,
+ * nothing is reused across rebuilds or restarts.</p>
+ */
+class MappedVectorStorage implements Closeable {
+
+    private static final long SEGMENT_BYTES = 1L << 28;
+
+    private final FileChannel channel;
+    private final int dimensions;
+    private final int vectorsPerSegment;
+    private final List<FloatBuffer> segments = new ArrayList<>();
+    private int size;
+
+    MappedVectorStorage(Path file, int dimensions) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DELETE_ON_CLOSE);
+        this.dimensions = dimensions;
+        this.vectorsPerSegment = (int) Math.max(1, SEGMENT_BYTES / ((long) dimensions * Float.BYTES));
+    }
+
+    /**
+     * Append a vector.
+     *
+     * @return slot of the vector
+     */
+    int append(float[] vector) throws IOException {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException(
+                "Expected %d dimensions but got %d".formatted(dimensions, vector.length));
+        }
+        if (size == segments.size() * vectorsPerSegment) {
+            long segmentBytes = (long) vectorsPerSegment * dimensions * Float.BYTES;
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segments.size() * segmentBytes, segmentBytes)
+                .asFloatBuffer());
+        }
+        FloatBuffer segment = segments.get(size / vectorsPerSegment);
+        int offset = (size % vectorsPerSegment) * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            segment.put(offset + i, vector[i]);
+        }
+        return size++;
+    }
+
+    float dot(int slot, float[] vector) {
+        FloatBuffer segment = segments.get(slot / vectorsPerSegment);
+        int offset = (slot % vectorsPerSegment) * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += segment.get(offset + i) * vector[i];
+        }
+        return dot;
+    }
+
+    float[] get(int slot) {
+        float[] vector = new float[dimensions];
+        segments.get(slot / vectorsPerSegment).get((slot % vectorsPerSegment) * dimensions, vector);
+        return vector;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -2,6 +2,7 @@ package com.yas.recommendation.vector.common.query;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import com.yas.recommendation.configuration.VectorIndexConfig;
 import com.yas.recommendation.vector.common.document.BaseDocument;
 import com.yas.recommendation.vector.common.document.DocumentMetadata;
 import java.util.List;
@@ -13,6 +14,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.jdbc.core.StatementCreatorUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Jdbc Vector service support native query vector search for document.
@@ -29,21 +31,26 @@ class JdbcVectorService {
     private final JdbcTemplate jdbcClient;
     private final DocumentRowMapper documentRowMapper;
     private final EmbeddingSearchConfiguration embeddingSearchConfiguration;
+    private final VectorIndexConfig vectorIndexConfig;
 
     public JdbcVectorService(
             JdbcTemplate jdbcClient,
             ObjectMapper objectMapper,
-            EmbeddingSearchConfiguration embeddingSearchConfiguration
+            EmbeddingSearchConfiguration embeddingSearchConfiguration,
+            VectorIndexConfig vectorIndexConfig
     ) {
         this.jdbcClient = jdbcClient;
         this.documentRowMapper = new DocumentRowMapper(objectMapper);
         this.embeddingSearchConfiguration = embeddingSearchConfiguration;
+        this.vectorIndexConfig = vectorIndexConfig;
     }
 
+    @Transactional(readOnly = true)
     public <D extends BaseDocument> List<Document> similarityProduct(Long id, Class<D> docType) {
         String docIdPrefix = getDocIdPrefix(docType);
         UUID idStr = generateUuid(docIdPrefix, id);
 
+        setSearchParameters();
         return jdbcClient.query(getFormattedQuery(), getPreparedStatementSetter(idStr), documentRowMapper);
     }
 
@@ -61,41 +68,54 @@ class JdbcVectorService {
     private PreparedStatementSetter getPreparedStatementSetter(UUID idStr) {
         return ps -> {
             StatementCreatorUtils.setParameterValue(ps, 1, Integer.MIN_VALUE, idStr);
-            StatementCreatorUtils.setParameterValue(ps, 2, Integer.MIN_VALUE, idStr);
-            StatementCreatorUtils.setParameterValue(ps, 3, Integer.MIN_VALUE,
-                    embeddingSearchConfiguration.similarityThreshold());
+            // One more neighbour as the product itself is the nearest one
+            StatementCreatorUtils.setParameterValue(ps, 2, Integer.MIN_VALUE,
+                    embeddingSearchConfiguration.topK() + 1);
+            StatementCreatorUtils.setParameterValue(ps, 3, Integer.MIN_VALUE, idStr);
             StatementCreatorUtils.setParameterValue(ps, 4, Integer.MIN_VALUE,
-                    embeddingSearchConfiguration.topK());
+                    embeddingSearchConfiguration.similarityThreshold());
         };
     }
 
+    /**
+     * Apply the query time index parameters to the current transaction.
+     */
+    private void setSearchParameters() {
+        switch (vectorIndexConfig.type()) {
+            case HNSW -> jdbcClient.execute("SET LOCAL hnsw.ef_search = %d".formatted(vectorIndexConfig.efSearch()));
+            case IVFFLAT -> jdbcClient.execute("SET LOCAL ivfflat.probes = %d".formatted(vectorIndexConfig.probes()));
+            case NONE -> {
+                // Exact search, nothing to tune
+            }
+        }
+    }
+
+    /**
+     * The nearest neighbours are selected first by ordering on the distance to a constant embedding with a limit,
+     * which is the form served by the ANN index, filters are applied to that candidate set afterward.
+     */
     private String getFormattedQuery() {
         return """
-                WITH entity AS (
+                SELECT
+                    nearest.id,
+                    nearest.content,
+                    nearest.metadata,
+                    nearest.distance
+                FROM (
                     SELECT
-                        id,
-                        content,
-                        metadata,
-                        embedding
+                        vs.id,
+                        vs.content,
+                        vs.metadata,
+                        vs.embedding <=> (SELECT entity.embedding FROM %1$s entity WHERE entity.id = ?) AS distance
                     FROM
-                        %s
-                    WHERE
-                        id = ?
-                )
-                SELECT
-                    vs.id,
-                    vs.content,
-                    vs.metadata,
-                    (vs.embedding <=> entity.embedding) AS similarity
-                FROM
-                    vector_store vs
-                JOIN
-                    entity ON true
-                WHERE vs.id <> ? AND (vs.embedding <=> entity.embedding) > ?
+                        %1$s vs
+                    ORDER BY
+                        distance
+                    LIMIT ?
+                ) nearest
+                WHERE nearest.id <> ? AND nearest.distance > ?
                 ORDER BY
-                    similarity
-                LIMIT ?
+                    nearest.distance
                 """.formatted(vectorTableName);
     }
 }
-
@@ -2,8 +2,11 @@ package com.yas.recommendation.vector.common.query;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yas.recommendation.vector.common.document.BaseDocument;
+import com.yas.recommendation.vector.common.document.DefaultIdGenerator;
 import com.yas.recommendation.vector.common.document.DocumentMetadata;
+import com.yas.recommendation.vector.common.index.InProcessVectorIndex;
 import java.util.List;
+import java.util.Optional;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import org.springframework.ai.document.Document;
@@ -20,6 +23,7 @@ public abstract class VectorQuery<D extends BaseDocument, P> {
 
     private ObjectMapper objectMapper;
     private JdbcVectorService jdbcVectorService;
+    private InProcessVectorIndex inProcessVectorIndex;
 
     @Getter
     private final Class<D> docType;
@@ -47,6 +51,14 @@ public abstract class VectorQuery<D extends BaseDocument, P> {
      *      result will not include specified product.
      */
     public List<P> similaritySearch(Long id) {
+        if (inProcessVectorIndex != null) {
+            String documentId = new DefaultIdGenerator(docType.getAnnotation(DocumentMetadata.class).docIdPrefix(), id)
+                .generateId();
+            Optional<List<Document>> documents = inProcessVectorIndex.similaritySearch(documentId);
+            if (documents.isPresent()) {
+                return toResult(documents.get());
+            }
+        }
         return toResult(jdbcVectorService.similarityProduct(id, this.getDocType()));
     }
 
@@ -73,4 +85,9 @@ public abstract class VectorQuery<D extends BaseDocument, P> {
     private void setJdbcVectorService(JdbcVectorService jdbcVectorService) {
         this.jdbcVectorService = jdbcVectorService;
     }
+
+    @Autowired(required = false)
+    private void setInProcessVectorIndex(InProcessVectorIndex inProcessVectorIndex) {
+        this.inProcessVectorIndex = inProcessVectorIndex;
+    }
 }
@@ -6,6 +6,8 @@ import com.yas.recommendation.vector.common.document.BaseDocument;
 import com.yas.recommendation.vector.common.document.DefaultIdGenerator;
 import com.yas.recommendation.vector.common.document.DocumentMetadata;
 import com.yas.recommendation.vector.common.formatter.DocumentFormatter;
+import com.yas.recommendation.vector.common.index.InProcessVectorIndex;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import lombok.SneakyThrows;
@@ -33,6 +35,8 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
 
     private ObjectMapper objectMapper;
     private EmbeddingSearchConfiguration embeddingSearchConfiguration;
+    private VectorStoreBatchWriter vectorStoreBatchWriter;
+    private InProcessVectorIndex inProcessVectorIndex;
 
     private final Class<D> docType;
     private final VectorStore vectorStore;
@@ -63,19 +67,22 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
      *
      * @param entityId the ID of the entity to fetch and add to the vector database
      */
-    @lombok.SneakyThrows
     public void add(Long entityId) {
-        final var entity = getEntity(entityId);
-        final var entityContentMap = objectMapper.convertValue(entity, Map.class);
-
-        D document = docType.getDeclaredConstructor().newInstance();
-        document.setContent(documentFormatter.format(entityContentMap, documentMetadata.contentFormat(), objectMapper));
-
-        entityContentMap.put(TYPE_METADATA, documentMetadata.docIdPrefix());
-        document.setMetadata(entityContentMap);
+        Document document = toDocument(entityId);
+        vectorStore.add(List.of(document));
+        reloadInProcessIndex(List.of(document.getId()));
+    }
 
-        final IdGenerator idGenerator = getIdGenerator(entityId);
-        vectorStore.add(List.of(document.toDocument(idGenerator)));
+    /**
+     * Add or update the records of several entities, embedding them with one request and writing them
+     * with one upsert. Entities whose formatted content did not change keep their embedding.
+     *
+     * @param entityIds the IDs of the entities to fetch and save to the vector database
+     */
+    public void saveAll(Collection<Long> entityIds) {
+        List<Document> documents = entityIds.stream().map(this::toDocument).toList();
+        vectorStoreBatchWriter.saveAll(documents);
+        reloadInProcessIndex(documents.stream().map(Document::getId).toList());
     }
 
     /**
@@ -87,18 +94,34 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
         IdGenerator idGenerator = getIdGenerator(entityId);
         var docId = idGenerator.generateId();
         vectorStore.delete(List.of(docId));
+        if (inProcessVectorIndex != null) {
+            inProcessVectorIndex.remove(List.of(docId));
+        }
+    }
+
+    /**
+     * Deletes the records of several entities with one statement.
+     *
+     * @param entityIds the IDs of the entities to be deleted from the vector store
+     */
+    public void deleteAll(Collection<Long> entityIds) {
+        List<String> docIds = entityIds.stream().map(entityId -> getIdGenerator(entityId).generateId()).toList();
+        vectorStore.delete(docIds);
+        if (inProcessVectorIndex != null) {
+            inProcessVectorIndex.remove(docIds);
+        }
     }
 
     /**
      * Updates a record in the vector store for the given entity ID.
-     * The method first deletes the existing record by invoking {@link #delete(Long)}
-     * and then adds a new record using {@link #add(Long)}.
+     * The record is re-embedded only when its formatted content changed, otherwise only its metadata is updated.
      *
      * @param entityId the ID of the entity to be updated in the vector store
      */
     public void update(Long entityId) {
-        delete(entityId);
-        add(entityId);
+        Document document = toDocument(entityId);
+        vectorStoreBatchWriter.saveAll(List.of(document));
+        reloadInProcessIndex(List.of(document.getId()));
     }
 
     /**
@@ -124,6 +147,29 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
                 .toList();
     }
 
+    /**
+     * Fetch an entity and format it as a document, the entity itself is kept as metadata.
+     */
+    @SneakyThrows
+    private Document toDocument(Long entityId) {
+        final var entity = getEntity(entityId);
+        final var entityContentMap = objectMapper.convertValue(entity, Map.class);
+
+        D document = docType.getDeclaredConstructor().newInstance();
+        document.setContent(documentFormatter.format(entityContentMap, documentMetadata.contentFormat(), objectMapper));
+
+        entityContentMap.put(TYPE_METADATA, documentMetadata.docIdPrefix());
+        document.setMetadata(entityContentMap);
+
+        return document.toDocument(getIdGenerator(entityId));
+    }
+
+    private void reloadInProcessIndex(List<String> docIds) {
+        if (inProcessVectorIndex != null) {
+            inProcessVectorIndex.reload(docIds);
+        }
+    }
+
     public IdGenerator getIdGenerator(Long entityId) {
         return new DefaultIdGenerator(documentMetadata.docIdPrefix(), entityId);
     }
@@ -146,6 +192,16 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
         this.objectMapper = objectMapper;
     }
 
+    @Autowired
+    private void setVectorStoreBatchWriter(VectorStoreBatchWriter vectorStoreBatchWriter) {
+        this.vectorStoreBatchWriter = vectorStoreBatchWriter;
+    }
+
+    @Autowired(required = false)
+    private void setInProcessVectorIndex(InProcessVectorIndex inProcessVectorIndex) {
+        this.inProcessVectorIndex = inProcessVectorIndex;
+    }
+
     @Autowired
     private void setEmbeddingSearchConfiguration(EmbeddingSearchConfiguration embeddingSearchConfiguration) {
         this.embeddingSearchConfiguration = embeddingSearchConfiguration;
@@ -0,0 +1,108 @@
+package com.yas.recommendation.vector.common.store;
+
+import com.yas.recommendation.configuration.VectorIndexConfig;
+import com.yas.recommendation.configuration.VectorIndexConfig.IndexType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the approximate nearest neighbour index of the vector store in line with {@link VectorIndexConfig}.
+ *
+ * <p>The index name carries its build parameters, so a configuration change drops the outdated index and builds
+ * the new one on startup. Indexes are built concurrently to keep the vector store writable meanwhile.</p>
+ */
+@Slf4j
+@Component
+public class VectorIndexManager implements InitializingBean {
+
+    /* Index created by Spring AI when spring.ai.vectorstore.pgvector.index-type is not NONE */
+    private static final String SPRING_AI_INDEX_NAME = "spring_ai_vector_index";
+
+    @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}")
+    private String vectorTableName;
+
+    private final JdbcTemplate jdbcClient;
+    private final VectorIndexConfig vectorIndexConfig;
+
+    /**
+     * The vector store is injected so the index is managed once the vector store schema is initialized.
+     */
+    public VectorIndexManager(JdbcTemplate jdbcClient, VectorIndexConfig vectorIndexConfig, VectorStore vectorStore) {
+        this.jdbcClient = jdbcClient;
+        this.vectorIndexConfig = vectorIndexConfig;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!Boolean.TRUE.equals(jdbcClient.queryForObject(
+            "SELECT to_regclass(?) IS NOT NULL", Boolean.class, vectorTableName))) {
+            log.warn("Vector table {} does not exist, skip vector index management", vectorTableName);
+            return;
+        }
+        String indexName = getIndexName();
+        getManagedIndexes().forEach((name, valid) -> {
+            if (!name.equals(indexName) || !valid) {
+                log.info("Dropping vector index {}", name);
+                jdbcClient.execute("DROP INDEX CONCURRENTLY IF EXISTS %s".formatted(name));
+            }
+        });
+        if (indexName == null) {
+            return;
+        }
+        log.info("Ensuring vector index {}", indexName);
+        jdbcClient.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS %s ON %s USING %s"
+            .formatted(indexName, vectorTableName, getIndexDefinition()));
+    }
+
+    /**
+     * Name of the expected index, or null when no index is configured.
+     */
+    String getIndexName() {
+        return switch (vectorIndexConfig.type()) {
+            case HNSW -> "%s_embedding_hnsw_m%d_ef%d".formatted(vectorTableName, vectorIndexConfig.m(),
+                vectorIndexConfig.efConstruction());
+            case IVFFLAT -> "%s_embedding_ivfflat_l%d".formatted(vectorTableName, vectorIndexConfig.lists());
+            case NONE -> null;
+        };
+    }
+
+    private String getIndexDefinition() {
+        if (vectorIndexConfig.type() == IndexType.IVFFLAT) {
+            return "ivfflat (embedding vector_cosine_ops) WITH (lists = %d)".formatted(vectorIndexConfig.lists());
+        }
+        return "hnsw (embedding vector_cosine_ops) WITH (m = %d, ef_construction = %d)"
+            .formatted(vectorIndexConfig.m(), vectorIndexConfig.efConstruction());
+    }
+
+    /**
+     * Embedding indexes of the vector store table created by this manager or by Spring AI, with their validity,
+     * an interrupted concurrent build leaves an invalid index behind.
+     */
+    private Map<String, Boolean> getManagedIndexes() {
+        String managedPrefix = vectorTableName + "_embedding_";
+        Map<String, Boolean> indexes = new LinkedHashMap<>();
+        jdbcClient.query(
+            """
+            SELECT c.relname AS name, i.indisvalid AS valid
+            FROM pg_index i
+            JOIN pg_class c ON c.oid = i.indexrelid
+            WHERE i.indrelid = to_regclass(?)
+            """,
+            ps -> ps.setString(1, vectorTableName),
+            (RowCallbackHandler) rs -> {
+                String name = rs.getString("name");
+                if (name.startsWith(managedPrefix) || name.equals(SPRING_AI_INDEX_NAME)) {
+                    indexes.put(name, rs.getBoolean("valid"));
+                }
+            }
+        );
+        return indexes;
+    }
+}
@@ -1,6 +1,7 @@
 package com.yas.recommendation.vector.common.store;
 
 import com.yas.recommendation.vector.common.document.BaseDocument;
+import java.util.Collection;
 import java.util.List;
 
 public interface VectorRepository<D extends BaseDocument, E> {
@@ -15,4 +16,8 @@ public interface VectorRepository<D extends BaseDocument, E> {
 
     void update(Long entityId);
 
+    void saveAll(Collection<Long> entityIds);
+
+    void deleteAll(Collection<Long> entityIds);
+
 }
@@ -0,0 +1,275 @@
+package com.yas.recommendation.vector.common.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes batches of documents into the pgvector table with one embedding request and one upsert statement,
+ * instead of the one embedding request and one insert per document of {@link
+ * org.springframework.ai.vectorstore.VectorStore#add(List)}.
+ *
+ * <p>Embeddings are cached by the hash of the embedded text in the embedding cache table, so a text which
+ * was embedded once, for any document, is not sent to the embedding model again.</p>
+ */
+@Slf4j
+@Component
+public class VectorStoreBatchWriter implements InitializingBean {
+
+    @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}")
+    private String vectorTableName;
+
+    @Value("${yas.recommendation.embedding-cache.table-name:embedding_cache}")
+    private String embeddingCacheTableName;
+
+    /* Using JdbcTemplate to keep consistency with Spring AI implementation, instead of using JPA, JdbcClient */
+    private final JdbcTemplate jdbcClient;
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+
+    public VectorStoreBatchWriter(JdbcTemplate jdbcClient, EmbeddingModel embeddingModel, ObjectMapper objectMapper) {
+        this.jdbcClient = jdbcClient;
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcClient.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        jdbcClient.execute("""
+            CREATE TABLE IF NOT EXISTS %s (
+                content_hash text PRIMARY KEY,
+                embedding vector NOT NULL,
+                created_on timestamptz NOT NULL DEFAULT now()
+            )
+            """.formatted(embeddingCacheTableName));
+    }
+
+    /**
+     * Upsert documents. Documents whose content did not change only get their metadata updated, the others
+     * take their embedding from the cache, texts missing from the cache are embedded with one request.
+     *
+     * @param documents documents to save, ids must be unique
+     */
+    public void saveAll(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        Map<String, String> storedContentHashes = getContentHashes(documents.stream().map(Document::getId).toList());
+
+        List<PendingDocument> documentsToUpsert = new ArrayList<>();
+        List<Document> documentsToPatch = new ArrayList<>();
+        for (Document document : documents) {
+            if (contentHash(document.getContent()).equals(storedContentHashes.get(document.getId()))) {
+                documentsToPatch.add(document);
+            } else {
+                String embeddedText = document.getFormattedContent(MetadataMode.EMBED);
+                documentsToUpsert.add(new PendingDocument(document, embeddedText, contentHash(embeddedText)));
+            }
+        }
+
+        int embedded = 0;
+        if (!documentsToUpsert.isEmpty()) {
+            embedded = upsertWithEmbeddings(documentsToUpsert);
+        }
+        if (!documentsToPatch.isEmpty()) {
+            updateMetadata(documentsToPatch);
+        }
+        log.debug("Saved {} documents, {} texts embedded, {} with unchanged content",
+            documents.size(), embedded, documentsToPatch.size());
+    }
+
+    /**
+     * Hash of the stored content of each existing document, computed by the database to avoid
+     * reading the content back.
+     */
+    private Map<String, String> getContentHashes(Collection<String> documentIds) {
+        Map<String, String> contentHashes = new HashMap<>();
+        jdbcClient.query(
+            """
+            SELECT id::text AS id, encode(sha256(convert_to(content, 'UTF8')), 'hex') AS content_hash
+            FROM %s WHERE id = ANY (?::uuid[])
+            """.formatted(vectorTableName),
+            ps -> ps.setArray(1, textArray(ps.getConnection(), documentIds)),
+            (RowCallbackHandler) rs -> contentHashes.put(rs.getString("id"), rs.getString("content_hash"))
+        );
+        return contentHashes;
+    }
+
+    /**
+     * Write the documents with their embedding, texts missing from the cache being embedded first. A document
+     * whose cached embedding was removed meanwhile is not written by the upsert joining the cache, it is written
+     * again with its embedding passed along.
+     *
+     * @return number of embedded texts
+     */
+    private int upsertWithEmbeddings(List<PendingDocument> documents) {
+        Map<String, String> embeddings = embedMissing(documents);
+        Set<String> writtenIds = upsert(documents);
+        List<PendingDocument> unwrittenDocuments = documents.stream()
+            .filter(document -> !writtenIds.contains(document.document().getId()))
+            .toList();
+        if (!unwrittenDocuments.isEmpty()) {
+            log.warn("Embeddings of {} documents are missing from the cache, writing them directly",
+                unwrittenDocuments.size());
+            embeddings.putAll(embed(unwrittenDocuments.stream()
+                .filter(document -> !embeddings.containsKey(document.embeddingHash()))
+                .toList()));
+            upsert(unwrittenDocuments, embeddings);
+        }
+        return embeddings.size();
+    }
+
+    /**
+     * Embed the texts missing from the cache.
+     *
+     * @return embedding of each embedded text, by its hash
+     */
+    private Map<String, String> embedMissing(List<PendingDocument> documents) {
+        Set<String> cachedEmbeddingHashes = new HashSet<>(jdbcClient.query(
+            "SELECT content_hash FROM %s WHERE content_hash = ANY (?::text[])".formatted(embeddingCacheTableName),
+            ps -> ps.setArray(1, textArray(ps.getConnection(),
+                documents.stream().map(PendingDocument::embeddingHash).toList())),
+            (rs, rowNum) -> rs.getString("content_hash")
+        ));
+        return embed(documents.stream()
+            .filter(document -> !cachedEmbeddingHashes.contains(document.embeddingHash()))
+            .toList());
+    }
+
+    /**
+     * Embed the texts of the documents with one request and cache them, a text shared by several documents is
+     * embedded once.
+     *
+     * @return embedding of each embedded text, by its hash
+     */
+    private Map<String, String> embed(List<PendingDocument> documents) {
+        Map<String, String> textsToEmbed = new LinkedHashMap<>();
+        documents.forEach(document -> textsToEmbed.putIfAbsent(document.embeddingHash(), document.embeddedText()));
+        Map<String, String> embeddingsByHash = new HashMap<>();
+        if (textsToEmbed.isEmpty()) {
+            return embeddingsByHash;
+        }
+
+        List<float[]> embeddings = embeddingModel.embed(new ArrayList<>(textsToEmbed.values()));
+        Iterator<float[]> embeddingIterator = embeddings.iterator();
+        textsToEmbed.keySet().forEach(hash -> embeddingsByHash.put(hash, Arrays.toString(embeddingIterator.next())));
+        String sql = """
+            INSERT INTO %s (content_hash, embedding)
+            SELECT e.content_hash, e.embedding::vector
+            FROM unnest(?::text[], ?::text[]) AS e(content_hash, embedding)
+            ON CONFLICT (content_hash) DO NOTHING
+            """.formatted(embeddingCacheTableName);
+        jdbcClient.update(sql, ps -> {
+            ps.setArray(1, textArray(ps.getConnection(), embeddingsByHash.keySet()));
+            ps.setArray(2, textArray(ps.getConnection(), embeddingsByHash.values()));
+        });
+        return embeddingsByHash;
+    }
+
+    /**
+     * Write the documents with their embedding taken from the cache, in one statement.
+     *
+     * @return ids of the written documents
+     */
+    private Set<String> upsert(List<PendingDocument> documents) {
+        String sql = """
+            INSERT INTO %s (id, content, metadata, embedding)
+            SELECT d.id::uuid, d.content, d.metadata::json, c.embedding
+            FROM unnest(?::text[], ?::text[], ?::text[], ?::text[]) AS d(id, content, metadata, content_hash)
+            JOIN %s c ON c.content_hash = d.content_hash
+            ON CONFLICT (id) DO UPDATE
+            SET content = EXCLUDED.content, metadata = EXCLUDED.metadata, embedding = EXCLUDED.embedding
+            RETURNING id::text AS id
+            """.formatted(vectorTableName, embeddingCacheTableName);
+        return new HashSet<>(jdbcClient.query(sql, ps -> {
+            setDocumentArrays(ps, documents);
+            ps.setArray(4, textArray(ps.getConnection(),
+                documents.stream().map(PendingDocument::embeddingHash).toList()));
+        }, (rs, rowNum) -> rs.getString("id")));
+    }
+
+    /**
+     * Write the documents with the given embeddings, in one statement.
+     */
+    private void upsert(List<PendingDocument> documents, Map<String, String> embeddings) {
+        String sql = """
+            INSERT INTO %s (id, content, metadata, embedding)
+            SELECT d.id::uuid, d.content, d.metadata::json, d.embedding::vector
+            FROM unnest(?::text[], ?::text[], ?::text[], ?::text[]) AS d(id, content, metadata, embedding)
+            ON CONFLICT (id) DO UPDATE
+            SET content = EXCLUDED.content, metadata = EXCLUDED.metadata, embedding = EXCLUDED.embedding
+            """.formatted(vectorTableName);
+        jdbcClient.update(sql, ps -> {
+            setDocumentArrays(ps, documents);
+            ps.setArray(4, textArray(ps.getConnection(),
+                documents.stream().map(document -> embeddings.get(document.embeddingHash())).toList()));
+        });
+    }
+
+    @SneakyThrows
+    private void setDocumentArrays(PreparedStatement ps, List<PendingDocument> documents) {
+        ps.setArray(1, textArray(ps.getConnection(),
+            documents.stream().map(document -> document.document().getId()).toList()));
+        ps.setArray(2, textArray(ps.getConnection(),
+            documents.stream().map(document -> document.document().getContent()).toList()));
+        ps.setArray(3, textArray(ps.getConnection(),
+            documents.stream().map(document -> toJson(document.document())).toList()));
+    }
+
+    private void updateMetadata(List<Document> documents) {
+        String sql = """
+            UPDATE %s vs
+            SET metadata = d.metadata::json
+            FROM unnest(?::text[], ?::text[]) AS d(id, metadata)
+            WHERE vs.id = d.id::uuid
+            """.formatted(vectorTableName);
+        jdbcClient.update(sql, ps -> {
+            ps.setArray(1, textArray(ps.getConnection(), documents.stream().map(Document::getId).toList()));
+            ps.setArray(2, textArray(ps.getConnection(), documents.stream().map(this::toJson).toList()));
+        });
+    }
+
+    @SneakyThrows
+    private String toJson(Document document) {
+        return objectMapper.writeValueAsString(document.getMetadata());
+    }
+
+    @SneakyThrows
+    private static Array textArray(Connection connection, Collection<String> values) {
+        return connection.createArrayOf("text", values.toArray());
+    }
+
+    @SneakyThrows
+    static String contentHash(String content) {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record PendingDocument(Document document, String embeddedText, String embeddingHash) {
+    }
+}
@@ -2,6 +2,8 @@ package com.yas.recommendation.vector.product.service;
 
 import com.yas.commonlibrary.kafka.cdc.message.Product;
 import com.yas.recommendation.vector.product.store.ProductVectorRepository;
+import java.util.Collection;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ProductVectorSyncService {
     private final ProductVectorRepository productVectorRepository;
+    private final RelatedProductService relatedProductService;
 
     /**
      * Creates a product vector if the product is published.
@@ -23,6 +26,7 @@ public class ProductVectorSyncService {
     public void createProductVector(Product product) {
         if (product.isPublished()) {
             productVectorRepository.add(product.getId());
+            relatedProductService.markChanged(List.of(product.getId()));
         }
     }
 
@@ -34,8 +38,10 @@ public class ProductVectorSyncService {
     public void updateProductVector(Product product) {
         if (product.isPublished()) {
             productVectorRepository.update(product.getId());
+            relatedProductService.markChanged(List.of(product.getId()));
         } else {
             productVectorRepository.delete(product.getId());
+            relatedProductService.markDeleted(List.of(product.getId()));
         }
     }
 
@@ -46,6 +52,24 @@ public class ProductVectorSyncService {
      */
     public void deleteProductVector(Long productId) {
         productVectorRepository.delete(productId);
+        relatedProductService.markDeleted(List.of(productId));
+    }
+
+    /**
+     * Synchronizes a batch of product vectors, products are embedded together and written with one upsert.
+     *
+     * @param upsertIds ids of published products to create or update.
+     * @param deleteIds ids of deleted or unpublished products.
+     */
+    public void syncProductVectors(Collection<Long> upsertIds, Collection<Long> deleteIds) {
+        if (!deleteIds.isEmpty()) {
+            productVectorRepository.deleteAll(deleteIds);
+        }
+        if (!upsertIds.isEmpty()) {
+            productVectorRepository.saveAll(upsertIds);
+        }
+        relatedProductService.markChanged(upsertIds);
+        relatedProductService.markDeleted(deleteIds);
     }
 
 }
@@ -0,0 +1,131 @@
+package com.yas.recommendation.vector.product.service;
+
+import com.yas.recommendation.configuration.RelatedProductConfig;
+import com.yas.recommendation.vector.product.query.RelatedProductQuery;
+import com.yas.recommendation.vector.product.store.RelatedProductStore;
+import com.yas.recommendation.viewmodel.RelatedProductVm;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves related products from the precomputed {@link RelatedProductStore} when enabled.
+ *
+ * <p>Products whose vector changed are queued and refreshed in the background, together with the products
+ * referencing them and their new neighbours, which are the entries the change may have made outdated.
+ * Entries of deleted or unpublished products are removed right away, only the products referencing them are
+ * queued.
+ * A periodic full refresh catches up on the products this incremental refresh misses.</p>
+ */
+@Slf4j
+@Service
+public class RelatedProductService {
+
+    private final RelatedProductQuery relatedProductQuery;
+    private final RelatedProductStore relatedProductStore;
+    private final RelatedProductConfig relatedProductConfig;
+    private final Set<Long> changedProductIds = ConcurrentHashMap.newKeySet();
+
+    public RelatedProductService(RelatedProductQuery relatedProductQuery,
+                                 RelatedProductStore relatedProductStore,
+                                 RelatedProductConfig relatedProductConfig) {
+        this.relatedProductQuery = relatedProductQuery;
+        this.relatedProductStore = relatedProductStore;
+        this.relatedProductConfig = relatedProductConfig;
+    }
+
+    /**
+     * Get the related products of a product, a missing entry is computed and stored.
+     *
+     * @param productId the product id
+     * @return related products, not including the product itself
+     */
+    public List<RelatedProductVm> getRelatedProducts(Long productId) {
+        if (!relatedProductConfig.enabled()) {
+            return relatedProductQuery.similaritySearch(productId);
+        }
+        return relatedProductStore.find(productId).orElseGet(() -> {
+            List<RelatedProductVm> relatedProducts = relatedProductQuery.similaritySearch(productId);
+            relatedProductStore.saveAll(Map.of(productId, relatedProducts));
+            return relatedProducts;
+        });
+    }
+
+    /**
+     * Queue products whose vector was created, updated or deleted for the next refresh.
+     */
+    public void markChanged(Collection<Long> productIds) {
+        if (relatedProductConfig.enabled()) {
+            changedProductIds.addAll(productIds);
+        }
+    }
+
+    /**
+     * Remove the related products of deleted or unpublished products, and queue the products referencing them.
+     */
+    public void markDeleted(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        relatedProductStore.deleteAll(productIds);
+        if (relatedProductConfig.enabled()) {
+            changedProductIds.removeAll(productIds);
+            relatedProductStore.findReferencing(productIds).stream()
+                .filter(productId -> !productIds.contains(productId))
+                .forEach(changedProductIds::add);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${yas.recommendation.related-products.refresh-delay-ms:1000}")
+    public void refreshChanged() {
+        Set<Long> productIds = new LinkedHashSet<>();
+        Iterator<Long> iterator = changedProductIds.iterator();
+        while (iterator.hasNext() && productIds.size() < relatedProductConfig.refreshBatchSize()) {
+            productIds.add(iterator.next());
+            iterator.remove();
+        }
+        if (productIds.isEmpty()) {
+            return;
+        }
+        try {
+            refresh(productIds);
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh related products of {}, retry on next refresh", productIds, e);
+            changedProductIds.addAll(productIds);
+        }
+    }
+
+    @Scheduled(cron = "${yas.recommendation.related-products.full-refresh-cron:-}")
+    public void refreshAll() {
+        if (relatedProductConfig.enabled()) {
+            changedProductIds.addAll(relatedProductStore.findAllProductIds());
+        }
+    }
+
+    private void refresh(Set<Long> productIds) {
+        Map<Long, List<RelatedProductVm>> relatedProductsByProductId = new LinkedHashMap<>();
+        Set<Long> affectedProductIds = new LinkedHashSet<>(relatedProductStore.findReferencing(productIds));
+        for (Long productId : productIds) {
+            List<RelatedProductVm> relatedProducts = relatedProductQuery.similaritySearch(productId);
+            relatedProductsByProductId.put(productId, relatedProducts);
+            relatedProducts.stream().map(RelatedProductVm::getProductId).filter(Objects::nonNull)
+                .forEach(affectedProductIds::add);
+        }
+        affectedProductIds.removeAll(productIds);
+        for (Long productId : affectedProductIds) {
+            relatedProductsByProductId.put(productId, relatedProductQuery.similaritySearch(productId));
+        }
+        relatedProductStore.saveAll(relatedProductsByProductId);
+        log.debug("Refreshed related products of {} changed and {} affected products",
+            productIds.size(), affectedProductIds.size());
+    }
+}
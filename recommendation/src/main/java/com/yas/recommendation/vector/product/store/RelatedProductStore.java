@@ -0,0 +1,128 @@
+package com.yas.recommendation.vector.product.store;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.recommendation.viewmodel.RelatedProductVm;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Table of the precomputed related products of each product, stored as the serialized response so a read is
+ * a primary key lookup. The related product ids are kept apart to find the entries referencing a product.
+ */
+@Component
+public class RelatedProductStore implements InitializingBean {
+
+    private static final TypeReference<List<RelatedProductVm>> RELATED_PRODUCTS_TYPE = new TypeReference<>() {};
+
+    @Value("${yas.recommendation.related-products.table-name:related_product}")
+    private String relatedProductTableName;
+
+    @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}")
+    private String vectorTableName;
+
+    private final JdbcTemplate jdbcClient;
+    private final ObjectMapper objectMapper;
+
+    public RelatedProductStore(JdbcTemplate jdbcClient, ObjectMapper objectMapper) {
+        this.jdbcClient = jdbcClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcClient.execute("""
+            CREATE TABLE IF NOT EXISTS %s (
+                product_id bigint PRIMARY KEY,
+                related_product_ids bigint[] NOT NULL,
+                related_products json NOT NULL,
+                refreshed_on timestamptz NOT NULL DEFAULT now()
+            )
+            """.formatted(relatedProductTableName));
+        jdbcClient.execute("CREATE INDEX IF NOT EXISTS %1$s_ids_idx ON %1$s USING gin (related_product_ids)"
+            .formatted(relatedProductTableName));
+    }
+
+    @SneakyThrows
+    public Optional<List<RelatedProductVm>> find(Long productId) {
+        List<String> rows = jdbcClient.queryForList(
+            "SELECT related_products::text FROM %s WHERE product_id = ?".formatted(relatedProductTableName),
+            String.class, productId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(objectMapper.readValue(rows.getFirst(), RELATED_PRODUCTS_TYPE));
+    }
+
+    /**
+     * Ids of the products having one of the given products among their related products.
+     */
+    public List<Long> findReferencing(Collection<Long> productIds) {
+        return jdbcClient.query(
+            "SELECT product_id FROM %s WHERE related_product_ids && ?::bigint[]".formatted(relatedProductTableName),
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", productIds.toArray())),
+            (rs, rowNum) -> rs.getLong("product_id"));
+    }
+
+    /**
+     * Ids of every product having a vector or precomputed related products.
+     */
+    public List<Long> findAllProductIds() {
+        return jdbcClient.queryForList("""
+            SELECT (metadata->>'id')::bigint FROM %s WHERE metadata->>'id' IS NOT NULL
+            UNION
+            SELECT product_id FROM %s
+            """.formatted(vectorTableName, relatedProductTableName), Long.class);
+    }
+
+    public void saveAll(Map<Long, List<RelatedProductVm>> relatedProductsByProductId) {
+        List<Map.Entry<Long, List<RelatedProductVm>>> entries = new ArrayList<>(relatedProductsByProductId.entrySet());
+        jdbcClient.batchUpdate("""
+            INSERT INTO %s (product_id, related_product_ids, related_products, refreshed_on)
+            VALUES (?, ?, ?::json, now())
+            ON CONFLICT (product_id) DO UPDATE
+            SET related_product_ids = EXCLUDED.related_product_ids,
+                related_products = EXCLUDED.related_products,
+                refreshed_on = EXCLUDED.refreshed_on
+            """.formatted(relatedProductTableName), new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Map.Entry<Long, List<RelatedProductVm>> entry = entries.get(i);
+                    Object[] relatedProductIds = entry.getValue().stream()
+                        .map(RelatedProductVm::getProductId)
+                        .filter(Objects::nonNull)
+                        .toArray();
+                    ps.setLong(1, entry.getKey());
+                    ps.setArray(2, ps.getConnection().createArrayOf("bigint", relatedProductIds));
+                    ps.setString(3, toJson(entry.getValue()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return entries.size();
+                }
+            });
+    }
+
+    public void deleteAll(Collection<Long> productIds) {
+        jdbcClient.update("DELETE FROM %s WHERE product_id = ANY (?::bigint[])".formatted(relatedProductTableName),
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", productIds.toArray())));
+    }
+
+    @SneakyThrows
+    private String toJson(List<RelatedProductVm> relatedProducts) {
+        return objectMapper.writeValueAsString(relatedProducts);
+    }
+}
@@ -0,0 +1,173 @@
+package com.yas.recommendation.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Measures recall and latency of the approximate nearest neighbour index against an exact scan, on a synthetic
+ * table of random vectors, for a range of query time parameters ({@code hnsw.ef_search} or {@code ivfflat.probes}).
+ *
+ * <p>Needs a PostgreSQL with pgvector, for instance the one of the docker compose stack. Run with
+ * {@code mvn -pl recommendation test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.yas.recommendation.benchmark.VectorIndexRecallBenchmark}, parameters are system properties:
+ * {@code benchmark.url}, {@code benchmark.username}, {@code benchmark.password}, {@code benchmark.rows} (1000000),
+ * {@code benchmark.dimensions} (256), {@code benchmark.queries} (100), {@code benchmark.k} (10),
+ * {@code benchmark.index} (hnsw or ivfflat), {@code benchmark.m} (16), {@code benchmark.efConstruction} (64),
+ * {@code benchmark.lists} (1000) and {@code benchmark.searchParams} (10,20,40,80,160).</p>
+ *
+ * <p>The data is written to a dedicated {@code vector_benchmark} table, dropped at the end.</p>
+ */
+public class VectorIndexRecallBenchmark {
+
+    private static final String TABLE = "vector_benchmark";
+    private static final int LOAD_CHUNK_SIZE = 50_000;
+
+    private final int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+    private final int dimensions = Integer.getInteger("benchmark.dimensions", 256);
+    private final int queries = Integer.getInteger("benchmark.queries", 100);
+    private final int k = Integer.getInteger("benchmark.k", 10);
+    private final String index = System.getProperty("benchmark.index", "hnsw");
+    private final int m = Integer.getInteger("benchmark.m", 16);
+    private final int efConstruction = Integer.getInteger("benchmark.efConstruction", 64);
+    private final int lists = Integer.getInteger("benchmark.lists", 1000);
+    private final int[] searchParams = Arrays.stream(System.getProperty("benchmark.searchParams", "10,20,40,80,160")
+        .split(",")).mapToInt(value -> Integer.parseInt(value.trim())).toArray();
+
+    public static void main(String[] args) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+            System.getProperty("benchmark.url", "jdbc:postgresql://localhost:5432/recommendation"),
+            System.getProperty("benchmark.username", "admin"),
+            System.getProperty("benchmark.password", "admin"))) {
+            new VectorIndexRecallBenchmark().run(connection);
+        }
+    }
+
+    private void run(Connection connection) throws SQLException {
+        try {
+            load(connection);
+            List<String> queryVectors = randomVectors(connection, queries);
+
+            long start = System.nanoTime();
+            List<Set<Long>> exactNeighbours = new ArrayList<>();
+            for (String queryVector : queryVectors) {
+                exactNeighbours.add(nearest(connection, queryVector));
+            }
+            System.out.printf("Exact scan: %.1f ms per query%n", (System.nanoTime() - start) / 1e6 / queries);
+
+            buildIndex(connection);
+
+            System.out.printf("%-14s %-8s %-10s %-10s %-10s%n", "searchParam", "recall", "p50 ms", "p95 ms", "p99 ms");
+            connection.setAutoCommit(false);
+            for (int searchParam : searchParams) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET %s = %d".formatted(
+                        "ivfflat".equals(index) ? "ivfflat.probes" : "hnsw.ef_search", searchParam));
+                }
+                double[] latencies = new double[queries];
+                double recall = 0;
+                for (int i = 0; i < queries; i++) {
+                    long queryStart = System.nanoTime();
+                    Set<Long> neighbours = nearest(connection, queryVectors.get(i));
+                    latencies[i] = (System.nanoTime() - queryStart) / 1e6;
+                    neighbours.retainAll(exactNeighbours.get(i));
+                    recall += (double) neighbours.size() / k;
+                }
+                Arrays.sort(latencies);
+                System.out.printf("%-14d %-8.3f %-10.2f %-10.2f %-10.2f%n", searchParam, recall / queries,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99));
+                connection.rollback();
+            }
+        } finally {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            }
+        }
+    }
+
+    private void load(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE %s (id bigint PRIMARY KEY, embedding vector(%d) NOT NULL)"
+                .formatted(TABLE, dimensions));
+        }
+        long start = System.nanoTime();
+        // The subquery references g so that a vector is generated for each row, not once for the statement
+        String sql = """
+            INSERT INTO %s (id, embedding)
+            SELECT g, (SELECT array_agg(random() - 0.5)::real[]::vector FROM generate_series(1, ?) WHERE g > 0)
+            FROM generate_series(?, ?) g
+            """.formatted(TABLE);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int from = 1; from <= rows; from += LOAD_CHUNK_SIZE) {
+                statement.setInt(1, dimensions);
+                statement.setInt(2, from);
+                statement.setInt(3, Math.min(from + LOAD_CHUNK_SIZE - 1, rows));
+                statement.executeUpdate();
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE " + TABLE);
+        }
+        System.out.printf("Loaded %d vectors of %d dimensions in %.1f s%n", rows, dimensions,
+            (System.nanoTime() - start) / 1e9);
+    }
+
+    private void buildIndex(Connection connection) throws SQLException {
+        String definition = "ivfflat".equals(index)
+            ? "ivfflat (embedding vector_cosine_ops) WITH (lists = %d)".formatted(lists)
+            : "hnsw (embedding vector_cosine_ops) WITH (m = %d, ef_construction = %d)".formatted(m, efConstruction);
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX ON %s USING %s".formatted(TABLE, definition));
+        }
+        System.out.printf("Built %s index in %.1f s%n", definition, (System.nanoTime() - start) / 1e9);
+    }
+
+    private List<String> randomVectors(Connection connection, int count) throws SQLException {
+        List<String> vectors = new ArrayList<>();
+        String sql = """
+            SELECT (SELECT array_agg(random() - 0.5)::real[]::vector FROM generate_series(1, ?) WHERE g > 0)::text
+            FROM generate_series(1, ?) g
+            """;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, dimensions);
+            statement.setInt(2, count);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    vectors.add(resultSet.getString(1));
+                }
+            }
+        }
+        return vectors;
+    }
+
+    private Set<Long> nearest(Connection connection, String queryVector) throws SQLException {
+        Set<Long> ids = new HashSet<>();
+        String sql = "SELECT id FROM %s ORDER BY embedding <=> ?::vector LIMIT ?".formatted(TABLE);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, queryVector);
+            statement.setInt(2, k);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static double percentile(double[] sortedValues, double percentile) {
+        return sortedValues[Math.min(sortedValues.length - 1, (int) Math.ceil(percentile * sortedValues.length) - 1)];
+    }
+}
@@ -0,0 +1,152 @@
+package com.yas.recommendation.benchmark;
+
+import com.yas.recommendation.vector.common.index.HnswIndex;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the related products lookup served by the in-process {@link HnswIndex} with the pgvector query
+ * served by PostgreSQL, on the same synthetic vectors and HNSW parameters.
+ *
+ * <p>Needs a PostgreSQL with pgvector, set with the {@code benchmark.url}, {@code benchmark.username} and
+ * {@code benchmark.password} system properties. Run with {@code mvn -pl recommendation test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.yas.recommendation.benchmark.VectorSearchBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VectorSearchBenchmark {
+
+    private static final String TABLE = "vector_search_benchmark";
+    private static final int K = 10;
+    private static final int EF_SEARCH = 64;
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    @Param({"256"})
+    private int dimensions;
+
+    private Path directory;
+    private HnswIndex hnswIndex;
+    private Connection connection;
+    private PreparedStatement similarityStatement;
+    private final Random random = new Random(42);
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("vector-search-benchmark");
+        hnswIndex = new HnswIndex(directory.resolve("benchmark.vectors"), dimensions, 16, 64);
+        connection = DriverManager.getConnection(
+            System.getProperty("benchmark.url", "jdbc:postgresql://localhost:5432/recommendation"),
+            System.getProperty("benchmark.username", "admin"),
+            System.getProperty("benchmark.password", "admin"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE %s (id bigint PRIMARY KEY, embedding vector(%d) NOT NULL)"
+                .formatted(TABLE, dimensions));
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement(
+            "INSERT INTO %s (id, embedding) VALUES (?, ?::vector)".formatted(TABLE))) {
+            for (int id = 0; id < size; id++) {
+                float[] vector = randomVector();
+                hnswIndex.add(String.valueOf(id), vector);
+                insert.setLong(1, id);
+                insert.setString(2, Arrays.toString(vector));
+                insert.addBatch();
+                if (id % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX ON %s USING hnsw (embedding vector_cosine_ops) "
+                .formatted(TABLE) + "WITH (m = 16, ef_construction = 64)");
+            statement.execute("ANALYZE " + TABLE);
+            statement.execute("SET hnsw.ef_search = " + EF_SEARCH);
+        }
+        // Same query shape as JdbcVectorService
+        similarityStatement = connection.prepareStatement("""
+            SELECT id FROM %1$s
+            ORDER BY embedding <=> (SELECT embedding FROM %1$s WHERE id = ?)
+            LIMIT ?
+            """.formatted(TABLE));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, SQLException {
+        similarityStatement.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+        connection.close();
+        hnswIndex.close();
+        Files.deleteIfExists(directory.resolve("benchmark.vectors"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<HnswIndex.Neighbour> inProcess() {
+        return hnswIndex.searchByKey(String.valueOf(random.nextInt(size)), K, EF_SEARCH);
+    }
+
+    @Benchmark
+    public List<Long> jdbc() throws SQLException {
+        similarityStatement.setLong(1, random.nextInt(size));
+        similarityStatement.setInt(2, K + 1);
+        List<Long> ids = new ArrayList<>(K + 1);
+        try (ResultSet resultSet = similarityStatement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = random.nextFloat() - 0.5f;
+        }
+        return vector;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(VectorSearchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.yas.recommendation.consumer;
+
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.CREATE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.UPDATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.recommendation.kafka.consumer.ProductBatchSyncDataConsumer;
+import com.yas.recommendation.vector.product.service.ProductVectorSyncService;
+import java.util.List;
+import java.util.Set;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+class ProductBatchSyncDataConsumerTest {
+
+    private static final String TOPIC = "dbproduct.public.product";
+
+    @InjectMocks
+    private ProductBatchSyncDataConsumer productBatchSyncDataConsumer;
+
+    @Mock
+    private ProductVectorSyncService productVectorSyncService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testSync_whenProductChangedSeveralTimes_keepLastEvent() {
+        productBatchSyncDataConsumer.sync(List.of(
+            record(0, 1L, CREATE),
+            record(1, 2L, UPDATE),
+            record(2, 1L, DELETE),
+            record(3, 3L, null)
+        ));
+
+        verify(productVectorSyncService).syncProductVectors(Set.of(2L), Set.of(1L, 3L));
+    }
+
+    @Test
+    void testProcessMessages_whenPoisonRecordInTheMiddle_reportOnlyThisRecord() {
+        doThrow(new IllegalStateException("Embedding of product 2 failed")).when(productVectorSyncService)
+            .syncProductVectors(argThat(ids -> ids.contains(2L)), any());
+
+        assertThatThrownBy(() -> productBatchSyncDataConsumer.processMessages(List.of(
+            record(0, 1L, CREATE),
+            record(1, 2L, CREATE),
+            record(2, 3L, CREATE)
+        )))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                exception -> assertThat(exception.getIndex()).isEqualTo(1));
+
+        // The records before the poison record are synced, those after it are left to the redelivery
+        verify(productVectorSyncService).syncProductVectors(Set.of(1L), Set.of());
+        verify(productVectorSyncService, never()).syncProductVectors(Set.of(3L), Set.of());
+    }
+
+    private static ConsumerRecord<ProductMsgKey, ProductCdcMessage> record(long offset, long productId,
+                                                                            Operation operation) {
+        ProductCdcMessage message = operation == null ? null : ProductCdcMessage.builder()
+            .after(Product.builder().id(productId).isPublished(true).build())
+            .op(operation)
+            .build();
+        return new ConsumerRecord<>(TOPIC, 0, offset, ProductMsgKey.builder().id(productId).build(), message);
+    }
+}
@@ -0,0 +1,112 @@
+package com.yas.recommendation.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yas.recommendation.vector.common.index.HnswIndex;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @TempDir
+    private Path directory;
+
+    private HnswIndex hnswIndex;
+
+    private final Map<String, float[]> vectors = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        hnswIndex = new HnswIndex(directory.resolve("test.vectors"), DIMENSIONS, 16, 100);
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            float[] vector = randomVector(random);
+            vectors.put("doc-" + i, vector);
+            hnswIndex.add("doc-" + i, vector);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        hnswIndex.close();
+    }
+
+    @Test
+    void testSearchByKey_whenIndexBuilt_returnMostExactNeighbours() {
+        int found = 0;
+        for (int i = 0; i < 50; i++) {
+            String key = "doc-" + i;
+            Set<String> approximate = hnswIndex.searchByKey(key, 10, 64).stream()
+                .map(HnswIndex.Neighbour::key)
+                .collect(Collectors.toSet());
+            found += (int) exactNeighbours(key, 10).stream().filter(approximate::contains).count();
+        }
+
+        assertThat(found / 500.0).isGreaterThan(0.9);
+    }
+
+    @Test
+    void testSearchByKey_whenKeyRemoved_doNotReturnIt() {
+        String nearest = hnswIndex.searchByKey("doc-0", 1, 64).getFirst().key();
+
+        hnswIndex.remove(nearest);
+
+        assertThat(hnswIndex.searchByKey("doc-0", 10, 64)).extracting(HnswIndex.Neighbour::key)
+            .doesNotContain(nearest, "doc-0");
+        assertThat(hnswIndex.searchByKey(nearest, 10, 64)).isEmpty();
+    }
+
+    @Test
+    void testAdd_whenKeyExists_replaceVector() throws IOException {
+        hnswIndex.add("doc-1", vectors.get("doc-0"));
+
+        List<HnswIndex.Neighbour> neighbours = hnswIndex.searchByKey("doc-0", 1, 64);
+
+        assertThat(neighbours.getFirst().key()).isEqualTo("doc-1");
+        assertThat(neighbours.getFirst().distance()).isLessThan(1e-5f);
+        assertThat(hnswIndex.size()).isEqualTo(2000);
+    }
+
+    private List<String> exactNeighbours(String key, int k) {
+        float[] vector = vectors.get(key);
+        return vectors.entrySet().stream()
+            .filter(entry -> !entry.getKey().equals(key))
+            .sorted(Comparator.comparingDouble(entry -> -cosine(vector, entry.getValue())))
+            .limit(k)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = random.nextFloat() - 0.5f;
+        }
+        return vector;
+    }
+}
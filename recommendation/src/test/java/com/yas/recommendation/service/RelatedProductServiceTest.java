@@ -0,0 +1,125 @@
+package com.yas.recommendation.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.recommendation.configuration.RelatedProductConfig;
+import com.yas.recommendation.vector.product.query.RelatedProductQuery;
+import com.yas.recommendation.vector.product.service.RelatedProductService;
+import com.yas.recommendation.vector.product.store.RelatedProductStore;
+import com.yas.recommendation.viewmodel.RelatedProductVm;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class RelatedProductServiceTest {
+
+    private RelatedProductQuery relatedProductQuery;
+
+    private RelatedProductStore relatedProductStore;
+
+    private RelatedProductService relatedProductService;
+
+    @BeforeEach
+    void setUp() {
+        relatedProductQuery = mock(RelatedProductQuery.class);
+        relatedProductStore = mock(RelatedProductStore.class);
+        relatedProductService = new RelatedProductService(relatedProductQuery, relatedProductStore,
+            new RelatedProductConfig(true, 1000, 100, "-"));
+    }
+
+    @Test
+    void testGetRelatedProducts_whenPrecomputed_returnStoredWithoutQuery() {
+        List<RelatedProductVm> stored = List.of(relatedProduct(2L));
+        when(relatedProductStore.find(1L)).thenReturn(Optional.of(stored));
+
+        assertThat(relatedProductService.getRelatedProducts(1L)).isSameAs(stored);
+        verify(relatedProductQuery, never()).similaritySearch(anyLong());
+    }
+
+    @Test
+    void testGetRelatedProducts_whenMissing_computeAndStore() {
+        List<RelatedProductVm> computed = List.of(relatedProduct(2L));
+        when(relatedProductStore.find(1L)).thenReturn(Optional.empty());
+        when(relatedProductQuery.similaritySearch(1L)).thenReturn(computed);
+
+        assertThat(relatedProductService.getRelatedProducts(1L)).isSameAs(computed);
+        verify(relatedProductStore).saveAll(Map.of(1L, computed));
+    }
+
+    @Test
+    void testGetRelatedProducts_whenDisabled_queryEachTime() {
+        relatedProductService = new RelatedProductService(relatedProductQuery, relatedProductStore,
+            new RelatedProductConfig(false, 1000, 100, "-"));
+        List<RelatedProductVm> computed = List.of(relatedProduct(2L));
+        when(relatedProductQuery.similaritySearch(1L)).thenReturn(computed);
+
+        assertThat(relatedProductService.getRelatedProducts(1L)).isSameAs(computed);
+        verify(relatedProductStore, never()).find(anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRefreshChanged_whenProductChanged_refreshReferencingAndNeighbourProducts() {
+        when(relatedProductStore.findReferencing(Set.of(1L))).thenReturn(List.of(3L));
+        when(relatedProductQuery.similaritySearch(1L)).thenReturn(List.of(relatedProduct(2L)));
+        when(relatedProductQuery.similaritySearch(2L)).thenReturn(List.of(relatedProduct(1L)));
+        when(relatedProductQuery.similaritySearch(3L)).thenReturn(List.of(relatedProduct(2L)));
+
+        relatedProductService.markChanged(List.of(1L));
+        relatedProductService.refreshChanged();
+
+        ArgumentCaptor<Map<Long, List<RelatedProductVm>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(relatedProductStore).saveAll(captor.capture());
+        assertThat(captor.getValue()).containsOnlyKeys(1L, 2L, 3L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMarkDeleted_whenProductChangedThenDeleted_deleteEntryAndRefreshOnlyReferencingProducts() {
+        when(relatedProductStore.findReferencing(List.of(1L))).thenReturn(List.of(1L, 3L));
+        when(relatedProductStore.findReferencing(Set.of(3L))).thenReturn(List.of());
+        when(relatedProductQuery.similaritySearch(3L)).thenReturn(List.of(relatedProduct(2L)));
+        when(relatedProductQuery.similaritySearch(2L)).thenReturn(List.of(relatedProduct(3L)));
+
+        relatedProductService.markChanged(List.of(1L));
+        relatedProductService.markDeleted(List.of(1L));
+        relatedProductService.refreshChanged();
+
+        verify(relatedProductStore).deleteAll(List.of(1L));
+        verify(relatedProductQuery, never()).similaritySearch(1L);
+        ArgumentCaptor<Map<Long, List<RelatedProductVm>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(relatedProductStore).saveAll(captor.capture());
+        assertThat(captor.getValue()).containsOnlyKeys(2L, 3L);
+    }
+
+    @Test
+    void testMarkDeleted_whenNoProduct_doNothing() {
+        relatedProductService.markDeleted(List.of());
+
+        verify(relatedProductStore, never()).deleteAll(anyCollection());
+    }
+
+    @Test
+    void testRefreshChanged_whenNothingChanged_doNothing() {
+        relatedProductService.refreshChanged();
+
+        verify(relatedProductStore, never()).saveAll(anyMap());
+    }
+
+    private static RelatedProductVm relatedProduct(Long productId) {
+        RelatedProductVm relatedProductVm = new RelatedProductVm();
+        relatedProductVm.setProductId(productId);
+        return relatedProductVm;
+    }
+}
@@ -0,0 +1,64 @@
+package com.yas.recommendation.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yas.recommendation.config.KafkaIntegrationTestConfiguration;
+import com.yas.recommendation.service.ProductService;
+import com.yas.recommendation.vector.common.store.VectorIndexManager;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers
+@SpringBootTest
+@Import(KafkaIntegrationTestConfiguration.class)
+@TestPropertySource("classpath:application-test.properties")
+class VectorIndexManagerTest {
+
+    private static final String HNSW_INDEX_NAME = "vector_store_embedding_hnsw_m16_ef64";
+
+    @Autowired
+    private JdbcTemplate jdbcClient;
+
+    @Autowired
+    private VectorIndexManager vectorIndexManager;
+
+    @MockBean
+    private EmbeddingModel embeddingModel;
+
+    @MockBean
+    private ProductService productService;
+
+    @Test
+    void testAfterPropertiesSet_whenHnswConfigured_createIndexWithConfiguredParameters() {
+        assertThat(getIndexDefinitions())
+            .anySatisfy(definition -> assertThat(definition)
+                .contains(HNSW_INDEX_NAME)
+                .contains("USING hnsw (embedding vector_cosine_ops) WITH (m='16', ef_construction='64')"))
+            .noneSatisfy(definition -> assertThat(definition).contains("spring_ai_vector_index"));
+    }
+
+    @Test
+    void testAfterPropertiesSet_whenOutdatedIndexExists_dropOutdatedIndex() {
+        jdbcClient.execute("CREATE INDEX vector_store_embedding_ivfflat_l10 ON vector_store "
+            + "USING ivfflat (embedding vector_cosine_ops) WITH (lists = 10)");
+
+        vectorIndexManager.afterPropertiesSet();
+
+        assertThat(getIndexDefinitions())
+            .anySatisfy(definition -> assertThat(definition).contains(HNSW_INDEX_NAME))
+            .noneSatisfy(definition -> assertThat(definition).contains("vector_store_embedding_ivfflat_l10"));
+    }
+
+    private List<String> getIndexDefinitions() {
+        return jdbcClient.queryForList(
+            "SELECT indexdef FROM pg_indexes WHERE tablename = 'vector_store'", String.class);
+    }
+}
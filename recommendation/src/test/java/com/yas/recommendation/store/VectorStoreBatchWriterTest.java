@@ -0,0 +1,205 @@
+package com.yas.recommendation.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.recommendation.config.KafkaIntegrationTestConfiguration;
+import com.yas.recommendation.service.ProductService;
+import com.yas.recommendation.vector.product.store.ProductVectorRepository;
+import com.yas.recommendation.viewmodel.ProductDetailVm;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers
+@SpringBootTest
+@Import(KafkaIntegrationTestConfiguration.class)
+@TestPropertySource("classpath:application-test.properties")
+class VectorStoreBatchWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcClient;
+
+    @Autowired
+    private ProductVectorRepository productVectorRepository;
+
+    @MockBean
+    private EmbeddingModel embeddingModel;
+
+    @MockBean
+    private ProductService productService;
+
+    @AfterEach
+    void tearDown() {
+        jdbcClient.execute("DELETE FROM vector_store;");
+        jdbcClient.execute("DELETE FROM embedding_cache;");
+        jdbcClient.execute("DROP TRIGGER IF EXISTS skip_embedding_cache_insert ON embedding_cache;");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSaveAll_whenNewProducts_embedWithOneRequestAndInsertAll() {
+        mockProduct(1L, "IPhone 14 Pro", "iphone-14-pro");
+        mockProduct(2L, "IPhone 15 Pro", "iphone-15-pro");
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(randomEmbed(), randomEmbed()));
+
+        productVectorRepository.saveAll(List.of(1L, 2L));
+
+        ArgumentCaptor<List<String>> textsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(embeddingModel, times(1)).embed(textsCaptor.capture());
+        assertThat(textsCaptor.getValue()).hasSize(2);
+        assertThat(findAll()).hasSize(2);
+    }
+
+    @Test
+    void testSaveAll_whenContentUnchanged_updateMetadataWithoutEmbedding() {
+        mockProduct(1L, "IPhone 14 Pro", "iphone-14-pro");
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(randomEmbed()));
+        productVectorRepository.saveAll(List.of(1L));
+        String embedding = jdbcClient.queryForObject("SELECT embedding::text FROM vector_store", String.class);
+
+        // The slug is kept in metadata but is not part of the embedded content
+        mockProduct(1L, "IPhone 14 Pro", "iphone-14");
+        productVectorRepository.saveAll(List.of(1L));
+
+        verify(embeddingModel, times(1)).embed(anyList());
+        assertThat(jdbcClient.queryForObject("SELECT embedding::text FROM vector_store", String.class))
+            .isEqualTo(embedding);
+        assertThat(jdbcClient.queryForObject("SELECT metadata->>'slug' FROM vector_store", String.class))
+            .isEqualTo("iphone-14");
+    }
+
+    @Test
+    void testSaveAll_whenContentChanged_embedAgain() {
+        mockProduct(1L, "IPhone 14 Pro", "iphone-14-pro");
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(randomEmbed()));
+        productVectorRepository.saveAll(List.of(1L));
+
+        mockProduct(1L, "IPhone 14 Pro Max", "iphone-14-pro");
+        productVectorRepository.saveAll(List.of(1L));
+
+        verify(embeddingModel, times(2)).embed(anyList());
+        assertThat(findAll().getFirst().get("content").toString()).contains("IPhone 14 Pro Max");
+    }
+
+    @Test
+    void testSaveAll_whenEmbeddedTextCached_reuseCachedEmbedding() {
+        mockProduct(1L, "IPhone 14 Pro", "iphone-14-pro");
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(randomEmbed()));
+        productVectorRepository.saveAll(List.of(1L));
+        String embedding = jdbcClient.queryForObject("SELECT embedding::text FROM vector_store", String.class);
+        productVectorRepository.deleteAll(List.of(1L));
+
+        productVectorRepository.saveAll(List.of(1L));
+
+        verify(embeddingModel, times(1)).embed(anyList());
+        assertThat(jdbcClient.queryForObject("SELECT embedding::text FROM vector_store", String.class))
+            .isEqualTo(embedding);
+    }
+
+    @Test
+    void testSaveAll_whenEmbeddingMissingFromCache_writeDocumentWithItsEmbedding() {
+        // Cache rows are lost between the embedding and the upsert joining the cache
+        jdbcClient.execute("""
+            CREATE OR REPLACE FUNCTION skip_insert() RETURNS trigger AS $$ BEGIN RETURN NULL; END $$ LANGUAGE plpgsql;
+            CREATE TRIGGER skip_embedding_cache_insert BEFORE INSERT ON embedding_cache
+            FOR EACH ROW EXECUTE FUNCTION skip_insert();
+            """);
+        mockProduct(1L, "IPhone 14 Pro", "iphone-14-pro");
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(randomEmbed()));
+
+        productVectorRepository.saveAll(List.of(1L));
+
+        verify(embeddingModel, times(1)).embed(anyList());
+        assertThat(findAll()).hasSize(1);
+    }
+
+    @Test
+    void testUpdate_whenContentUnchanged_updateMetadataWithoutEmbedding() {
+        mockProduct(1L, "IPhone 14 Pro", "iphone-14-pro");
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(randomEmbed()));
+        productVectorRepository.update(1L);
+
+        mockProduct(1L, "IPhone 14 Pro", "iphone-14");
+        productVectorRepository.update(1L);
+
+        verify(embeddingModel, times(1)).embed(anyList());
+        assertThat(jdbcClient.queryForObject("SELECT metadata->>'slug' FROM vector_store", String.class))
+            .isEqualTo("iphone-14");
+    }
+
+    @Test
+    void testDeleteAll_whenProductsExist_removeAll() {
+        mockProduct(1L, "IPhone 14 Pro", "iphone-14-pro");
+        mockProduct(2L, "IPhone 15 Pro", "iphone-15-pro");
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(randomEmbed(), randomEmbed()));
+        productVectorRepository.saveAll(List.of(1L, 2L));
+
+        productVectorRepository.deleteAll(List.of(1L, 2L));
+
+        assertThat(findAll()).isEmpty();
+    }
+
+    private void mockProduct(long productId, String name, String slug) {
+        when(productService.getProductDetail(productId)).thenReturn(getProductDetailVm(productId, name, slug));
+    }
+
+    private List<Map<String, Object>> findAll() {
+        return jdbcClient.queryForList("SELECT * FROM vector_store;");
+    }
+
+    private static float[] randomEmbed() {
+        int size = 1536;
+        float[] floatArray = new float[size];
+        Random random = new Random();
+        for (int i = 0; i < size; i++) {
+            floatArray[i] = random.nextFloat();
+        }
+        return floatArray;
+    }
+
+    private static ProductDetailVm getProductDetailVm(long productId, String name, String slug) {
+        return new ProductDetailVm(
+            productId,
+            name,
+            "Latest iPhone model",
+            "The iPhone 14 Pro comes with the latest technology...",
+            "6.1-inch display, A16 Bionic chip, 128GB Storage",
+            "IPH14PRO",
+            "0123456789012",
+            slug,
+            true,
+            true,
+            true,
+            true,
+            true,
+            999.99,
+            101L,
+            Collections.emptyList(),
+            "iPhone 14 Pro",
+            "iPhone, Apple, Smartphone",
+            "Buy the latest iPhone 14 Pro...",
+            1L,
+            "Apple",
+            Collections.emptyList(),
+            null,
+            null,
+            null
+        );
+    }
+}
@@ -0,0 +1,148 @@
+package com.yas.recommendation.vector.common.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.recommendation.config.KafkaIntegrationTestConfiguration;
+import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import com.yas.recommendation.configuration.InProcessVectorIndexConfig;
+import com.yas.recommendation.service.ProductService;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers
+@SpringBootTest
+@Import(KafkaIntegrationTestConfiguration.class)
+@TestPropertySource("classpath:application-test.properties")
+class InProcessVectorIndexTest {
+
+    private static final int DIMENSIONS = 1536;
+
+    @TempDir
+    private Path directory;
+
+    @Autowired
+    private JdbcTemplate jdbcClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private EmbeddingModel embeddingModel;
+
+    @MockBean
+    private ProductService productService;
+
+    private final Random random = new Random(7);
+
+    private JdbcTemplate jdbcClientSpy;
+
+    private InProcessVectorIndex inProcessVectorIndex;
+
+    @BeforeEach
+    void setUp() {
+        jdbcClientSpy = spy(jdbcClient);
+        InProcessVectorIndexConfig indexConfig = new InProcessVectorIndexConfig(true, directory.toString(),
+            DIMENSIONS, 16, 100, 64, "-");
+        inProcessVectorIndex = new InProcessVectorIndex(jdbcClientSpy, objectMapper, indexConfig,
+            new EmbeddingSearchConfiguration(0.0, 10), "vector_store");
+    }
+
+    @AfterEach
+    void tearDown() {
+        inProcessVectorIndex.destroy();
+        jdbcClient.execute("DELETE FROM vector_store;");
+    }
+
+    @Test
+    void testSimilaritySearch_whenIndexNotBuilt_fallBackToDatabase() {
+        String documentId = insertDocument();
+
+        assertThat(inProcessVectorIndex.similaritySearch(documentId)).isEmpty();
+    }
+
+    @Test
+    void testSimilaritySearch_whenDocumentNotInIndex_fallBackToDatabase() {
+        String documentId = insertDocument();
+        String otherDocumentId = insertDocument();
+        inProcessVectorIndex.rebuild();
+
+        // Written by another instance after the rebuild
+        String missingDocumentId = insertDocument();
+
+        assertThat(inProcessVectorIndex.similaritySearch(documentId)).hasValueSatisfying(
+            documents -> assertThat(documents).extracting("id").contains(otherDocumentId));
+        assertThat(inProcessVectorIndex.similaritySearch(missingDocumentId)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRebuild_whenDocumentsWrittenDuringRebuild_catchUpBeforeSwap() {
+        String keptDocumentId = insertDocument();
+        String deletedDocumentId = insertDocument();
+        AtomicBoolean isFullLoad = new AtomicBoolean(true);
+        String[] addedDocumentId = new String[1];
+        doAnswer(invocation -> {
+            Object result = invocation.callRealMethod();
+            if (isFullLoad.getAndSet(false)) {
+                // Written by this instance once the full load has read the table
+                addedDocumentId[0] = insertDocument();
+                inProcessVectorIndex.reload(List.of(addedDocumentId[0]));
+                jdbcClient.update("DELETE FROM vector_store WHERE id = ?::uuid", deletedDocumentId);
+                inProcessVectorIndex.remove(List.of(deletedDocumentId));
+            }
+            return result;
+        }).when(jdbcClientSpy).execute(any(ConnectionCallback.class));
+
+        inProcessVectorIndex.rebuild();
+
+        assertThat(inProcessVectorIndex.similaritySearch(keptDocumentId)).hasValueSatisfying(
+            documents -> assertThat(documents).extracting("id")
+                .contains(addedDocumentId[0])
+                .doesNotContain(deletedDocumentId));
+        assertThat(inProcessVectorIndex.similaritySearch(addedDocumentId[0])).isPresent();
+        assertThat(inProcessVectorIndex.similaritySearch(deletedDocumentId)).isEmpty();
+    }
+
+    @Test
+    void testParseEmbedding_whenPgvectorText_parseValues() {
+        assertThat(InProcessVectorIndex.parseEmbedding("[1,2.5,-3]")).containsExactly(1f, 2.5f, -3f);
+    }
+
+    private String insertDocument() {
+        String documentId = UUID.randomUUID().toString();
+        jdbcClient.update("INSERT INTO vector_store (id, content, metadata, embedding) "
+                + "VALUES (?::uuid, ?, ?::json, ?::vector)",
+            documentId, "content " + documentId, "{}", Arrays.toString(randomEmbedding()));
+        return documentId;
+    }
+
+    // Positive components keep every pair of documents above the similarity threshold
+    private float[] randomEmbedding() {
+        float[] embedding = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            embedding[i] = random.nextFloat() + 0.01f;
+        }
+        return embedding;
+    }
+}
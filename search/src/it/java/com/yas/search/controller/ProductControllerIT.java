@@ -34,6 +34,7 @@ public class ProductControllerIT extends AbstractControllerIT {
         Product product = new Product();
         product.setId(1L);
         product.setName("Macbook M1");
+        product.setNameSuggest(Product.toNameSuggest(product.getName()));
         product.setBrand("Apple");
         product.setCategories(List.of("Laptop", "Macbook"));
         product.setAttributes(List.of("CPU", "RAM", "SSD"));
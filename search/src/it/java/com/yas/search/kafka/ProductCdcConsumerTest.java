@@ -15,6 +15,7 @@ import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
 import com.yas.search.config.KafkaIntegrationTestConfiguration;
 import com.yas.search.config.ServiceUrlConfig;
 import com.yas.search.repository.ProductRepository;
+import com.yas.search.service.ProductEnrichmentService;
 import com.yas.search.service.ProductSyncDataService;
 import com.yas.search.viewmodel.ProductEsDetailVm;
 import common.kafka.CdcConsumerTest;
@@ -30,6 +31,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.PropertySource;
@@ -54,6 +56,10 @@ public class ProductCdcConsumerTest extends CdcConsumerTest<ProductMsgKey, Produ
     @SpyBean
     private ProductSyncDataService productSyncDataService;
 
+    // Media and rating calls are not simulated, the denormalized fields are covered by unit tests
+    @MockBean
+    private ProductEnrichmentService productEnrichmentService;
+
     public ProductCdcConsumerTest() {
         super(ProductMsgKey.class, ProductCdcMessage.class, "dbproduct.public.product");
     }
@@ -1,12 +1,26 @@
 package com.yas.search;
 
+import com.yas.search.config.ProductReindexConfig;
+import com.yas.search.config.ProductSearchCacheConfig;
+import com.yas.search.config.ProductSearchFacetConfig;
+import com.yas.search.config.ProductSuggestConfig;
+import com.yas.search.config.ProductSyncBatchConfig;
+import com.yas.search.config.ProductSyncConfig;
 import com.yas.search.config.ServiceUrlConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
-@EnableConfigurationProperties(ServiceUrlConfig.class)
+@EnableConfigurationProperties({
+    ServiceUrlConfig.class,
+    ProductSyncConfig.class,
+    ProductSyncBatchConfig.class,
+    ProductReindexConfig.class,
+    ProductSearchCacheConfig.class,
+    ProductSearchFacetConfig.class,
+    ProductSuggestConfig.class
+})
 @SpringBootApplication(scanBasePackages = {"com.yas.search", "com.yas.commonlibrary"})
 @Configuration
 public class ElasticsearchApplication {
@@ -0,0 +1,16 @@
+package com.yas.search.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Full rebuild of the product index.
+ *
+ * @param pageSize number of products fetched from the product service and bulk indexed at once
+ * @param keepPreviousIndices number of previous versioned indices kept after an alias swap, for rollback
+ */
+@ConfigurationProperties(prefix = "product.reindex")
+public record ProductReindexConfig(
+    @DefaultValue("500") int pageSize,
+    @DefaultValue("1") int keepPreviousIndices) {
+}
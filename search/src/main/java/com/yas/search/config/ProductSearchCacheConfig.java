@@ -0,0 +1,23 @@
+package com.yas.search.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Cache of storefront catalog search responses.
+ *
+ * @param enabled cache search results and facets
+ * @param resultMaxSize maximum number of cached search results
+ * @param resultTtl lifetime of a search result, bounds staleness when a change is not yet visible in the index
+ * @param facetMaxSize maximum number of cached facets, one per keyword and facet
+ * @param facetTtl lifetime of a facet, facet counts are not invalidated by product changes
+ */
+@ConfigurationProperties(prefix = "product.search.cache")
+public record ProductSearchCacheConfig(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("1000") long resultMaxSize,
+    @DefaultValue("30s") Duration resultTtl,
+    @DefaultValue("600") long facetMaxSize,
+    @DefaultValue("10m") Duration facetTtl) {
+}
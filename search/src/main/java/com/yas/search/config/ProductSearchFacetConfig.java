@@ -0,0 +1,22 @@
+package com.yas.search.config;
+
+import com.yas.search.constant.enums.ProductFacet;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Catalog search facets.
+ *
+ * @param defaultBucketSize number of buckets returned for a facet without its own size
+ * @param bucketSizes number of buckets returned per facet
+ */
+@ConfigurationProperties(prefix = "product.search.facet")
+public record ProductSearchFacetConfig(
+    @DefaultValue("10") int defaultBucketSize,
+    Map<ProductFacet, Integer> bucketSizes) {
+
+    public int getBucketSize(ProductFacet facet) {
+        return bucketSizes == null ? defaultBucketSize : bucketSizes.getOrDefault(facet, defaultBucketSize);
+    }
+}
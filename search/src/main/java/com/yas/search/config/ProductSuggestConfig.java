@@ -0,0 +1,19 @@
+package com.yas.search.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Product name typeahead.
+ *
+ * @param size maximum number of suggested names
+ * @param cacheMaxSize maximum number of cached prefixes
+ * @param cacheTtl lifetime of the suggestions of a prefix
+ */
+@ConfigurationProperties(prefix = "product.suggest")
+public record ProductSuggestConfig(
+    @DefaultValue("10") int size,
+    @DefaultValue("10000") long cacheMaxSize,
+    @DefaultValue("5m") Duration cacheTtl) {
+}
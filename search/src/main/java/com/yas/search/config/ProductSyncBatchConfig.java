@@ -0,0 +1,20 @@
+package com.yas.search.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Batch mode of the product CDC consumer.
+ *
+ * @param enabled   consume product CDC events in batches instead of one record at a time
+ * @param size      maximum number of records handled by one batch
+ * @param maxWaitMs maximum time the broker waits to fill a batch before returning what it has
+ */
+@ConfigurationProperties(prefix = "product.sync.batch")
+public record ProductSyncBatchConfig(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("500") int size,
+    @DefaultValue("1000") int maxWaitMs) {
+
+    public static final String ENABLED_PROPERTY = "product.sync.batch.enabled";
+}
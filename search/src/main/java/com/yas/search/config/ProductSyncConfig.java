@@ -0,0 +1,16 @@
+package com.yas.search.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Product CDC synchronization.
+ *
+ * @param applyCdcPayload apply scalar fields of product UPDATE events from the CDC row images with a partial
+ *                        update, the product service is only called when denormalized fields may have changed
+ */
+@ConfigurationProperties(prefix = "product.sync")
+public record ProductSyncConfig(@DefaultValue("false") boolean applyCdcPayload) {
+
+    public static final String APPLY_CDC_PAYLOAD_PROPERTY = "product.sync.apply-cdc-payload";
+}
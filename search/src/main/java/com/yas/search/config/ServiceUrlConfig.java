@@ -3,5 +3,5 @@ package com.yas.search.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "yas.services")
-public record ServiceUrlConfig(String product) {
+public record ServiceUrlConfig(String product, String media, String rating) {
 }
@@ -5,4 +5,7 @@ public final class MessageCode {
     private MessageCode() {}
 
     public static final String PRODUCT_NOT_FOUND = "PRODUCT_NOT_FOUND";
+    public static final String PRODUCT_REINDEX_IN_PROGRESS = "PRODUCT_REINDEX_IN_PROGRESS";
+    public static final String INVALID_SEARCH_CURSOR = "INVALID_SEARCH_CURSOR";
+    public static final String PRODUCT_SUGGESTION_FAILED = "PRODUCT_SUGGESTION_FAILED";
 }
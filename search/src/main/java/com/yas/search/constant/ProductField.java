@@ -1,10 +1,20 @@
 package com.yas.search.constant;
 
 public class ProductField {
+    public static final String ID = "id";
     public static final String NAME = "name";
+    public static final String NAME_SUGGEST = "nameSuggest";
+    public static final String SLUG = "slug";
     public static final String BRAND = "brand";
     public static final String PRICE = "price";
     public static final String IS_PUBLISHED = "isPublished";
+    public static final String IS_VISIBLE_INDIVIDUALLY = "isVisibleIndividually";
+    public static final String IS_ALLOWED_TO_ORDER = "isAllowedToOrder";
+    public static final String IS_FEATURED = "isFeatured";
+    public static final String THUMBNAIL_MEDIA_ID = "thumbnailMediaId";
+    public static final String THUMBNAIL_URL = "thumbnailUrl";
+    public static final String AVERAGE_RATING = "averageRating";
+    public static final String RATING_COUNT = "ratingCount";
     public static final String CATEGORIES = "categories";
     public static final String ATTRIBUTES = "attributes";
     public static final String CREATE_ON = "createdOn";
@@ -0,0 +1,22 @@
+package com.yas.search.constant.enums;
+
+import com.yas.search.constant.ProductField;
+import lombok.Getter;
+
+/**
+ * Facets a catalog search can request, each one is a terms aggregation on a product field.
+ */
+@Getter
+public enum ProductFacet {
+    CATEGORIES("categories", ProductField.CATEGORIES),
+    ATTRIBUTES("attributes", ProductField.ATTRIBUTES),
+    BRANDS("brands", ProductField.BRAND);
+
+    private final String aggregationName;
+    private final String field;
+
+    ProductFacet(String aggregationName, String field) {
+        this.aggregationName = aggregationName;
+        this.field = field;
+    }
+}
@@ -1,10 +1,13 @@
 package com.yas.search.controller;
 
+import com.yas.search.constant.enums.ProductFacet;
 import com.yas.search.constant.enums.SortType;
 import com.yas.search.model.ProductCriteriaDto;
 import com.yas.search.service.ProductService;
+import com.yas.search.service.ProductSuggestionService;
 import com.yas.search.viewmodel.ProductListGetVm;
 import com.yas.search.viewmodel.ProductNameListVm;
+import java.util.Set;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -13,9 +16,11 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class ProductController {
     private final ProductService productService;
+    private final ProductSuggestionService productSuggestionService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductSuggestionService productSuggestionService) {
         this.productService = productService;
+        this.productSuggestionService = productSuggestionService;
     }
 
     @GetMapping("/storefront/catalog-search")
@@ -28,14 +33,17 @@ public class ProductController {
                                                                @RequestParam(required = false) Double minPrice,
                                                                @RequestParam(required = false) Double maxPrice,
                                                                @RequestParam(defaultValue = "DEFAULT")
-                                                               SortType sortType) {
-        return ResponseEntity.ok(productService.findProductAdvance(
-            new ProductCriteriaDto(keyword, page, size, brand, category, attribute, minPrice, maxPrice, sortType)
+                                                               SortType sortType,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false)
+                                                               Set<ProductFacet> facets) {
+        return ResponseEntity.ok(productService.findProductAdvance(new ProductCriteriaDto(
+            keyword, page, size, brand, category, attribute, minPrice, maxPrice, sortType, cursor, facets)
         ));
     }
 
     @GetMapping("/storefront/search_suggest")
     public ResponseEntity<ProductNameListVm> productSearchAutoComplete(@RequestParam String keyword) {
-        return ResponseEntity.ok(productService.autoCompleteProductName(keyword));
+        return ResponseEntity.ok(productSuggestionService.autoCompleteProductName(keyword));
     }
 }
@@ -0,0 +1,27 @@
+package com.yas.search.controller;
+
+import com.yas.search.service.ProductReindexService;
+import com.yas.search.viewmodel.ProductReindexStatusVm;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ProductReindexController {
+    private final ProductReindexService productReindexService;
+
+    public ProductReindexController(ProductReindexService productReindexService) {
+        this.productReindexService = productReindexService;
+    }
+
+    @PostMapping("/backoffice/products/reindex")
+    public ResponseEntity<ProductReindexStatusVm> startReindex() {
+        return ResponseEntity.accepted().body(productReindexService.startReindex());
+    }
+
+    @GetMapping("/backoffice/products/reindex")
+    public ResponseEntity<ProductReindexStatusVm> getReindexStatus() {
+        return ResponseEntity.ok(productReindexService.getStatus());
+    }
+}
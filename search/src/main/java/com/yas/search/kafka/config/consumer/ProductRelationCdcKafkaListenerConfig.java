@@ -0,0 +1,49 @@
+package com.yas.search.kafka.config.consumer;
+
+import com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig;
+import com.yas.commonlibrary.kafka.cdc.message.ProductRelationCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductRelationMsgKey;
+import com.yas.search.config.ProductSyncBatchConfig;
+import com.yas.search.config.ProductSyncConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * Product category and attribute value CDC kafka listener, support convert their cdc message to java object.
+ * Only needed when product updates are applied from the CDC payload, otherwise every product event is synced in full.
+ */
+@EnableKafka
+@Configuration
+@ConditionalOnProperty(name = ProductSyncConfig.APPLY_CDC_PAYLOAD_PROPERTY, havingValue = "true")
+public class ProductRelationCdcKafkaListenerConfig
+    extends BaseKafkaListenerConfig<ProductRelationMsgKey, ProductRelationCdcMessage> {
+
+    public static final String PRODUCT_RELATION_CDC_LISTENER_CONTAINER_FACTORY =
+        "productRelationCdcListenerContainerFactory";
+
+    public static final String PRODUCT_RELATION_CDC_BATCH_LISTENER_CONTAINER_FACTORY =
+        "productRelationCdcBatchListenerContainerFactory";
+
+    public ProductRelationCdcKafkaListenerConfig(KafkaProperties kafkaProperties) {
+        super(ProductRelationMsgKey.class, ProductRelationCdcMessage.class, kafkaProperties);
+    }
+
+    @Bean(name = PRODUCT_RELATION_CDC_LISTENER_CONTAINER_FACTORY)
+    @Override
+    public ConcurrentKafkaListenerContainerFactory<ProductRelationMsgKey, ProductRelationCdcMessage>
+        listenerContainerFactory() {
+        return super.kafkaListenerContainerFactory();
+    }
+
+    @Bean(name = PRODUCT_RELATION_CDC_BATCH_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<ProductRelationMsgKey, ProductRelationCdcMessage>
+        batchListenerContainerFactory(ProductSyncBatchConfig batchConfig, KafkaTemplate<Object, Object> kafkaTemplate) {
+        return super.batchKafkaListenerContainerFactory(batchConfig.size(), batchConfig.maxWaitMs(), kafkaTemplate);
+    }
+
+}
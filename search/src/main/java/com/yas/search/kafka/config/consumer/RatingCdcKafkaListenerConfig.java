@@ -0,0 +1,31 @@
+package com.yas.search.kafka.config.consumer;
+
+import com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig;
+import com.yas.commonlibrary.kafka.cdc.message.RatingCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.RatingMsgKey;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+/**
+ * Rating CDC kafka listener, support convert rating cdc message to java object.
+ */
+@EnableKafka
+@Configuration
+public class RatingCdcKafkaListenerConfig extends BaseKafkaListenerConfig<RatingMsgKey, RatingCdcMessage> {
+
+    public static final String RATING_CDC_LISTENER_CONTAINER_FACTORY = "ratingCdcListenerContainerFactory";
+
+    public RatingCdcKafkaListenerConfig(KafkaProperties kafkaProperties) {
+        super(RatingMsgKey.class, RatingCdcMessage.class, kafkaProperties);
+    }
+
+    @Bean(name = RATING_CDC_LISTENER_CONTAINER_FACTORY)
+    @Override
+    public ConcurrentKafkaListenerContainerFactory<RatingMsgKey, RatingCdcMessage> listenerContainerFactory() {
+        return super.kafkaListenerContainerFactory();
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.yas.search.kafka.consumer;
+
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.CREATE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.UPDATE;
+import static com.yas.search.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY;
+
+import com.yas.commonlibrary.kafka.cdc.BaseCdcBatchConsumer;
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.search.config.ProductSyncBatchConfig;
+import com.yas.search.service.ProductCdcPayloadSyncService;
+import com.yas.search.service.ProductSearchCache;
+import com.yas.search.service.ProductSyncDataService;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Product synchronize data consumer for elasticsearch, batch mode.
+ * Events of one poll are coalesced per product id, so a product changed several times is synced once.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = ProductSyncBatchConfig.ENABLED_PROPERTY, havingValue = "true")
+public class ProductBatchSyncDataConsumer extends BaseCdcBatchConsumer<ProductMsgKey, ProductCdcMessage> {
+
+    private final ProductSyncDataService productSyncDataService;
+    private final ProductCdcPayloadSyncService productCdcPayloadSyncService;
+    private final ProductSearchCache productSearchCache;
+
+    public ProductBatchSyncDataConsumer(ProductSyncDataService productSyncDataService,
+                                        ProductCdcPayloadSyncService productCdcPayloadSyncService,
+                                        ProductSearchCache productSearchCache) {
+        this.productSyncDataService = productSyncDataService;
+        this.productCdcPayloadSyncService = productCdcPayloadSyncService;
+        this.productSearchCache = productSearchCache;
+    }
+
+    @KafkaListener(
+        id = "product-sync-es-batch",
+        groupId = "product-sync-search",
+        topics = "${product.topic.name}",
+        containerFactory = PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY
+    )
+    public void processMessages(List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        processBatch(records, this::sync);
+    }
+
+    public void sync(List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        Map<Long, PendingChange> pendingChanges = new LinkedHashMap<>();
+        for (ConsumerRecord<ProductMsgKey, ProductCdcMessage> consumerRecord : records) {
+            if (consumerRecord.key() == null) {
+                log.warn("Skip product record without key at offset {}", consumerRecord.offset());
+                continue;
+            }
+            var productId = consumerRecord.key().getId();
+            var productCdcMessage = consumerRecord.value();
+            boolean isHardDeleteEvent = productCdcMessage == null || DELETE.equals(productCdcMessage.getOp());
+            if (isHardDeleteEvent) {
+                pendingChanges.put(productId, new PendingChange(DELETE, null));
+                continue;
+            }
+            var operation = productCdcMessage.getOp();
+            switch (operation) {
+                case CREATE, READ -> pendingChanges.put(productId, new PendingChange(CREATE, productCdcMessage));
+                case UPDATE -> pendingChanges.merge(productId, new PendingChange(UPDATE, productCdcMessage),
+                    PendingChange::followedBy);
+                default -> log.warn("Unsupported operation '{}' for product: '{}'", operation, productId);
+            }
+        }
+
+        Set<Long> upsertIds = new LinkedHashSet<>();
+        Set<Long> deleteIds = new LinkedHashSet<>();
+        Map<Long, ProductCdcMessage> updates = new LinkedHashMap<>();
+        pendingChanges.forEach((productId, pendingChange) -> {
+            switch (pendingChange.operation()) {
+                case DELETE -> deleteIds.add(productId);
+                case UPDATE -> updates.put(productId, pendingChange.message());
+                default -> upsertIds.add(productId);
+            }
+        });
+        if (!updates.isEmpty()) {
+            upsertIds.addAll(productCdcPayloadSyncService.applyUpdates(updates));
+        }
+        if (!upsertIds.isEmpty() || !deleteIds.isEmpty()) {
+            productSyncDataService.syncProducts(upsertIds, deleteIds);
+        }
+        if (!pendingChanges.isEmpty()) {
+            productSearchCache.invalidateResults();
+        }
+        log.debug("## Batch processed - {} upserted, {} updated, {} deleted",
+            upsertIds.size(), updates.size(), deleteIds.size());
+    }
+
+    /**
+     * Net change of a product within a batch. Consecutive updates keep the first before image and the last after
+     * image, an update following a create or a delete needs the full product.
+     */
+    private record PendingChange(Operation operation, ProductCdcMessage message) {
+
+        PendingChange followedBy(PendingChange next) {
+            if (operation != UPDATE) {
+                return new PendingChange(CREATE, next.message());
+            }
+            return new PendingChange(UPDATE, ProductCdcMessage.builder()
+                .before(message.getBefore())
+                .after(next.message().getAfter())
+                .op(UPDATE)
+                .build());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.yas.search.kafka.consumer;
+
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.READ;
+import static com.yas.search.kafka.config.consumer.ProductRelationCdcKafkaListenerConfig.PRODUCT_RELATION_CDC_BATCH_LISTENER_CONTAINER_FACTORY;
+
+import com.yas.commonlibrary.kafka.cdc.BaseCdcBatchConsumer;
+import com.yas.commonlibrary.kafka.cdc.message.ProductRelation;
+import com.yas.commonlibrary.kafka.cdc.message.ProductRelationCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductRelationMsgKey;
+import com.yas.search.config.ProductSyncConfig;
+import com.yas.search.service.ProductSearchCache;
+import com.yas.search.service.ProductSyncDataService;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Syncs in full the products whose categories or attribute values changed. These changes are not visible in the
+ * product row, so the partial updates applied from the product CDC payload never carry them. Without partial
+ * updates every product event is already synced in full and this consumer is not registered.
+ * The products of one poll are coalesced, so a product with many changed relations is synced once.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = ProductSyncConfig.APPLY_CDC_PAYLOAD_PROPERTY, havingValue = "true")
+public class ProductRelationSyncDataConsumer
+    extends BaseCdcBatchConsumer<ProductRelationMsgKey, ProductRelationCdcMessage> {
+
+    private final ProductSyncDataService productSyncDataService;
+    private final ProductSearchCache productSearchCache;
+
+    public ProductRelationSyncDataConsumer(ProductSyncDataService productSyncDataService,
+                                           ProductSearchCache productSearchCache) {
+        this.productSyncDataService = productSyncDataService;
+        this.productSearchCache = productSearchCache;
+    }
+
+    @KafkaListener(
+        id = "product-relation-sync-es",
+        groupId = "product-relation-sync-search",
+        topics = {"${product.category.topic.name}", "${product.attribute-value.topic.name}"},
+        containerFactory = PRODUCT_RELATION_CDC_BATCH_LISTENER_CONTAINER_FACTORY
+    )
+    public void processMessages(List<ConsumerRecord<ProductRelationMsgKey, ProductRelationCdcMessage>> records) {
+        processBatch(records, this::sync);
+    }
+
+    /**
+     * A relation moved to another product changes both, tombstones carry no product id and snapshot reads are
+     * already covered by the snapshot of the product table.
+     */
+    public void sync(List<ConsumerRecord<ProductRelationMsgKey, ProductRelationCdcMessage>> records) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (ConsumerRecord<ProductRelationMsgKey, ProductRelationCdcMessage> consumerRecord : records) {
+            ProductRelationCdcMessage productRelationCdcMessage = consumerRecord.value();
+            if (productRelationCdcMessage == null || READ.equals(productRelationCdcMessage.getOp())) {
+                continue;
+            }
+            List<Long> recordProductIds = Stream.of(productRelationCdcMessage.getBefore(),
+                    productRelationCdcMessage.getAfter())
+                .filter(Objects::nonNull)
+                .map(ProductRelation::getProductId)
+                .filter(Objects::nonNull)
+                .toList();
+            if (recordProductIds.isEmpty()) {
+                log.warn("Product relation event without product id at offset {}", consumerRecord.offset());
+            }
+            productIds.addAll(recordProductIds);
+        }
+        if (productIds.isEmpty()) {
+            return;
+        }
+        productSyncDataService.syncProducts(productIds, Set.of());
+        productSearchCache.invalidateResults();
+        log.debug("## Relation batch processed - {} products synced", productIds.size());
+    }
+}
@@ -7,9 +7,14 @@ import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
 import com.yas.commonlibrary.kafka.cdc.RetrySupportDql;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.search.config.ProductSyncBatchConfig;
+import com.yas.search.service.ProductCdcPayloadSyncService;
+import com.yas.search.service.ProductSearchCache;
 import com.yas.search.service.ProductSyncDataService;
 import jakarta.validation.Valid;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.MessageHeaders;
@@ -23,12 +28,19 @@ import org.springframework.stereotype.Service;
  */
 @Slf4j
 @Service
+@ConditionalOnProperty(name = ProductSyncBatchConfig.ENABLED_PROPERTY, havingValue = "false", matchIfMissing = true)
 public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, ProductCdcMessage> {
 
     private final ProductSyncDataService productSyncDataService;
+    private final ProductCdcPayloadSyncService productCdcPayloadSyncService;
+    private final ProductSearchCache productSearchCache;
 
-    public ProductSyncDataConsumer(ProductSyncDataService productSyncDataService) {
+    public ProductSyncDataConsumer(ProductSyncDataService productSyncDataService,
+                                   ProductCdcPayloadSyncService productCdcPayloadSyncService,
+                                   ProductSearchCache productSearchCache) {
         this.productSyncDataService = productSyncDataService;
+        this.productCdcPayloadSyncService = productCdcPayloadSyncService;
+        this.productSearchCache = productSearchCache;
     }
 
     @KafkaListener(
@@ -56,9 +68,17 @@ public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, Prod
             var productId = key.getId();
             switch (operation) {
                 case CREATE, READ -> productSyncDataService.createProduct(productId);
-                case UPDATE -> productSyncDataService.updateProduct(productId);
+                case UPDATE -> updateProduct(productId, productCdcMessage);
                 default -> log.warn("Unsupported operation '{}' for product: '{}'", operation, productId);
             }
         }
+        productSearchCache.invalidateResults();
+    }
+
+    private void updateProduct(Long productId, ProductCdcMessage productCdcMessage) {
+        var fullSyncIds = productCdcPayloadSyncService.applyUpdates(Map.of(productId, productCdcMessage));
+        if (fullSyncIds.contains(productId)) {
+            productSyncDataService.updateProduct(productId);
+        }
     }
 }
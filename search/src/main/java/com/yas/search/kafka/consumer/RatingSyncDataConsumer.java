@@ -0,0 +1,78 @@
+package com.yas.search.kafka.consumer;
+
+import static com.yas.search.kafka.config.consumer.RatingCdcKafkaListenerConfig.RATING_CDC_LISTENER_CONTAINER_FACTORY;
+
+import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
+import com.yas.commonlibrary.kafka.cdc.RetrySupportDql;
+import com.yas.commonlibrary.kafka.cdc.message.Rating;
+import com.yas.commonlibrary.kafka.cdc.message.RatingCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.RatingMsgKey;
+import com.yas.search.service.ProductEnrichmentService;
+import com.yas.search.service.ProductSearchCache;
+import jakarta.validation.Valid;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the rating summary denormalized into the product documents in sync with the rating table.
+ */
+@Slf4j
+@Service
+public class RatingSyncDataConsumer extends BaseCdcConsumer<RatingMsgKey, RatingCdcMessage> {
+
+    private final ProductEnrichmentService productEnrichmentService;
+    private final ProductSearchCache productSearchCache;
+
+    public RatingSyncDataConsumer(ProductEnrichmentService productEnrichmentService,
+                                  ProductSearchCache productSearchCache) {
+        this.productEnrichmentService = productEnrichmentService;
+        this.productSearchCache = productSearchCache;
+    }
+
+    @KafkaListener(
+        id = "rating-sync-es",
+        groupId = "rating-sync-search",
+        topics = "${rating.topic.name}",
+        containerFactory = RATING_CDC_LISTENER_CONTAINER_FACTORY
+    )
+    @RetrySupportDql(listenerContainerFactory = RATING_CDC_LISTENER_CONTAINER_FACTORY)
+    public void processMessage(
+        @Header(KafkaHeaders.RECEIVED_KEY) RatingMsgKey key,
+        @Payload(required = false) @Valid RatingCdcMessage ratingCdcMessage,
+        @Headers MessageHeaders headers
+    ) {
+        processMessage(key, ratingCdcMessage, headers, this::sync);
+    }
+
+    /**
+     * A rating moved to another product changes the summary of both, tombstones carry no product id.
+     */
+    public void sync(RatingMsgKey key, RatingCdcMessage ratingCdcMessage) {
+        if (ratingCdcMessage == null) {
+            log.debug("Skip tombstone event for rating: '{}'", key.getId());
+            return;
+        }
+        Set<Long> productIds = new LinkedHashSet<>();
+        Stream.of(ratingCdcMessage.getBefore(), ratingCdcMessage.getAfter())
+            .filter(Objects::nonNull)
+            .map(Rating::getProductId)
+            .filter(Objects::nonNull)
+            .forEach(productIds::add);
+        if (productIds.isEmpty()) {
+            log.warn("Rating event without product id for rating: '{}'", key.getId());
+            return;
+        }
+        productEnrichmentService.syncRatings(productIds);
+        productSearchCache.invalidateResults();
+    }
+}
@@ -1,17 +1,21 @@
 package com.yas.search.model;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 @Document(indexName = "product")
 @Setting(settingPath = "esconfig/elastic-analyzer.json")
@@ -21,6 +25,8 @@ import org.springframework.data.elasticsearch.annotations.Setting;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
+    private static final int MAX_SUGGEST_WORDS = 5;
+
     @Id
     private Long id;
     @Field(type = FieldType.Text, analyzer = "autocomplete_index", searchAnalyzer = "autocomplete_search")
@@ -33,6 +39,12 @@ public class Product {
     private Boolean isAllowedToOrder;
     private Boolean isFeatured;
     private Long thumbnailMediaId;
+    @Field(type = FieldType.Keyword, index = false)
+    private String thumbnailUrl;
+    @Field(type = FieldType.Double)
+    private Double averageRating;
+    @Field(type = FieldType.Long)
+    private Long ratingCount;
     @Field(type = FieldType.Text, fielddata = true)
     private String brand;
     @Field(type = FieldType.Keyword)
@@ -41,4 +53,25 @@ public class Product {
     private List<String> attributes;
     @Field(type = FieldType.Date)
     private ZonedDateTime createdOn;
+    @CompletionField(maxInputLength = 100)
+    private Completion nameSuggest;
+
+    /**
+     * Completion inputs of a product name, the name and its word suffixes so that "pro" suggests "iPhone 15 Pro".
+     */
+    public static List<String> nameSuggestInputs(String name) {
+        List<String> inputs = new ArrayList<>();
+        if (StringUtils.isBlank(name)) {
+            return inputs;
+        }
+        String[] words = StringUtils.split(name.trim());
+        for (int i = 0; i < Math.min(words.length, MAX_SUGGEST_WORDS); i++) {
+            inputs.add(String.join(" ", List.of(words).subList(i, words.length)));
+        }
+        return inputs;
+    }
+
+    public static Completion toNameSuggest(String name) {
+        return new Completion(nameSuggestInputs(name).toArray(String[]::new));
+    }
 }
@@ -1,6 +1,14 @@
 package com.yas.search.model;
 
+import com.yas.search.constant.enums.ProductFacet;
 import com.yas.search.constant.enums.SortType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
 
 public record ProductCriteriaDto(String keyword,
                                  Integer page,
@@ -10,5 +18,44 @@ public record ProductCriteriaDto(String keyword,
                                  String attribute,
                                  Double minPrice,
                                  Double maxPrice,
-                                 SortType sortType) {
+                                 SortType sortType,
+                                 String cursor,
+                                 Set<ProductFacet> facets) {
+
+    public ProductCriteriaDto(String keyword, Integer page, Integer size, String brand, String category,
+                              String attribute, Double minPrice, Double maxPrice, SortType sortType) {
+        this(keyword, page, size, brand, category, attribute, minPrice, maxPrice, sortType, null, Set.of());
+    }
+
+    /**
+     * Equivalent criteria in a canonical form, so equal searches share a cache entry. Term values are matched
+     * case-insensitively and OR-ed, they are lower-cased, deduplicated and sorted.
+     */
+    public ProductCriteriaDto normalized() {
+        return new ProductCriteriaDto(
+            StringUtils.normalizeSpace(StringUtils.defaultString(keyword)),
+            page,
+            size,
+            normalizeTerms(brand),
+            normalizeTerms(category),
+            normalizeTerms(attribute),
+            minPrice,
+            maxPrice,
+            sortType,
+            cursor,
+            facets == null || facets.isEmpty() ? Set.of() : Collections.unmodifiableSet(EnumSet.copyOf(facets))
+        );
+    }
+
+    private static String normalizeTerms(String values) {
+        if (StringUtils.isBlank(values)) {
+            return null;
+        }
+        return Arrays.stream(values.split(","))
+            .filter(StringUtils::isNotBlank)
+            .map(value -> value.toLowerCase(Locale.ROOT))
+            .distinct()
+            .sorted()
+            .collect(Collectors.joining(","));
+    }
 }
@@ -0,0 +1,42 @@
+package com.yas.search.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.search.constant.MessageCode;
+import com.yas.search.constant.enums.SortType;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position of a cursor pagination, handed to clients as an opaque token.
+ *
+ * @param sortType sort the pagination was started with
+ * @param searchAfter sort values of the last returned product
+ */
+public record ProductSearchCursor(SortType sortType, List<Object> searchAfter) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode search cursor", e);
+        }
+    }
+
+    public static ProductSearchCursor decode(String token) {
+        try {
+            ProductSearchCursor cursor = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(token),
+                ProductSearchCursor.class);
+            if (cursor.sortType() == null || cursor.searchAfter() == null) {
+                throw new BadRequestException(MessageCode.INVALID_SEARCH_CURSOR);
+            }
+            return cursor;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadRequestException(MessageCode.INVALID_SEARCH_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.yas.search.service;
+
+import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.search.config.ProductSyncConfig;
+import com.yas.search.constant.ProductField;
+import com.yas.search.repository.ProductRepository;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies product UPDATE events straight from the CDC row images when only scalar fields changed,
+ * instead of fetching the whole product from the product service.
+ */
+@Slf4j
+@Service
+public class ProductCdcPayloadSyncService {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductRepository productRepository;
+    private final ProductIndexDualWriter productIndexDualWriter;
+    private final ProductSyncConfig productSyncConfig;
+    private final IndexCoordinates productIndex;
+
+    public ProductCdcPayloadSyncService(ElasticsearchOperations elasticsearchOperations,
+                                        ProductRepository productRepository,
+                                        ProductIndexDualWriter productIndexDualWriter,
+                                        ProductSyncConfig productSyncConfig) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.productRepository = productRepository;
+        this.productIndexDualWriter = productIndexDualWriter;
+        this.productSyncConfig = productSyncConfig;
+        this.productIndex = elasticsearchOperations.getIndexCoordinatesFor(com.yas.search.model.Product.class);
+    }
+
+    /**
+     * Apply product UPDATE events from their payload where possible.
+     *
+     * @param updatesByProductId UPDATE events keyed by product id
+     * @return ids of products which still need a full synchronization from the product service
+     */
+    public Set<Long> applyUpdates(Map<Long, ProductCdcMessage> updatesByProductId) {
+        if (!productSyncConfig.applyCdcPayload()) {
+            return updatesByProductId.keySet();
+        }
+
+        Set<Long> fullSyncIds = new LinkedHashSet<>();
+        List<Long> idsToDelete = new ArrayList<>();
+        List<UpdateQuery> updateQueries = new ArrayList<>();
+        updatesByProductId.forEach((productId, productCdcMessage) -> {
+            var before = productCdcMessage.getBefore();
+            var after = productCdcMessage.getAfter();
+            if (after != null && !after.isPublished()) {
+                idsToDelete.add(productId);
+            } else if (requiresFullSync(before, after)) {
+                fullSyncIds.add(productId);
+            } else {
+                Document changedFields = getChangedFields(before, after);
+                if (!changedFields.isEmpty()) {
+                    updateQueries.add(UpdateQuery.builder(String.valueOf(productId))
+                        .withDocument(changedFields)
+                        .build());
+                }
+            }
+        });
+
+        if (!updateQueries.isEmpty()) {
+            fullSyncIds.addAll(bulkUpdate(updateQueries));
+            productIndexDualWriter.updateAll(updateQueries);
+        }
+        if (!idsToDelete.isEmpty()) {
+            productRepository.deleteAllById(idsToDelete);
+            productIndexDualWriter.deleteAll(idsToDelete);
+        }
+        return fullSyncIds;
+    }
+
+    /**
+     * The brand name and thumbnail url are denormalized into the document and unpublished products are not indexed,
+     * so a brand or thumbnail change, a publication or a missing row image needs the full product. Category and
+     * attribute value changes are not in the product row, their own CDC events sync the product in full.
+     */
+    private static boolean requiresFullSync(Product before, Product after) {
+        return before == null
+            || after == null
+            || !before.isPublished()
+            || !Objects.equals(before.getBrandId(), after.getBrandId())
+            || !Objects.equals(before.getThumbnailMediaId(), after.getThumbnailMediaId());
+    }
+
+    private static Document getChangedFields(Product before, Product after) {
+        Document document = Document.create();
+        putIfChanged(document, ProductField.NAME, before.getName(), after.getName());
+        if (document.containsKey(ProductField.NAME)) {
+            document.put(ProductField.NAME_SUGGEST,
+                Map.of("input", com.yas.search.model.Product.nameSuggestInputs(after.getName())));
+        }
+        putIfChanged(document, ProductField.SLUG, before.getSlug(), after.getSlug());
+        putIfChanged(document, ProductField.PRICE, before.getPrice(), after.getPrice());
+        putIfChanged(document, ProductField.IS_VISIBLE_INDIVIDUALLY,
+            before.isVisibleIndividually(), after.isVisibleIndividually());
+        putIfChanged(document, ProductField.IS_ALLOWED_TO_ORDER, before.isAllowedToOrder(), after.isAllowedToOrder());
+        putIfChanged(document, ProductField.IS_FEATURED, before.isFeatured(), after.isFeatured());
+        return document;
+    }
+
+    private static void putIfChanged(Document document, String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            document.put(field, after);
+        }
+    }
+
+    /**
+     * Partial updates fail for documents missing from the index, those products are synced in full instead.
+     */
+    private Set<Long> bulkUpdate(List<UpdateQuery> updateQueries) {
+        try {
+            elasticsearchOperations.bulkUpdate(updateQueries, productIndex);
+            return Set.of();
+        } catch (BulkFailureException e) {
+            log.warn("Partial update failed for products {}, falling back to full sync",
+                e.getFailedDocuments().keySet());
+            Set<Long> failedIds = new LinkedHashSet<>();
+            e.getFailedDocuments().keySet().forEach(id -> failedIds.add(Long.valueOf(id)));
+            return failedIds;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.yas.search.service;
+
+import com.yas.search.config.ServiceUrlConfig;
+import com.yas.search.constant.ProductField;
+import com.yas.search.model.Product;
+import com.yas.search.repository.ProductRepository;
+import com.yas.search.viewmodel.MediaVm;
+import com.yas.search.viewmodel.ProductRatingSummaryVm;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Denormalizes the thumbnail url and the rating summary into the product documents, so a search result page
+ * renders without calling the media and rating services.
+ * A failing call does not fail the product sync, the fields keep the values of the indexed document instead, so an
+ * outage of these services does not wipe the thumbnails and ratings already indexed.
+ */
+@Slf4j
+@Service
+public class ProductEnrichmentService {
+
+    private static final int MAX_IDS_PER_REQUEST = 200;
+
+    private final RestClient restClient;
+    private final ServiceUrlConfig serviceUrlConfig;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductRepository productRepository;
+    private final ProductIndexDualWriter productIndexDualWriter;
+    private final IndexCoordinates productIndex;
+
+    public ProductEnrichmentService(RestClient restClient,
+                                    ServiceUrlConfig serviceUrlConfig,
+                                    ElasticsearchOperations elasticsearchOperations,
+                                    ProductRepository productRepository,
+                                    ProductIndexDualWriter productIndexDualWriter) {
+        this.restClient = restClient;
+        this.serviceUrlConfig = serviceUrlConfig;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.productRepository = productRepository;
+        this.productIndexDualWriter = productIndexDualWriter;
+        this.productIndex = elasticsearchOperations.getIndexCoordinatesFor(Product.class);
+    }
+
+    /**
+     * Set the thumbnail url and rating summary of products about to be saved.
+     */
+    public void enrich(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        Set<Long> mediaIds = new LinkedHashSet<>();
+        products.stream().map(Product::getThumbnailMediaId).filter(Objects::nonNull).forEach(mediaIds::add);
+        Set<Long> failedMediaIds = new HashSet<>();
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(mediaIds, failedMediaIds);
+        Map<Long, ProductRatingSummaryVm> ratingSummaries = getRatingSummaries(
+            products.stream().map(Product::getId).toList());
+
+        List<Product> notEnriched = new ArrayList<>();
+        products.forEach(product -> {
+            product.setThumbnailUrl(thumbnailUrls.get(product.getThumbnailMediaId()));
+            if (ratingSummaries != null) {
+                ProductRatingSummaryVm ratingSummary = ratingSummaries.get(product.getId());
+                product.setAverageRating(ratingSummary != null ? ratingSummary.averageStar() : null);
+                product.setRatingCount(ratingSummary != null ? ratingSummary.ratingCount() : 0L);
+            }
+            if (ratingSummaries == null || failedMediaIds.contains(product.getThumbnailMediaId())) {
+                notEnriched.add(product);
+            }
+        });
+        if (!notEnriched.isEmpty()) {
+            copyIndexedFields(notEnriched, failedMediaIds, ratingSummaries == null);
+        }
+    }
+
+    /**
+     * Refresh the rating summary of indexed products after rating changes, products missing from the index
+     * are skipped as they get the summary when they are synced.
+     */
+    public void syncRatings(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ProductRatingSummaryVm> ratingSummaries = getRatingSummaries(productIds);
+        if (ratingSummaries == null) {
+            return;
+        }
+        List<UpdateQuery> updateQueries = productIds.stream()
+            .map(productId -> {
+                ProductRatingSummaryVm ratingSummary = ratingSummaries.get(productId);
+                Document document = Document.create();
+                document.put(ProductField.AVERAGE_RATING, ratingSummary != null ? ratingSummary.averageStar() : null);
+                document.put(ProductField.RATING_COUNT, ratingSummary != null ? ratingSummary.ratingCount() : 0L);
+                return UpdateQuery.builder(String.valueOf(productId)).withDocument(document).build();
+            })
+            .toList();
+        try {
+            elasticsearchOperations.bulkUpdate(updateQueries, productIndex);
+        } catch (BulkFailureException e) {
+            log.debug("Rating update skipped for products {} missing from the index",
+                e.getFailedDocuments().keySet());
+        }
+        productIndexDualWriter.updateAll(updateQueries);
+    }
+
+    /**
+     * Keep the thumbnail url and rating summary of the indexed documents for the fields whose service call failed.
+     * The thumbnail url is only kept while the thumbnail is the same media.
+     */
+    private void copyIndexedFields(List<Product> products, Set<Long> failedMediaIds, boolean isRatingFailed) {
+        Map<Long, Product> indexedProducts = new HashMap<>();
+        productRepository.findAllById(products.stream().map(Product::getId).toList())
+            .forEach(indexedProduct -> indexedProducts.put(indexedProduct.getId(), indexedProduct));
+        products.forEach(product -> {
+            Product indexedProduct = indexedProducts.get(product.getId());
+            if (indexedProduct == null) {
+                return;
+            }
+            if (failedMediaIds.contains(product.getThumbnailMediaId())
+                && Objects.equals(product.getThumbnailMediaId(), indexedProduct.getThumbnailMediaId())) {
+                product.setThumbnailUrl(indexedProduct.getThumbnailUrl());
+            }
+            if (isRatingFailed) {
+                product.setAverageRating(indexedProduct.getAverageRating());
+                product.setRatingCount(indexedProduct.getRatingCount());
+            }
+        });
+    }
+
+    /**
+     * Thumbnail urls by media id, the ids of the chunks whose call failed are added to the failed ids.
+     */
+    private Map<Long, String> getThumbnailUrls(Collection<Long> mediaIds, Set<Long> failedMediaIds) {
+        Map<Long, String> thumbnailUrls = new HashMap<>();
+        for (List<Long> chunk : chunk(mediaIds)) {
+            final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.media())
+                .path("/medias")
+                .queryParam("ids", StringUtils.collectionToCommaDelimitedString(chunk))
+                .build()
+                .toUri();
+            try {
+                List<MediaVm> body = restClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<List<MediaVm>>() {});
+                if (body != null) {
+                    body.forEach(media -> thumbnailUrls.put(media.id(), media.url()));
+                }
+            } catch (HttpClientErrorException.NotFound e) {
+                log.debug("No media found for ids {}", chunk);
+            } catch (RestClientException e) {
+                log.warn("Failed to get thumbnail urls for media {}, keeping the indexed ones: {}", chunk,
+                    e.getMessage());
+                failedMediaIds.addAll(chunk);
+            }
+        }
+        return thumbnailUrls;
+    }
+
+    /**
+     * Rating summaries by product id, or null when the rating service is unavailable.
+     */
+    private Map<Long, ProductRatingSummaryVm> getRatingSummaries(Collection<Long> productIds) {
+        Map<Long, ProductRatingSummaryVm> ratingSummaries = new HashMap<>();
+        for (List<Long> chunk : chunk(productIds)) {
+            final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.rating())
+                .path("/storefront/ratings/products/summary")
+                .queryParam("productIds", StringUtils.collectionToCommaDelimitedString(chunk))
+                .build()
+                .toUri();
+            try {
+                List<ProductRatingSummaryVm> body = restClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<List<ProductRatingSummaryVm>>() {});
+                if (body != null) {
+                    body.forEach(ratingSummary -> ratingSummaries.put(ratingSummary.productId(), ratingSummary));
+                }
+            } catch (RestClientException e) {
+                log.warn("Failed to get rating summaries of products {}: {}", chunk, e.getMessage());
+                return null;
+            }
+        }
+        return ratingSummaries;
+    }
+
+    private static List<List<Long>> chunk(Collection<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < idList.size(); from += MAX_IDS_PER_REQUEST) {
+            chunks.add(idList.subList(from, Math.min(from + MAX_IDS_PER_REQUEST, idList.size())));
+        }
+        return chunks;
+    }
+}
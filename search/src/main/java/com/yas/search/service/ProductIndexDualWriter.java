@@ -0,0 +1,99 @@
+package com.yas.search.service;
+
+import com.yas.search.model.Product;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mirrors CDC writes into the index being built by a full reindex, so no change is lost
+ * between the moment a page is loaded and the alias swap.
+ *
+ * <p>The build index and the touched ids are only known to the instance running the reindex, the CDC writes
+ * consumed by any other instance are neither mirrored nor caught up. A reindex must therefore run while this
+ * instance is the only consumer of the product CDC topic, e.g. with the search service scaled to one replica.</p>
+ */
+@Slf4j
+@Service
+public class ProductIndexDualWriter {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final Set<Long> touchedProductIds = ConcurrentHashMap.newKeySet();
+
+    private volatile IndexCoordinates buildIndex;
+
+    public ProductIndexDualWriter(ElasticsearchOperations elasticsearchOperations) {
+        this.elasticsearchOperations = elasticsearchOperations;
+    }
+
+    void start(IndexCoordinates index) {
+        touchedProductIds.clear();
+        buildIndex = index;
+    }
+
+    void stop() {
+        buildIndex = null;
+        touchedProductIds.clear();
+    }
+
+    /**
+     * Ids written by CDC since the last call, they are synced again before the alias swap because
+     * a page loaded earlier may have overwritten them with older data.
+     */
+    Set<Long> drainTouchedProductIds() {
+        Set<Long> drained = new HashSet<>(touchedProductIds);
+        touchedProductIds.removeAll(drained);
+        return drained;
+    }
+
+    public void save(Product product) {
+        saveAll(List.of(product));
+    }
+
+    public void saveAll(List<Product> products) {
+        IndexCoordinates index = buildIndex;
+        if (index == null || products.isEmpty()) {
+            return;
+        }
+        elasticsearchOperations.save(products, index);
+        products.forEach(product -> touchedProductIds.add(product.getId()));
+    }
+
+    /**
+     * Partial updates of documents the build has not loaded yet fail, the touched ids are synced in full
+     * by the catch-up anyway.
+     */
+    public void updateAll(List<UpdateQuery> updateQueries) {
+        IndexCoordinates index = buildIndex;
+        if (index == null || updateQueries.isEmpty()) {
+            return;
+        }
+        updateQueries.forEach(updateQuery -> touchedProductIds.add(Long.valueOf(updateQuery.getId())));
+        try {
+            elasticsearchOperations.bulkUpdate(updateQueries, index);
+        } catch (BulkFailureException e) {
+            log.debug("Partial update skipped in '{}' for products {}", index.getIndexName(),
+                e.getFailedDocuments().keySet());
+        }
+    }
+
+    public void deleteAll(Collection<Long> productIds) {
+        IndexCoordinates index = buildIndex;
+        if (index == null) {
+            return;
+        }
+        productIds.forEach(productId -> {
+            elasticsearchOperations.delete(String.valueOf(productId), index);
+            touchedProductIds.add(productId);
+        });
+    }
+}
@@ -0,0 +1,282 @@
+package com.yas.search.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.yas.commonlibrary.exception.ResourceExistedException;
+import com.yas.search.config.ProductReindexConfig;
+import com.yas.search.constant.MessageCode;
+import com.yas.search.constant.enums.ReindexState;
+import com.yas.search.model.Product;
+import com.yas.search.viewmodel.ProductEsDetailVm;
+import com.yas.search.viewmodel.ProductReindexStatusVm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rebuilds the product index without downtime: a versioned index is created from the {@link Product} settings and
+ * mapping, loaded from the product service, then the product alias is atomically moved onto it.
+ */
+@Slf4j
+@Service
+public class ProductReindexService {
+
+    private static final String VERSION_SEPARATOR = "_v";
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final String REFRESH_DISABLED = "-1";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ProductSyncDataService productSyncDataService;
+    private final ProductIndexDualWriter productIndexDualWriter;
+    private final ProductEnrichmentService productEnrichmentService;
+    private final ProductSearchCache productSearchCache;
+    private final ProductReindexConfig productReindexConfig;
+    private final MeterRegistry meterRegistry;
+    private final Counter indexedDocumentsCounter;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+        Thread.ofVirtual().name("product-reindex").factory());
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong indexedDocuments = new AtomicLong();
+
+    private volatile ReindexState state = ReindexState.IDLE;
+    private volatile String indexName;
+    private volatile ZonedDateTime startedOn;
+    private volatile ZonedDateTime finishedOn;
+    private volatile String error;
+
+    public ProductReindexService(ElasticsearchOperations elasticsearchOperations,
+                                 ElasticsearchClient elasticsearchClient,
+                                 ProductSyncDataService productSyncDataService,
+                                 ProductIndexDualWriter productIndexDualWriter,
+                                 ProductEnrichmentService productEnrichmentService,
+                                 ProductSearchCache productSearchCache,
+                                 ProductReindexConfig productReindexConfig,
+                                 MeterRegistry meterRegistry) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.productSyncDataService = productSyncDataService;
+        this.productIndexDualWriter = productIndexDualWriter;
+        this.productEnrichmentService = productEnrichmentService;
+        this.productSearchCache = productSearchCache;
+        this.productReindexConfig = productReindexConfig;
+        this.meterRegistry = meterRegistry;
+        this.indexedDocumentsCounter = meterRegistry.counter("search.reindex.documents");
+        meterRegistry.gauge("search.reindex.running", running, value -> value.get() ? 1 : 0);
+        meterRegistry.gauge("search.reindex.progress.documents", indexedDocuments);
+    }
+
+    public ProductReindexStatusVm startReindex() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ResourceExistedException(MessageCode.PRODUCT_REINDEX_IN_PROGRESS);
+        }
+        String alias = getAlias();
+        indexName = alias + VERSION_SEPARATOR + ZonedDateTime.now().format(VERSION_FORMAT);
+        indexedDocuments.set(0);
+        startedOn = ZonedDateTime.now();
+        finishedOn = null;
+        error = null;
+        state = ReindexState.RUNNING;
+
+        String buildIndexName = indexName;
+        executor.execute(() -> runReindex(alias, buildIndexName));
+        return getStatus();
+    }
+
+    public ProductReindexStatusVm getStatus() {
+        long documents = indexedDocuments.get();
+        double documentsPerSecond = 0;
+        if (startedOn != null) {
+            ZonedDateTime end = finishedOn != null ? finishedOn : ZonedDateTime.now();
+            long elapsedMillis = Math.max(Duration.between(startedOn, end).toMillis(), 1);
+            documentsPerSecond = documents * 1000.0 / elapsedMillis;
+        }
+        return new ProductReindexStatusVm(state, indexName, documents, documentsPerSecond,
+            startedOn, finishedOn, error);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runReindex(String alias, String buildIndexName) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        boolean isSwapped = false;
+        try {
+            buildIndex(buildIndexName);
+            Set<String> previousLiveIndices = swapAlias(alias, buildIndexName);
+            isSwapped = true;
+            productSearchCache.invalidateAll();
+            deletePreviousIndices(alias, buildIndexName, previousLiveIndices);
+            state = ReindexState.COMPLETED;
+            log.info("Product reindex into '{}' completed, {} documents", buildIndexName, indexedDocuments.get());
+        } catch (Exception e) {
+            result = "failure";
+            error = e.getMessage();
+            state = ReindexState.FAILED;
+            log.error("Product reindex into '{}' failed", buildIndexName, e);
+            if (!isSwapped) {
+                deleteBuildIndex(buildIndexName);
+            }
+        } finally {
+            productIndexDualWriter.stop();
+            finishedOn = ZonedDateTime.now();
+            sample.stop(meterRegistry.timer("search.reindex.duration", "result", result));
+            running.set(false);
+        }
+    }
+
+    private void buildIndex(String buildIndexName) throws IOException {
+        IndexOperations productIndexOps = elasticsearchOperations.indexOps(Product.class);
+        IndexCoordinates buildIndex = IndexCoordinates.of(buildIndexName);
+        elasticsearchOperations.indexOps(buildIndex)
+            .create(productIndexOps.createSettings(), productIndexOps.createMapping());
+        updateIndexSettings(buildIndexName, REFRESH_DISABLED, 0);
+        productIndexDualWriter.start(buildIndex);
+
+        long afterId = 0;
+        List<ProductEsDetailVm> page = productSyncDataService.getPublishedProductEsDetails(
+            afterId, productReindexConfig.pageSize());
+        while (!page.isEmpty()) {
+            List<Product> products = page.stream()
+                .map(productEsDetailVm -> ProductSyncDataService.toProduct(productEsDetailVm.id(), productEsDetailVm))
+                .toList();
+            productEnrichmentService.enrich(products);
+            elasticsearchOperations.save(products, buildIndex);
+            indexedDocuments.addAndGet(products.size());
+            indexedDocumentsCounter.increment(products.size());
+
+            afterId = page.getLast().id();
+            page = productSyncDataService.getPublishedProductEsDetails(afterId, productReindexConfig.pageSize());
+        }
+
+        Setting setting = Product.class.getAnnotation(Setting.class);
+        updateIndexSettings(buildIndexName, setting.refreshInterval(), setting.replicas());
+        catchUpTouchedProducts(buildIndex);
+        elasticsearchOperations.indexOps(buildIndex).refresh();
+    }
+
+    /**
+     * A page read from the product service before a CDC event may be written after it, so products
+     * touched by CDC during the build are fetched again before the new index goes live.
+     */
+    private void catchUpTouchedProducts(IndexCoordinates buildIndex) {
+        Set<Long> touchedProductIds = productIndexDualWriter.drainTouchedProductIds();
+        if (touchedProductIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ProductEsDetailVm> productEsDetailVms = productSyncDataService
+            .getProductEsDetailByIds(touchedProductIds).stream()
+            .collect(Collectors.toMap(ProductEsDetailVm::id, Function.identity()));
+
+        List<Product> productsToSave = new ArrayList<>();
+        for (Long productId : touchedProductIds) {
+            ProductEsDetailVm productEsDetailVm = productEsDetailVms.get(productId);
+            if (productEsDetailVm == null || !productEsDetailVm.isPublished()) {
+                elasticsearchOperations.delete(String.valueOf(productId), buildIndex);
+            } else {
+                productsToSave.add(ProductSyncDataService.toProduct(productId, productEsDetailVm));
+            }
+        }
+        if (!productsToSave.isEmpty()) {
+            productEnrichmentService.enrich(productsToSave);
+            elasticsearchOperations.save(productsToSave, buildIndex);
+        }
+        log.info("Product reindex caught up {} products changed during the build", touchedProductIds.size());
+    }
+
+    private void updateIndexSettings(String index, String refreshInterval, int replicas) throws IOException {
+        elasticsearchClient.indices().putSettings(request -> request
+            .index(index)
+            .settings(settings -> settings
+                .refreshInterval(time -> time.time(refreshInterval))
+                .numberOfReplicas(String.valueOf(replicas))));
+    }
+
+    /**
+     * Point the alias to the new index in one atomic request. The first time, the alias name is still used by the
+     * index created at startup, which is dropped in the same request.
+     *
+     * @return the versioned indices the alias pointed to before the swap
+     */
+    private Set<String> swapAlias(String alias, String buildIndexName) throws IOException {
+        boolean isAliasExisted = elasticsearchClient.indices().existsAlias(request -> request.name(alias)).value();
+        Set<String> aliasedIndices = isAliasExisted
+            ? elasticsearchClient.indices().getAlias(request -> request.name(alias)).result().keySet()
+            : Set.of();
+        boolean isConcreteIndex = !isAliasExisted
+            && elasticsearchClient.indices().exists(request -> request.index(alias)).value();
+
+        elasticsearchClient.indices().updateAliases(request -> {
+            request.actions(action -> action.add(add -> add.index(buildIndexName).alias(alias).isWriteIndex(true)));
+            aliasedIndices.forEach(index -> request.actions(action -> action.remove(remove -> remove
+                .index(index).alias(alias))));
+            if (isConcreteIndex) {
+                request.actions(action -> action.removeIndex(removeIndex -> removeIndex.index(alias)));
+            }
+            return request;
+        });
+        log.info("Alias '{}' now points to '{}'", alias, buildIndexName);
+        return aliasedIndices;
+    }
+
+    /**
+     * Keep the most recent previous indices for a rollback, the index that was live until the swap first, so an
+     * index left over by a build that never went live does not take its slot.
+     */
+    private void deletePreviousIndices(String alias, String buildIndexName, Set<String> previousLiveIndices)
+        throws IOException {
+        List<String> previousIndices = elasticsearchClient.indices()
+            .get(request -> request.index(alias + VERSION_SEPARATOR + "*"))
+            .result().keySet().stream()
+            .filter(index -> !index.equals(buildIndexName))
+            .sorted(Comparator.comparing((String index) -> !previousLiveIndices.contains(index))
+                .thenComparing(Comparator.reverseOrder()))
+            .skip(productReindexConfig.keepPreviousIndices())
+            .toList();
+        if (!previousIndices.isEmpty()) {
+            elasticsearchClient.indices().delete(request -> request.index(previousIndices));
+            log.info("Deleted previous product indices {}", previousIndices);
+        }
+    }
+
+    /**
+     * Drop the index of a failed build, it never went live and would otherwise be kept as a previous index.
+     */
+    private void deleteBuildIndex(String buildIndexName) {
+        try {
+            elasticsearchClient.indices().delete(request -> request.index(buildIndexName).ignoreUnavailable(true));
+            log.info("Deleted product index '{}' of the failed reindex", buildIndexName);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to delete product index '{}' of the failed reindex", buildIndexName, e);
+        }
+    }
+
+    private String getAlias() {
+        return elasticsearchOperations.getIndexCoordinatesFor(Product.class).getIndexName();
+    }
+}
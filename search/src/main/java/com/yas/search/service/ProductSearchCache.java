@@ -0,0 +1,92 @@
+package com.yas.search.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yas.search.config.ProductSearchCacheConfig;
+import com.yas.search.constant.enums.ProductFacet;
+import com.yas.search.model.ProductCriteriaDto;
+import com.yas.search.viewmodel.ProductListGetVm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory cache of catalog search results and facets.
+ *
+ * <p>Results are keyed by the normalized criteria and a generation which is bumped by every processed CDC event
+ * and by a reindex, so stale entries are never read again and age out. Facets are computed on the keyword
+ * query only (the other criteria are post filters), they are cached per keyword and facet for longer and only
+ * dropped by a reindex.
+ */
+@Component
+public class ProductSearchCache {
+
+    private final boolean enabled;
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<ResultKey, ProductListGetVm> results;
+    private final Cache<FacetKey, Map<String, Long>> facets;
+
+    public ProductSearchCache(ProductSearchCacheConfig productSearchCacheConfig, MeterRegistry meterRegistry) {
+        this.enabled = productSearchCacheConfig.enabled();
+        this.results = Caffeine.newBuilder()
+            .maximumSize(productSearchCacheConfig.resultMaxSize())
+            .expireAfterWrite(productSearchCacheConfig.resultTtl())
+            .recordStats()
+            .build();
+        this.facets = Caffeine.newBuilder()
+            .maximumSize(productSearchCacheConfig.facetMaxSize())
+            .expireAfterWrite(productSearchCacheConfig.facetTtl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "search.product.results");
+        CaffeineCacheMetrics.monitor(meterRegistry, facets, "search.product.facets");
+    }
+
+    /**
+     * Return the cached result of the criteria or load it, concurrent misses of the same criteria load once.
+     * The generation is read before loading, a result loaded while a change is processed is stored under
+     * the outdated generation.
+     */
+    public ProductListGetVm getResult(ProductCriteriaDto criteria,
+                                      Function<ProductCriteriaDto, ProductListGetVm> loader) {
+        if (!enabled) {
+            return loader.apply(criteria);
+        }
+        return results.get(new ResultKey(generation.get(), criteria), key -> loader.apply(key.criteria()));
+    }
+
+    public Map<String, Long> getFacet(String keyword, ProductFacet facet) {
+        return enabled ? facets.getIfPresent(new FacetKey(keyword, facet)) : null;
+    }
+
+    public void putFacet(String keyword, ProductFacet facet, Map<String, Long> buckets) {
+        if (enabled) {
+            facets.put(new FacetKey(keyword, facet), buckets);
+        }
+    }
+
+    /**
+     * Called once per processed CDC event or batch.
+     */
+    public void invalidateResults() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Called when the index behind the alias is replaced.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        results.invalidateAll();
+        facets.invalidateAll();
+    }
+
+    private record ResultKey(long generation, ProductCriteriaDto criteria) {
+    }
+
+    private record FacetKey(String keyword, ProductFacet facet) {
+    }
+}
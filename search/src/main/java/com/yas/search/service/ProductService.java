@@ -1,20 +1,21 @@
 package com.yas.search.service;
 
 import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
-import co.elastic.clients.elasticsearch._types.aggregations.StringTermsAggregate;
 import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.yas.search.config.ProductSearchFacetConfig;
 import com.yas.search.constant.ProductField;
+import com.yas.search.constant.enums.ProductFacet;
 import com.yas.search.constant.enums.SortType;
 import com.yas.search.model.Product;
 import com.yas.search.model.ProductCriteriaDto;
+import com.yas.search.model.ProductSearchCursor;
 import com.yas.search.viewmodel.ProductGetVm;
 import com.yas.search.viewmodel.ProductListGetVm;
-import com.yas.search.viewmodel.ProductNameGetVm;
-import com.yas.search.viewmodel.ProductNameListVm;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
@@ -22,32 +23,109 @@ import org.elasticsearch.common.unit.Fuzziness;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.AggregationsContainer;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHitSupport;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.SearchPage;
-import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ProductService {
     private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductSearchCache productSearchCache;
+    private final Map<ProductFacet, Aggregation> facetAggregations = new EnumMap<>(ProductFacet.class);
 
-    public ProductService(ElasticsearchOperations elasticsearchOperations) {
+    public ProductService(ElasticsearchOperations elasticsearchOperations,
+                          ProductSearchCache productSearchCache,
+                          ProductSearchFacetConfig productSearchFacetConfig) {
         this.elasticsearchOperations = elasticsearchOperations;
+        this.productSearchCache = productSearchCache;
+        for (ProductFacet facet : ProductFacet.values()) {
+            int bucketSize = productSearchFacetConfig.getBucketSize(facet);
+            facetAggregations.put(facet, Aggregation.of(a -> a
+                    .terms(ta -> ta.field(facet.getField()).size(bucketSize))));
+        }
     }
 
     public ProductListGetVm findProductAdvance(ProductCriteriaDto productCriteria) {
+        if (productCriteria.cursor() != null) {
+            return searchProductAfter(productCriteria.normalized());
+        }
+        return productSearchCache.getResult(productCriteria.normalized(), this::searchProductAdvance);
+    }
+
+    private ProductListGetVm searchProductAdvance(ProductCriteriaDto productCriteria) {
+        Map<ProductFacet, Map<String, Long>> cachedFacets = getCachedFacets(productCriteria);
+        NativeQueryBuilder nativeQuery = createSearchQuery(productCriteria, cachedFacets)
+                .withPageable(PageRequest.of(productCriteria.page(), productCriteria.size()))
+                .withSort(getSort(productCriteria.sortType()));
+
+        SearchHits<Product> searchHitsResult = elasticsearchOperations.search(nativeQuery.build(), Product.class);
+        SearchPage<Product> productPage = SearchHitSupport.searchPageFor(searchHitsResult, nativeQuery.getPageable());
+
+        List<ProductGetVm> productListVmList = searchHitsResult.stream()
+                .map(i -> ProductGetVm.fromModel(i.getContent())).toList();
+
+        return new ProductListGetVm(
+                productListVmList,
+                productPage.getNumber(),
+                productPage.getSize(),
+                productPage.getTotalElements(),
+                productPage.getTotalPages(),
+                productPage.isLast(),
+                resolveAggregations(productCriteria, cachedFacets, searchHitsResult),
+                null);
+    }
+
+    /**
+     * Cursor pagination with search_after on the live index, for pages beyond the reach of from/size.
+     * An empty cursor starts a new pagination, the sort is completed with the id as tiebreaker. No point in
+     * time is held between pages, so products written meanwhile may shift in or out of the following pages.
+     */
+    private ProductListGetVm searchProductAfter(ProductCriteriaDto productCriteria) {
+        ProductSearchCursor cursor = productCriteria.cursor().isEmpty()
+                ? null
+                : ProductSearchCursor.decode(productCriteria.cursor());
+        SortType sortType = cursor != null ? cursor.sortType() : productCriteria.sortType();
+
+        Map<ProductFacet, Map<String, Long>> cachedFacets = getCachedFacets(productCriteria);
+        NativeQueryBuilder nativeQuery = createSearchQuery(productCriteria, cachedFacets)
+                .withPageable(PageRequest.of(0, productCriteria.size()))
+                .withSort(getSort(sortType).and(Sort.by(Sort.Direction.ASC, ProductField.ID)));
+        if (cursor != null) {
+            nativeQuery.withSearchAfter(cursor.searchAfter());
+        }
+
+        SearchHits<Product> searchHitsResult = elasticsearchOperations.search(nativeQuery.build(), Product.class);
+        List<SearchHit<Product>> searchHits = searchHitsResult.getSearchHits();
+        boolean isLast = searchHits.size() < productCriteria.size();
+        String nextCursor = isLast
+                ? null
+                : new ProductSearchCursor(sortType, searchHits.getLast().getSortValues()).encode();
+
+        long totalElements = searchHitsResult.getTotalHits();
+        return new ProductListGetVm(
+                searchHits.stream().map(hit -> ProductGetVm.fromModel(hit.getContent())).toList(),
+                productCriteria.page(),
+                productCriteria.size(),
+                totalElements,
+                (int) Math.ceil((double) totalElements / productCriteria.size()),
+                isLast,
+                resolveAggregations(productCriteria, cachedFacets, searchHitsResult),
+                nextCursor);
+    }
+
+    /**
+     * Search query of the criteria, with an aggregation for each requested facet which is not cached.
+     */
+    private NativeQueryBuilder createSearchQuery(ProductCriteriaDto productCriteria,
+                                                 Map<ProductFacet, Map<String, Long>> cachedFacets) {
         NativeQueryBuilder nativeQuery = NativeQuery.builder()
-                .withAggregation("categories", Aggregation.of(a -> a
-                        .terms(ta -> ta.field(ProductField.CATEGORIES))))
-                .withAggregation("attributes", Aggregation.of(a -> a
-                        .terms(ta -> ta.field(ProductField.ATTRIBUTES))))
-                .withAggregation("brands", Aggregation.of(a -> a
-                        .terms(ta -> ta.field(ProductField.BRAND))))
                 .withQuery(q -> q
                         .bool(b -> b
                                 .should(s -> s
@@ -58,9 +136,12 @@ public class ProductService {
                                         )
                                 )
                         )
-                )
-                .withPageable(PageRequest.of(productCriteria.page(), productCriteria.size()));
+                );
 
+        productCriteria.facets().stream()
+                .filter(facet -> !cachedFacets.containsKey(facet))
+                .forEach(facet -> nativeQuery
+                        .withAggregation(facet.getAggregationName(), facetAggregations.get(facet)));
 
         nativeQuery.withFilter(f -> f
                 .bool(b -> {
@@ -72,29 +153,45 @@ public class ProductService {
                     return b;
                 })
         );
+        return nativeQuery;
+    }
 
-        if (productCriteria.sortType() == SortType.PRICE_ASC) {
-            nativeQuery.withSort(Sort.by(Sort.Direction.ASC, ProductField.PRICE));
-        } else if (productCriteria.sortType() == SortType.PRICE_DESC) {
-            nativeQuery.withSort(Sort.by(Sort.Direction.DESC, ProductField.PRICE));
-        } else {
-            nativeQuery.withSort(Sort.by(Sort.Direction.DESC, ProductField.CREATE_ON));
+    private static Sort getSort(SortType sortType) {
+        if (sortType == SortType.PRICE_ASC) {
+            return Sort.by(Sort.Direction.ASC, ProductField.PRICE);
+        } else if (sortType == SortType.PRICE_DESC) {
+            return Sort.by(Sort.Direction.DESC, ProductField.PRICE);
         }
+        return Sort.by(Sort.Direction.DESC, ProductField.CREATE_ON);
+    }
 
-        SearchHits<Product> searchHitsResult = elasticsearchOperations.search(nativeQuery.build(), Product.class);
-        SearchPage<Product> productPage = SearchHitSupport.searchPageFor(searchHitsResult, nativeQuery.getPageable());
-
-        List<ProductGetVm> productListVmList = searchHitsResult.stream()
-                .map(i -> ProductGetVm.fromModel(i.getContent())).toList();
+    private Map<ProductFacet, Map<String, Long>> getCachedFacets(ProductCriteriaDto productCriteria) {
+        Map<ProductFacet, Map<String, Long>> cachedFacets = new EnumMap<>(ProductFacet.class);
+        for (ProductFacet facet : productCriteria.facets()) {
+            Map<String, Long> buckets = productSearchCache.getFacet(productCriteria.keyword(), facet);
+            if (buckets != null) {
+                cachedFacets.put(facet, buckets);
+            }
+        }
+        return cachedFacets;
+    }
 
-        return new ProductListGetVm(
-                productListVmList,
-                productPage.getNumber(),
-                productPage.getSize(),
-                productPage.getTotalElements(),
-                productPage.getTotalPages(),
-                productPage.isLast(),
-                getAggregations(searchHitsResult));
+    private Map<String, Map<String, Long>> resolveAggregations(ProductCriteriaDto productCriteria,
+                                                               Map<ProductFacet, Map<String, Long>> cachedFacets,
+                                                               SearchHits<Product> searchHits) {
+        if (productCriteria.facets().isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Map<String, Long>> aggregations = LinkedHashMap.newLinkedHashMap(productCriteria.facets().size());
+        for (ProductFacet facet : productCriteria.facets()) {
+            Map<String, Long> buckets = cachedFacets.get(facet);
+            if (buckets == null) {
+                buckets = getBuckets(searchHits.getAggregations(), facet);
+                productSearchCache.putFacet(productCriteria.keyword(), facet, buckets);
+            }
+            aggregations.put(facet.getAggregationName(), buckets);
+        }
+        return aggregations;
     }
 
     private void extractedTermsFilter(String fieldValues, String productField, BoolQuery.Builder b) {
@@ -129,41 +226,17 @@ public class ProductService {
         }
     }
 
-    private Map<String, Map<String, Long>> getAggregations(SearchHits<Product> searchHits) {
-        List<org.springframework.data.elasticsearch.client.elc.Aggregation> aggregations = new ArrayList<>();
-        if (searchHits.hasAggregations()) {
-            ((List<ElasticsearchAggregation>) searchHits.getAggregations().aggregations()) //NOSONAR
-                    .forEach(elsAgg -> aggregations.add(elsAgg.aggregation()));
+    private static Map<String, Long> getBuckets(AggregationsContainer<?> aggregations, ProductFacet facet) {
+        if (!(aggregations instanceof ElasticsearchAggregations elasticsearchAggregations)) {
+            return Map.of();
         }
-
-        Map<String, Map<String, Long>> aggregationsMap = new HashMap<>();
-        aggregations.forEach(agg -> {
-            Map<String, Long> aggregation = new HashMap<>();
-            StringTermsAggregate stringTermsAggregate = (StringTermsAggregate) agg.getAggregate()._get();
-            List<StringTermsBucket> stringTermsBuckets
-                    = (List<StringTermsBucket>) stringTermsAggregate.buckets()._get();
-            stringTermsBuckets.forEach(bucket -> aggregation.put(bucket.key()._get().toString(), bucket.docCount()));
-            aggregationsMap.put(agg.getName(), aggregation);
-        });
-
-        return aggregationsMap;
-    }
-
-    public ProductNameListVm autoCompleteProductName(final String keyword) {
-        NativeQuery matchQuery = NativeQuery.builder()
-                .withQuery(
-                        q -> q.matchPhrasePrefix(
-                                matchPhrasePrefix -> matchPhrasePrefix.field("name").query(keyword)
-                        )
-                )
-                .withSourceFilter(new FetchSourceFilter(
-                        new String[]{"name"},
-                        null)
-                )
-                .build();
-        SearchHits<Product> result = elasticsearchOperations.search(matchQuery, Product.class);
-        List<Product> products = result.stream().map(SearchHit::getContent).toList();
-
-        return new ProductNameListVm(products.stream().map(ProductNameGetVm::fromModel).toList());
+        ElasticsearchAggregation aggregation = elasticsearchAggregations.get(facet.getAggregationName());
+        if (aggregation == null || !aggregation.aggregation().getAggregate().isSterms()) {
+            return Map.of();
+        }
+        List<StringTermsBucket> termsBuckets = aggregation.aggregation().getAggregate().sterms().buckets().array();
+        Map<String, Long> buckets = LinkedHashMap.newLinkedHashMap(termsBuckets.size());
+        termsBuckets.forEach(bucket -> buckets.put(bucket.key().stringValue(), bucket.docCount()));
+        return Collections.unmodifiableMap(buckets);
     }
 }
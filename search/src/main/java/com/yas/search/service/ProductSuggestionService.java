@@ -0,0 +1,145 @@
+package com.yas.search.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggestOption;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yas.commonlibrary.exception.InternalServerErrorException;
+import com.yas.search.config.ProductSuggestConfig;
+import com.yas.search.constant.MessageCode;
+import com.yas.search.constant.ProductField;
+import com.yas.search.model.Product;
+import com.yas.search.viewmodel.ProductNameGetVm;
+import com.yas.search.viewmodel.ProductNameListVm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.stereotype.Service;
+
+/**
+ * Product name typeahead served by the completion suggester on {@link ProductField#NAME_SUGGEST}, with the
+ * suggestions of recent prefixes kept in memory.
+ *
+ * <p>The completion mapping is added to an index created before the field existed at startup, its documents
+ * only get suggestions once written again, by CDC or by a reindex. Until then a prefix without any completion
+ * falls back to a phrase prefix query on {@link ProductField#NAME}. A failed request degrades to no suggestion
+ * and is not cached.</p>
+ */
+@Slf4j
+@Service
+public class ProductSuggestionService {
+
+    private static final String NAME_SUGGESTION = "name-suggestion";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductSuggestConfig productSuggestConfig;
+    private final Cache<String, ProductNameListVm> suggestions;
+
+    public ProductSuggestionService(ElasticsearchClient elasticsearchClient,
+                                    ElasticsearchOperations elasticsearchOperations,
+                                    ProductSuggestConfig productSuggestConfig,
+                                    MeterRegistry meterRegistry) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.productSuggestConfig = productSuggestConfig;
+        this.suggestions = Caffeine.newBuilder()
+            .maximumSize(productSuggestConfig.cacheMaxSize())
+            .expireAfterWrite(productSuggestConfig.cacheTtl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, suggestions, "search.product.suggestions");
+    }
+
+    /**
+     * Put the mapping of {@link Product} on the existing index, which adds {@link ProductField#NAME_SUGGEST}
+     * when the index was created without it. A new index is created with it, including by a reindex.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void putNameSuggestMapping() {
+        IndexOperations productIndexOps = elasticsearchOperations.indexOps(Product.class);
+        try {
+            if (productIndexOps.exists()) {
+                productIndexOps.putMapping();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cannot put the mapping of '{}' on the product index, name suggestions need a reindex",
+                ProductField.NAME_SUGGEST, e);
+        }
+    }
+
+    public ProductNameListVm autoCompleteProductName(final String keyword) {
+        String prefix = StringUtils.normalizeSpace(StringUtils.defaultString(keyword)).toLowerCase(Locale.ROOT);
+        if (prefix.isEmpty()) {
+            return new ProductNameListVm(List.of());
+        }
+        try {
+            return suggestions.get(prefix, this::suggest);
+        } catch (ElasticsearchException e) {
+            log.warn("Cannot get product name suggestions for '{}': {}", prefix, e.getMessage());
+            return new ProductNameListVm(List.of());
+        }
+    }
+
+    private ProductNameListVm suggest(String prefix) {
+        String index = elasticsearchOperations.getIndexCoordinatesFor(Product.class).getIndexName();
+        try {
+            SearchResponse<ProductNameGetVm> response = elasticsearchClient.search(request -> request
+                    .index(index)
+                    .size(0)
+                    .source(source -> source.filter(filter -> filter.includes(ProductField.NAME)))
+                    .suggest(suggest -> suggest
+                        .suggesters(NAME_SUGGESTION, suggester -> suggester
+                            .prefix(prefix)
+                            .completion(completion -> completion
+                                .field(ProductField.NAME_SUGGEST)
+                                .size(productSuggestConfig.size())
+                                .skipDuplicates(true)))),
+                ProductNameGetVm.class);
+
+            List<ProductNameGetVm> productNames = response.suggest()
+                .getOrDefault(NAME_SUGGESTION, List.of()).stream()
+                .filter(Suggestion::isCompletion)
+                .flatMap(suggestion -> suggestion.completion().options().stream())
+                .map(CompletionSuggestOption::source)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+            return new ProductNameListVm(productNames.isEmpty() ? matchNamePrefix(index, prefix) : productNames);
+        } catch (IOException e) {
+            log.error("Cannot get product name suggestions for '{}'", prefix, e);
+            throw new InternalServerErrorException(MessageCode.PRODUCT_SUGGESTION_FAILED);
+        }
+    }
+
+    // Documents indexed before the completion field existed have no suggestion until they are written again
+    private List<ProductNameGetVm> matchNamePrefix(String index, String prefix) throws IOException {
+        SearchResponse<ProductNameGetVm> response = elasticsearchClient.search(request -> request
+                .index(index)
+                .size(productSuggestConfig.size())
+                .source(source -> source.filter(filter -> filter.includes(ProductField.NAME)))
+                .query(query -> query.matchPhrasePrefix(matchPhrasePrefix -> matchPhrasePrefix
+                    .field(ProductField.NAME)
+                    .query(prefix))),
+            ProductNameGetVm.class);
+
+        return response.hits().hits().stream()
+            .map(Hit::source)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+    }
+}
@@ -7,10 +7,18 @@ import com.yas.search.model.Product;
 import com.yas.search.repository.ProductRepository;
 import com.yas.search.viewmodel.ProductEsDetailVm;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -18,11 +26,16 @@ import org.springframework.web.util.UriComponentsBuilder;
 @RequiredArgsConstructor
 public class ProductSyncDataService {
 
+    // Keeps the comma separated ids well below the request line limit of the product service
+    private static final int MAX_IDS_PER_REQUEST = 200;
+
     private final Logger log = LoggerFactory.getLogger(ProductSyncDataService.class);
 
     private final RestClient restClient;
     private final ServiceUrlConfig serviceUrlConfig;
     private final ProductRepository productRepository;
+    private final ProductIndexDualWriter productIndexDualWriter;
+    private final ProductEnrichmentService productEnrichmentService;
 
     public ProductEsDetailVm getProductEsDetailById(Long id) {
         final URI url = UriComponentsBuilder.fromHttpUrl(
@@ -40,10 +53,12 @@ public class ProductSyncDataService {
 
         if (!productEsDetailVm.isPublished()) {
             productRepository.deleteById(id);
+            productIndexDualWriter.deleteAll(List.of(id));
             return;
         }
 
         product.setName(productEsDetailVm.name());
+        product.setNameSuggest(Product.toNameSuggest(productEsDetailVm.name()));
         product.setSlug(productEsDetailVm.slug());
         product.setPrice(productEsDetailVm.price());
         product.setIsPublished(true);
@@ -54,15 +69,98 @@ public class ProductSyncDataService {
         product.setBrand(productEsDetailVm.brand());
         product.setCategories(productEsDetailVm.categories());
         product.setAttributes(productEsDetailVm.attributes());
+        productEnrichmentService.enrich(List.of(product));
         productRepository.save(product);
+        productIndexDualWriter.save(product);
     }
 
     public void createProduct(Long id) {
         ProductEsDetailVm productEsDetailVm = getProductEsDetailById(id);
+        Product product = toProduct(id, productEsDetailVm);
+        productEnrichmentService.enrich(List.of(product));
+        productRepository.save(product);
+        productIndexDualWriter.save(product);
+    }
+
+    /**
+     * Synchronize a batch of products with one detail request per chunk of ids and one bulk write.
+     * Products which no longer exist or are unpublished are removed from the index.
+     *
+     * @param upsertIds ids of created or updated products
+     * @param deleteIds ids of hard deleted products
+     */
+    public void syncProducts(Collection<Long> upsertIds, Collection<Long> deleteIds) {
+        List<Long> idsToDelete = new ArrayList<>(deleteIds);
+
+        if (!upsertIds.isEmpty()) {
+            Map<Long, ProductEsDetailVm> productEsDetailVms = getProductEsDetailByIds(upsertIds).stream()
+                    .collect(Collectors.toMap(ProductEsDetailVm::id, Function.identity()));
+
+            List<Product> productsToSave = new ArrayList<>(upsertIds.size());
+            for (Long id : upsertIds) {
+                ProductEsDetailVm productEsDetailVm = productEsDetailVms.get(id);
+                if (productEsDetailVm == null || !productEsDetailVm.isPublished()) {
+                    idsToDelete.add(id);
+                } else {
+                    productsToSave.add(toProduct(id, productEsDetailVm));
+                }
+            }
+            if (!productsToSave.isEmpty()) {
+                productEnrichmentService.enrich(productsToSave);
+                productRepository.saveAll(productsToSave);
+                productIndexDualWriter.saveAll(productsToSave);
+            }
+        }
+
+        if (!idsToDelete.isEmpty()) {
+            productRepository.deleteAllById(idsToDelete);
+            productIndexDualWriter.deleteAll(idsToDelete);
+        }
+    }
 
-        Product product = Product.builder()
+    public List<ProductEsDetailVm> getProductEsDetailByIds(Collection<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<ProductEsDetailVm> productEsDetailVms = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += MAX_IDS_PER_REQUEST) {
+            List<Long> chunk = idList.subList(from, Math.min(from + MAX_IDS_PER_REQUEST, idList.size()));
+            final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.product())
+                    .path("/storefront/products-es")
+                    .queryParam("ids", StringUtils.collectionToCommaDelimitedString(chunk))
+                    .build()
+                    .toUri();
+            List<ProductEsDetailVm> body = restClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<List<ProductEsDetailVm>>() {});
+            if (body != null) {
+                productEsDetailVms.addAll(body);
+            }
+        }
+        return productEsDetailVms;
+    }
+
+    /**
+     * Page through published products ordered by id, used by a full reindex.
+     */
+    public List<ProductEsDetailVm> getPublishedProductEsDetails(long afterId, int pageSize) {
+        final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.product())
+                .path("/storefront/products-es/published")
+                .queryParam("afterId", afterId)
+                .queryParam("pageSize", pageSize)
+                .build()
+                .toUri();
+        List<ProductEsDetailVm> body = restClient.get()
+                .uri(url)
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<ProductEsDetailVm>>() {});
+        return body != null ? body : List.of();
+    }
+
+    static Product toProduct(Long id, ProductEsDetailVm productEsDetailVm) {
+        return Product.builder()
                 .id(id)
                 .name(productEsDetailVm.name())
+                .nameSuggest(Product.toNameSuggest(productEsDetailVm.name()))
                 .slug(productEsDetailVm.slug())
                 .price(productEsDetailVm.price())
                 .isPublished(productEsDetailVm.isPublished())
@@ -74,8 +172,6 @@ public class ProductSyncDataService {
                 .categories(productEsDetailVm.categories())
                 .attributes(productEsDetailVm.attributes())
                 .build();
-
-        productRepository.save(product);
     }
 
     public void deleteProduct(Long id) {
@@ -85,5 +181,6 @@ public class ProductSyncDataService {
         } else {
             log.warn("Product {} doesn't exist in Elasticsearch.", id);
         }
+        productIndexDualWriter.deleteAll(List.of(id));
     }
 }
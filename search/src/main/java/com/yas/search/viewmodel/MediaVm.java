@@ -0,0 +1,4 @@
+package com.yas.search.viewmodel;
+
+public record MediaVm(Long id, String url) {
+}
@@ -7,24 +7,30 @@ public record ProductGetVm(Long id,
                            String name,
                            String slug,
                            Long thumbnailId,
+                           String thumbnailUrl,
                            Double price,
                            Boolean isAllowedToOrder,
                            Boolean isPublished,
                            Boolean isFeatured,
                            Boolean isVisibleIndividually,
-                           ZonedDateTime createdOn) {
+                           ZonedDateTime createdOn,
+                           Double averageRating,
+                           Long ratingCount) {
     public static ProductGetVm fromModel(Product product) {
         return new ProductGetVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
                 product.getThumbnailMediaId(),
+                product.getThumbnailUrl(),
                 product.getPrice(),
                 product.getIsAllowedToOrder(),
                 product.getIsPublished(),
                 product.getIsFeatured(),
                 product.getIsVisibleIndividually(),
-                product.getCreatedOn()
+                product.getCreatedOn(),
+                product.getAverageRating(),
+                product.getRatingCount()
         );
     }
 }
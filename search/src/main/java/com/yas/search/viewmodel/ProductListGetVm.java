@@ -10,6 +10,7 @@ public record ProductListGetVm(
         long totalElements,
         int totalPages,
         boolean isLast,
-        Map<String, Map<String, Long>> aggregations
+        Map<String, Map<String, Long>> aggregations,
+        String nextCursor
 ) {
 }
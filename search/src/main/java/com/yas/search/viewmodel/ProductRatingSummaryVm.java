@@ -0,0 +1,4 @@
+package com.yas.search.viewmodel;
+
+public record ProductRatingSummaryVm(Long productId, Double averageStar, Long ratingCount) {
+}
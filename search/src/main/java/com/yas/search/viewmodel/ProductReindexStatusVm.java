@@ -0,0 +1,15 @@
+package com.yas.search.viewmodel;
+
+import com.yas.search.constant.enums.ReindexState;
+import java.time.ZonedDateTime;
+
+public record ProductReindexStatusVm(
+        ReindexState state,
+        String indexName,
+        long indexedDocuments,
+        double documentsPerSecond,
+        ZonedDateTime startedOn,
+        ZonedDateTime finishedOn,
+        String error
+) {
+}
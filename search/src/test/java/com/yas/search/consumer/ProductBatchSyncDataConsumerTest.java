@@ -0,0 +1,166 @@
+package com.yas.search.consumer;
+
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.CREATE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.UPDATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.search.kafka.consumer.ProductBatchSyncDataConsumer;
+import com.yas.search.service.ProductCdcPayloadSyncService;
+import com.yas.search.service.ProductSearchCache;
+import com.yas.search.service.ProductSyncDataService;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.web.client.RestClientException;
+
+class ProductBatchSyncDataConsumerTest {
+
+    private static final String TOPIC = "dbproduct.public.product";
+
+    @InjectMocks
+    private ProductBatchSyncDataConsumer productBatchSyncDataConsumer;
+
+    @Mock
+    private ProductSyncDataService productSyncDataService;
+
+    @Mock
+    private ProductCdcPayloadSyncService productCdcPayloadSyncService;
+
+    @Mock
+    private ProductSearchCache productSearchCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testSync_whenSeveralEventsForSameProduct_coalescesToLatestEvent() {
+        // When
+        productBatchSyncDataConsumer.sync(List.of(
+            record(0, 1L, CREATE),
+            record(1, 2L, UPDATE),
+            record(2, 1L, UPDATE),
+            record(3, 2L, DELETE),
+            record(4, 3L, null)
+        ));
+
+        // Then
+        verify(productSyncDataService).syncProducts(Set.of(1L), Set.of(2L, 3L));
+        verify(productSearchCache).invalidateResults();
+    }
+
+    @Test
+    void testSync_whenDeletedProductIsRecreated_syncAsUpsert() {
+        // When
+        productBatchSyncDataConsumer.sync(List.of(
+            record(0, 1L, DELETE),
+            record(1, 1L, CREATE)
+        ));
+
+        // Then
+        verify(productSyncDataService).syncProducts(Set.of(1L), Set.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testSync_whenConsecutiveUpdates_applyMergedPayload() {
+        // Given
+        when(productCdcPayloadSyncService.applyUpdates(anyMap())).thenReturn(Set.of(2L));
+
+        // When
+        productBatchSyncDataConsumer.sync(List.of(
+            update(0, 1L, "A", "B"),
+            update(1, 1L, "B", "C"),
+            update(2, 2L, "X", "Y")
+        ));
+
+        // Then
+        ArgumentCaptor<Map<Long, ProductCdcMessage>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(productCdcPayloadSyncService).applyUpdates(captor.capture());
+        ProductCdcMessage merged = captor.getValue().get(1L);
+        assertThat(captor.getValue()).containsOnlyKeys(1L, 2L);
+        assertThat(merged.getBefore().getName()).isEqualTo("A");
+        assertThat(merged.getAfter().getName()).isEqualTo("C");
+        verify(productSyncDataService).syncProducts(Set.of(2L), Set.of());
+    }
+
+    @Test
+    void testSync_whenUpdatesAppliedFromPayload_skipFullSync() {
+        // When
+        productBatchSyncDataConsumer.sync(List.of(update(0, 1L, "A", "B")));
+
+        // Then
+        verify(productSyncDataService, never()).syncProducts(any(), any());
+    }
+
+    @Test
+    void testProcessMessages_whenPoisonRecordInTheMiddle_reportOnlyThisRecord() {
+        // Given
+        doThrow(new RestClientException("Product 2 can not be loaded")).when(productSyncDataService)
+            .syncProducts(argThat(ids -> ids.contains(2L)), any());
+
+        // When
+        assertThatThrownBy(() -> productBatchSyncDataConsumer.processMessages(List.of(
+            record(0, 1L, CREATE),
+            record(1, 2L, CREATE),
+            record(2, 3L, CREATE)
+        )))
+            .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                exception -> assertThat(exception.getIndex()).isEqualTo(1));
+
+        // Then the records before the poison record are synced, those after it are left to the redelivery
+        verify(productSyncDataService).syncProducts(Set.of(1L), Set.of());
+        verify(productSyncDataService, never()).syncProducts(Set.of(3L), Set.of());
+    }
+
+    @Test
+    void testSync_whenEmptyBatch_doNothing() {
+        // When
+        productBatchSyncDataConsumer.sync(List.of());
+
+        // Then
+        verify(productSyncDataService, never()).syncProducts(any(), any());
+        verify(productSearchCache, never()).invalidateResults();
+    }
+
+    private static ConsumerRecord<ProductMsgKey, ProductCdcMessage> record(long offset, long productId,
+                                                                            Operation operation) {
+        ProductCdcMessage message = operation == null ? null : ProductCdcMessage.builder()
+            .after(Product.builder().id(productId).build())
+            .op(operation)
+            .build();
+        return new ConsumerRecord<>(TOPIC, 0, offset, ProductMsgKey.builder().id(productId).build(), message);
+    }
+
+    private static ConsumerRecord<ProductMsgKey, ProductCdcMessage> update(long offset, long productId,
+                                                                            String nameBefore, String nameAfter) {
+        ProductCdcMessage message = ProductCdcMessage.builder()
+            .before(Product.builder().id(productId).name(nameBefore).build())
+            .after(Product.builder().id(productId).name(nameAfter).build())
+            .op(UPDATE)
+            .build();
+        return new ConsumerRecord<>(TOPIC, 0, offset, ProductMsgKey.builder().id(productId).build(), message);
+    }
+}
@@ -0,0 +1,101 @@
+package com.yas.search.consumer;
+
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.CREATE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.READ;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.UPDATE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.yas.commonlibrary.kafka.cdc.message.ProductRelation;
+import com.yas.commonlibrary.kafka.cdc.message.ProductRelationCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductRelationMsgKey;
+import com.yas.search.kafka.consumer.ProductRelationSyncDataConsumer;
+import com.yas.search.service.ProductSearchCache;
+import com.yas.search.service.ProductSyncDataService;
+import java.util.List;
+import java.util.Set;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class ProductRelationSyncDataConsumerTest {
+
+    private static final String TOPIC = "dbproduct.public.product_category";
+
+    private static final ProductRelationMsgKey KEY = ProductRelationMsgKey.builder().id(100L).build();
+
+    @InjectMocks
+    private ProductRelationSyncDataConsumer productRelationSyncDataConsumer;
+
+    @Mock
+    private ProductSyncDataService productSyncDataService;
+
+    @Mock
+    private ProductSearchCache productSearchCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testSync_whenCategoryAdded_syncProductInFull() {
+        productRelationSyncDataConsumer.sync(List.of(record(0, ProductRelationCdcMessage.builder()
+            .after(relation(1L))
+            .op(CREATE)
+            .build())));
+
+        verify(productSyncDataService).syncProducts(Set.of(1L), Set.of());
+        verify(productSearchCache).invalidateResults();
+    }
+
+    @Test
+    void testSync_whenAttributeValueDeleted_syncProductOfBeforeImage() {
+        productRelationSyncDataConsumer.sync(List.of(record(0, ProductRelationCdcMessage.builder()
+            .before(relation(1L))
+            .op(DELETE)
+            .build())));
+
+        verify(productSyncDataService).syncProducts(Set.of(1L), Set.of());
+    }
+
+    @Test
+    void testSync_whenManyRelationsOfSameProducts_syncEachProductOnce() {
+        productRelationSyncDataConsumer.sync(List.of(
+            record(0, ProductRelationCdcMessage.builder().after(relation(1L)).op(CREATE).build()),
+            record(1, ProductRelationCdcMessage.builder().after(relation(1L)).op(CREATE).build()),
+            record(2, ProductRelationCdcMessage.builder().after(relation(2L)).op(CREATE).build()),
+            record(3, ProductRelationCdcMessage.builder().before(relation(1L)).after(relation(2L)).op(UPDATE).build())
+        ));
+
+        verify(productSyncDataService).syncProducts(Set.of(1L, 2L), Set.of());
+        verify(productSearchCache).invalidateResults();
+    }
+
+    @Test
+    void testSync_whenSnapshotReadOrTombstone_doNothing() {
+        productRelationSyncDataConsumer.sync(List.of(
+            record(0, ProductRelationCdcMessage.builder()
+                .after(relation(1L))
+                .op(READ)
+                .build()),
+            record(1, null)));
+
+        verify(productSyncDataService, never()).syncProducts(any(), any());
+        verify(productSearchCache, never()).invalidateResults();
+    }
+
+    private static ConsumerRecord<ProductRelationMsgKey, ProductRelationCdcMessage> record(
+        long offset, ProductRelationCdcMessage productRelationCdcMessage) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, KEY, productRelationCdcMessage);
+    }
+
+    private static ProductRelation relation(Long productId) {
+        return ProductRelation.builder().id(KEY.getId()).productId(productId).build();
+    }
+}
@@ -3,14 +3,20 @@ package com.yas.search.consumer;
 import static com.yas.commonlibrary.kafka.cdc.message.Operation.CREATE;
 import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
 import static com.yas.commonlibrary.kafka.cdc.message.Operation.UPDATE;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
 import com.yas.search.kafka.consumer.ProductSyncDataConsumer;
 import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.search.service.ProductCdcPayloadSyncService;
+import com.yas.search.service.ProductSearchCache;
 import com.yas.search.service.ProductSyncDataService;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -26,6 +32,12 @@ class ProductSyncDataConsumerTest {
     @Mock
     private ProductSyncDataService productSyncDataService;
 
+    @Mock
+    private ProductCdcPayloadSyncService productCdcPayloadSyncService;
+
+    @Mock
+    private ProductSearchCache productSearchCache;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -51,6 +63,7 @@ class ProductSyncDataConsumerTest {
     void testSync_whenUpdateAction_updateProduct() {
         // When
         long productId = 2L;
+        when(productCdcPayloadSyncService.applyUpdates(anyMap())).thenReturn(Set.of(productId));
         productSyncDataConsumer.sync(
             ProductMsgKey.builder().id(productId).build(),
             ProductCdcMessage.builder()
@@ -63,6 +76,24 @@ class ProductSyncDataConsumerTest {
         verify(productSyncDataService, times(1)).updateProduct(productId);
     }
 
+    @Test
+    void testSync_whenUpdateAppliedFromPayload_skipFullSync() {
+        // When
+        long productId = 4L;
+        when(productCdcPayloadSyncService.applyUpdates(anyMap())).thenReturn(Set.of());
+        productSyncDataConsumer.sync(
+            ProductMsgKey.builder().id(productId).build(),
+            ProductCdcMessage.builder()
+                .before(Product.builder().id(productId).name("Old").build())
+                .after(Product.builder().id(productId).name("New").build())
+                .op(UPDATE)
+                .build()
+        );
+
+        // Then
+        verify(productSyncDataService, never()).updateProduct(productId);
+    }
+
     @Disabled("Handle later once elasticsearch sync delete complete")
     @Test
     void testSync_whenDeleteAction_deleteProduct() {
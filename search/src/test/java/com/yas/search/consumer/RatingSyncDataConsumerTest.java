@@ -0,0 +1,84 @@
+package com.yas.search.consumer;
+
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.CREATE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.UPDATE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.yas.commonlibrary.kafka.cdc.message.Rating;
+import com.yas.commonlibrary.kafka.cdc.message.RatingCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.RatingMsgKey;
+import com.yas.search.kafka.consumer.RatingSyncDataConsumer;
+import com.yas.search.service.ProductEnrichmentService;
+import com.yas.search.service.ProductSearchCache;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class RatingSyncDataConsumerTest {
+
+    private static final RatingMsgKey KEY = RatingMsgKey.builder().id(100L).build();
+
+    @InjectMocks
+    private RatingSyncDataConsumer ratingSyncDataConsumer;
+
+    @Mock
+    private ProductEnrichmentService productEnrichmentService;
+
+    @Mock
+    private ProductSearchCache productSearchCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testSync_whenRatingCreated_syncProductRating() {
+        ratingSyncDataConsumer.sync(KEY, RatingCdcMessage.builder()
+            .after(rating(1L))
+            .op(CREATE)
+            .build());
+
+        verify(productEnrichmentService).syncRatings(Set.of(1L));
+        verify(productSearchCache).invalidateResults();
+    }
+
+    @Test
+    void testSync_whenRatingDeleted_syncProductOfBeforeImage() {
+        ratingSyncDataConsumer.sync(KEY, RatingCdcMessage.builder()
+            .before(rating(1L))
+            .op(DELETE)
+            .build());
+
+        verify(productEnrichmentService).syncRatings(Set.of(1L));
+    }
+
+    @Test
+    void testSync_whenRatingMovedToAnotherProduct_syncBothProducts() {
+        ratingSyncDataConsumer.sync(KEY, RatingCdcMessage.builder()
+            .before(rating(1L))
+            .after(rating(2L))
+            .op(UPDATE)
+            .build());
+
+        verify(productEnrichmentService).syncRatings(Set.of(1L, 2L));
+    }
+
+    @Test
+    void testSync_whenTombstone_doNothing() {
+        ratingSyncDataConsumer.sync(KEY, null);
+
+        verify(productEnrichmentService, never()).syncRatings(any());
+        verify(productSearchCache, never()).invalidateResults();
+    }
+
+    private static Rating rating(Long productId) {
+        return Rating.builder().id(KEY.getId()).productId(productId).ratingStar(5).build();
+    }
+}
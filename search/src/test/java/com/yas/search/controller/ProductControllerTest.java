@@ -11,6 +11,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.yas.search.ElasticsearchApplication;
 import com.yas.search.model.ProductCriteriaDto;
 import com.yas.search.service.ProductService;
+import com.yas.search.service.ProductSuggestionService;
 import com.yas.search.viewmodel.ProductGetVm;
 import com.yas.search.viewmodel.ProductListGetVm;
 import com.yas.search.viewmodel.ProductNameGetVm;
@@ -38,6 +39,9 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductSuggestionService productSuggestionService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -49,16 +53,19 @@ class ProductControllerTest {
             "Sample Product",
             "sample-product",
             123L,
+            "http://api.yas.local/media/medias/123/file/sample.png",
             29.99,
             true,
             true,
             false,
             true,
-            ZonedDateTime.now()
+            ZonedDateTime.now(),
+            4.5,
+            2L
         );
 
         ProductListGetVm mockResponse = new ProductListGetVm(
-            List.of(productGetVm), 0, 1, 1, 1, true, Map.of()
+            List.of(productGetVm), 0, 1, 1, 1, true, Map.of(), null
         );
 
 
@@ -85,7 +92,7 @@ class ProductControllerTest {
         ProductNameListVm mockResponse = new ProductNameListVm(
             List.of(new ProductNameGetVm("Product1"))
         );
-        when(productService.autoCompleteProductName(anyString())).thenReturn(mockResponse);
+        when(productSuggestionService.autoCompleteProductName(anyString())).thenReturn(mockResponse);
 
         mockMvc.perform(get("/storefront/search_suggest")
                 .param("keyword", "test")
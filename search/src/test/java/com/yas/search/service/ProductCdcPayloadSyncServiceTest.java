@@ -0,0 +1,132 @@
+package com.yas.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.search.config.ProductSyncConfig;
+import com.yas.search.constant.ProductField;
+import com.yas.search.repository.ProductRepository;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+
+class ProductCdcPayloadSyncServiceTest {
+
+    private static final IndexCoordinates PRODUCT_INDEX = IndexCoordinates.of("product");
+
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ProductRepository productRepository;
+
+    private ProductIndexDualWriter productIndexDualWriter;
+
+    @BeforeEach
+    void setUp() {
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        productRepository = mock(ProductRepository.class);
+        productIndexDualWriter = mock(ProductIndexDualWriter.class);
+        when(elasticsearchOperations.getIndexCoordinatesFor(com.yas.search.model.Product.class))
+            .thenReturn(PRODUCT_INDEX);
+    }
+
+    @Test
+    void testApplyUpdates_whenDisabled_requireFullSync() {
+        var service = createService(false);
+
+        var fullSyncIds = service.applyUpdates(Map.of(1L, message(product(1L, "A", 1L), product(1L, "B", 1L))));
+
+        assertThat(fullSyncIds).containsExactly(1L);
+        verify(elasticsearchOperations, never()).bulkUpdate(anyList(), any(IndexCoordinates.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testApplyUpdates_whenOnlyScalarFieldsChanged_sendPartialUpdate() {
+        var service = createService(true);
+
+        var fullSyncIds = service.applyUpdates(Map.of(1L, message(product(1L, "A", 1L), product(1L, "B", 1L))));
+
+        assertThat(fullSyncIds).isEmpty();
+        ArgumentCaptor<List<UpdateQuery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations).bulkUpdate(captor.capture(), any(IndexCoordinates.class));
+        UpdateQuery updateQuery = captor.getValue().getFirst();
+        assertThat(updateQuery.getId()).isEqualTo("1");
+        assertThat(updateQuery.getDocument()).containsOnlyKeys(ProductField.NAME, ProductField.NAME_SUGGEST);
+        assertThat(updateQuery.getDocument().get(ProductField.NAME)).isEqualTo("B");
+        verify(productIndexDualWriter).updateAll(captor.getValue());
+    }
+
+    @Test
+    void testApplyUpdates_whenBrandChanged_requireFullSync() {
+        var service = createService(true);
+
+        var fullSyncIds = service.applyUpdates(Map.of(1L, message(product(1L, "A", 1L), product(1L, "A", 2L))));
+
+        assertThat(fullSyncIds).containsExactly(1L);
+        verify(elasticsearchOperations, never()).bulkUpdate(anyList(), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testApplyUpdates_whenThumbnailChanged_requireFullSync() {
+        var service = createService(true);
+        Product after = product(1L, "A", 1L);
+        after.setThumbnailMediaId(5L);
+
+        var fullSyncIds = service.applyUpdates(Map.of(1L, message(product(1L, "A", 1L), after)));
+
+        assertThat(fullSyncIds).containsExactly(1L);
+        verify(elasticsearchOperations, never()).bulkUpdate(anyList(), any(IndexCoordinates.class));
+    }
+
+    @Test
+    void testApplyUpdates_whenUnpublished_deleteProduct() {
+        var service = createService(true);
+        Product after = product(1L, "A", 1L);
+        after.setPublished(false);
+
+        var fullSyncIds = service.applyUpdates(Map.of(1L, message(product(1L, "A", 1L), after)));
+
+        assertThat(fullSyncIds).isEmpty();
+        verify(productRepository).deleteAllById(List.of(1L));
+        verify(productIndexDualWriter).deleteAll(List.of(1L));
+    }
+
+    @Test
+    void testApplyUpdates_whenDocumentMissing_requireFullSync() {
+        var service = createService(true);
+        doThrow(new BulkFailureException("failed", Map.of("1",
+            new BulkFailureException.FailureDetails(404, "document_missing_exception"))))
+            .when(elasticsearchOperations).bulkUpdate(anyList(), any(IndexCoordinates.class));
+
+        var fullSyncIds = service.applyUpdates(Map.of(1L, message(product(1L, "A", 1L), product(1L, "B", 1L))));
+
+        assertThat(fullSyncIds).containsExactly(1L);
+    }
+
+    private ProductCdcPayloadSyncService createService(boolean applyCdcPayload) {
+        return new ProductCdcPayloadSyncService(elasticsearchOperations, productRepository, productIndexDualWriter,
+            new ProductSyncConfig(applyCdcPayload));
+    }
+
+    private static ProductCdcMessage message(Product before, Product after) {
+        return ProductCdcMessage.builder().before(before).after(after).build();
+    }
+
+    private static Product product(long id, String name, Long brandId) {
+        return Product.builder().id(id).name(name).brandId(brandId).isPublished(true).build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.yas.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.search.config.ServiceUrlConfig;
+import com.yas.search.constant.ProductField;
+import com.yas.search.model.Product;
+import com.yas.search.repository.ProductRepository;
+import com.yas.search.viewmodel.MediaVm;
+import com.yas.search.viewmodel.ProductRatingSummaryVm;
+import java.net.URI;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+class ProductEnrichmentServiceTest {
+
+    private static final IndexCoordinates PRODUCT_INDEX = IndexCoordinates.of("product");
+    private static final URI MEDIA_URL = URI.create("http://api.yas.local/media/medias?ids=10");
+    private static final URI RATING_URL =
+        URI.create("http://api.yas.local/rating/storefront/ratings/products/summary?productIds=1,2");
+
+    private RestClient restClient;
+
+    private RestClient.RequestHeadersUriSpec requestHeadersUriSpec;
+
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ProductRepository productRepository;
+
+    private ProductIndexDualWriter productIndexDualWriter;
+
+    private ProductEnrichmentService productEnrichmentService;
+
+    @BeforeEach
+    void setUp() {
+        restClient = mock(RestClient.class);
+        requestHeadersUriSpec = mock(RestClient.RequestHeadersUriSpec.class);
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        productRepository = mock(ProductRepository.class);
+        productIndexDualWriter = mock(ProductIndexDualWriter.class);
+        when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        when(elasticsearchOperations.getIndexCoordinatesFor(Product.class)).thenReturn(PRODUCT_INDEX);
+        productEnrichmentService = new ProductEnrichmentService(restClient,
+            new ServiceUrlConfig("http://api.yas.local/product", "http://api.yas.local/media",
+                "http://api.yas.local/rating"),
+            elasticsearchOperations, productRepository, productIndexDualWriter);
+    }
+
+    @Test
+    void testEnrich_whenServicesRespond_setThumbnailUrlAndRatingSummary() {
+        mockResponse(MEDIA_URL, List.of(new MediaVm(10L, "http://media/10.png")));
+        mockResponse(RATING_URL, List.of(new ProductRatingSummaryVm(1L, 4.5, 2L)));
+        Product rated = Product.builder().id(1L).thumbnailMediaId(10L).build();
+        Product unrated = Product.builder().id(2L).build();
+
+        productEnrichmentService.enrich(List.of(rated, unrated));
+
+        assertThat(rated.getThumbnailUrl()).isEqualTo("http://media/10.png");
+        assertThat(rated.getAverageRating()).isEqualTo(4.5);
+        assertThat(rated.getRatingCount()).isEqualTo(2L);
+        assertThat(unrated.getThumbnailUrl()).isNull();
+        assertThat(unrated.getAverageRating()).isNull();
+        assertThat(unrated.getRatingCount()).isZero();
+    }
+
+    @Test
+    void testEnrich_whenRatingServiceFails_leaveRatingEmpty() {
+        mockResponse(MEDIA_URL, List.of(new MediaVm(10L, "http://media/10.png")));
+        mockError(RATING_URL);
+        Product product = Product.builder().id(1L).thumbnailMediaId(10L).build();
+        Product other = Product.builder().id(2L).build();
+
+        productEnrichmentService.enrich(List.of(product, other));
+
+        assertThat(product.getThumbnailUrl()).isEqualTo("http://media/10.png");
+        assertThat(product.getAverageRating()).isNull();
+        assertThat(product.getRatingCount()).isNull();
+    }
+
+    @Test
+    void testEnrich_whenMediaServiceFailsOnIndexedProduct_keepIndexedThumbnailUrl() {
+        mockError(MEDIA_URL);
+        mockResponse(RATING_URL, List.of(new ProductRatingSummaryVm(1L, 4.5, 2L)));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(
+            Product.builder().id(1L).thumbnailMediaId(10L).thumbnailUrl("http://media/10.png").build()));
+        Product product = Product.builder().id(1L).thumbnailMediaId(10L).build();
+        Product other = Product.builder().id(2L).build();
+
+        productEnrichmentService.enrich(List.of(product, other));
+
+        assertThat(product.getThumbnailUrl()).isEqualTo("http://media/10.png");
+        assertThat(product.getAverageRating()).isEqualTo(4.5);
+    }
+
+    @Test
+    void testEnrich_whenMediaServiceFailsAfterThumbnailChanged_leaveThumbnailUrlEmpty() {
+        mockError(MEDIA_URL);
+        mockResponse(RATING_URL, List.of());
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(
+            Product.builder().id(1L).thumbnailMediaId(9L).thumbnailUrl("http://media/9.png").build()));
+        Product product = Product.builder().id(1L).thumbnailMediaId(10L).build();
+
+        productEnrichmentService.enrich(List.of(product, Product.builder().id(2L).build()));
+
+        assertThat(product.getThumbnailUrl()).isNull();
+    }
+
+    @Test
+    void testEnrich_whenRatingServiceFailsOnIndexedProduct_keepIndexedRating() {
+        mockResponse(MEDIA_URL, List.of(new MediaVm(10L, "http://media/10.png")));
+        mockError(RATING_URL);
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(
+            Product.builder().id(1L).averageRating(3.5).ratingCount(4L).build()));
+        Product product = Product.builder().id(1L).thumbnailMediaId(10L).build();
+        Product other = Product.builder().id(2L).build();
+
+        productEnrichmentService.enrich(List.of(product, other));
+
+        assertThat(product.getThumbnailUrl()).isEqualTo("http://media/10.png");
+        assertThat(product.getAverageRating()).isEqualTo(3.5);
+        assertThat(product.getRatingCount()).isEqualTo(4L);
+        assertThat(other.getRatingCount()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSyncRatings_whenRatingsChanged_sendPartialUpdates() {
+        mockResponse(RATING_URL, List.of(new ProductRatingSummaryVm(1L, 4.5, 2L)));
+
+        productEnrichmentService.syncRatings(List.of(1L, 2L));
+
+        ArgumentCaptor<List<UpdateQuery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations).bulkUpdate(captor.capture(), any(IndexCoordinates.class));
+        List<UpdateQuery> updateQueries = captor.getValue();
+        assertThat(updateQueries).extracting(UpdateQuery::getId).containsExactly("1", "2");
+        assertThat(updateQueries.getFirst().getDocument())
+            .containsEntry(ProductField.AVERAGE_RATING, 4.5)
+            .containsEntry(ProductField.RATING_COUNT, 2L);
+        assertThat(updateQueries.get(1).getDocument())
+            .containsEntry(ProductField.AVERAGE_RATING, null)
+            .containsEntry(ProductField.RATING_COUNT, 0L);
+        verify(productIndexDualWriter).updateAll(updateQueries);
+    }
+
+    @Test
+    void testSyncRatings_whenRatingServiceFails_doNotUpdate() {
+        mockError(RATING_URL);
+
+        productEnrichmentService.syncRatings(List.of(1L, 2L));
+
+        verify(elasticsearchOperations, never()).bulkUpdate(anyList(), any(IndexCoordinates.class));
+    }
+
+    private RestClient.ResponseSpec mockUri(URI url) {
+        RestClient.RequestHeadersUriSpec uriSpec = mock(RestClient.RequestHeadersUriSpec.class);
+        RestClient.ResponseSpec responseSpec = mock(RestClient.ResponseSpec.class);
+        when(requestHeadersUriSpec.uri(url)).thenReturn(uriSpec);
+        when(uriSpec.retrieve()).thenReturn(responseSpec);
+        return responseSpec;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockResponse(URI url, List<?> body) {
+        when(mockUri(url).body(any(ParameterizedTypeReference.class))).thenReturn(body);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockError(URI url) {
+        when(mockUri(url).body(any(ParameterizedTypeReference.class)))
+            .thenThrow(new ResourceAccessException("Connection refused"));
+    }
+}
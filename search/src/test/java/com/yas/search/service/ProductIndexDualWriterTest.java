@@ -0,0 +1,64 @@
+package com.yas.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.yas.search.model.Product;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+class ProductIndexDualWriterTest {
+
+    private static final IndexCoordinates BUILD_INDEX = IndexCoordinates.of("product_v20260101000000");
+
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ProductIndexDualWriter productIndexDualWriter;
+
+    @BeforeEach
+    void setUp() {
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        productIndexDualWriter = new ProductIndexDualWriter(elasticsearchOperations);
+    }
+
+    @Test
+    void testSaveAll_whenNoBuildInProgress_doNothing() {
+        productIndexDualWriter.saveAll(List.of(Product.builder().id(1L).build()));
+        productIndexDualWriter.deleteAll(List.of(2L));
+
+        verify(elasticsearchOperations, never()).save(any(Iterable.class), any(IndexCoordinates.class));
+        verify(elasticsearchOperations, never()).delete(anyString(), any(IndexCoordinates.class));
+        assertThat(productIndexDualWriter.drainTouchedProductIds()).isEmpty();
+    }
+
+    @Test
+    void testSaveAllAndDeleteAll_whenBuildInProgress_writeIntoBuildIndexAndTrackIds() {
+        List<Product> products = List.of(Product.builder().id(1L).build());
+        productIndexDualWriter.start(BUILD_INDEX);
+
+        productIndexDualWriter.saveAll(products);
+        productIndexDualWriter.deleteAll(List.of(2L));
+
+        verify(elasticsearchOperations).save(products, BUILD_INDEX);
+        verify(elasticsearchOperations).delete("2", BUILD_INDEX);
+        assertThat(productIndexDualWriter.drainTouchedProductIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(productIndexDualWriter.drainTouchedProductIds()).isEmpty();
+    }
+
+    @Test
+    void testStop_whenBuildFinished_stopMirroring() {
+        productIndexDualWriter.start(BUILD_INDEX);
+        productIndexDualWriter.stop();
+
+        productIndexDualWriter.save(Product.builder().id(1L).build());
+
+        verify(elasticsearchOperations, never()).save(any(Iterable.class), any(IndexCoordinates.class));
+    }
+}
@@ -0,0 +1,117 @@
+package com.yas.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.GetAliasResponse;
+import co.elastic.clients.elasticsearch.indices.GetIndexResponse;
+import co.elastic.clients.elasticsearch.indices.IndexState;
+import co.elastic.clients.elasticsearch.indices.get_alias.IndexAliases;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import co.elastic.clients.util.ObjectBuilder;
+import com.yas.search.config.ProductReindexConfig;
+import com.yas.search.constant.enums.ReindexState;
+import com.yas.search.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.web.client.RestClientException;
+
+class ProductReindexServiceTest {
+
+    private static final String PREVIOUS_LIVE_INDEX = "product_v20260101000000";
+    private static final String NEVER_LIVE_INDEX = "product_v20260301000000";
+
+    private ElasticsearchIndicesClient indicesClient;
+    private ProductSyncDataService productSyncDataService;
+    private ProductIndexDualWriter productIndexDualWriter;
+
+    private ProductReindexService productReindexService;
+
+    @BeforeEach
+    void setUp() {
+        ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+        when(elasticsearchOperations.getIndexCoordinatesFor(Product.class)).thenReturn(IndexCoordinates.of("product"));
+        when(elasticsearchOperations.indexOps(Product.class)).thenReturn(mock(IndexOperations.class));
+        when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenReturn(mock(IndexOperations.class));
+        ElasticsearchClient elasticsearchClient = mock(ElasticsearchClient.class);
+        indicesClient = mock(ElasticsearchIndicesClient.class);
+        when(elasticsearchClient.indices()).thenReturn(indicesClient);
+        productSyncDataService = mock(ProductSyncDataService.class);
+        productIndexDualWriter = mock(ProductIndexDualWriter.class);
+
+        productReindexService = new ProductReindexService(elasticsearchOperations, elasticsearchClient,
+            productSyncDataService, productIndexDualWriter, mock(ProductEnrichmentService.class),
+            mock(ProductSearchCache.class), new ProductReindexConfig(500, 1), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        productReindexService.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testStartReindex_whenBuildFails_deleteBuildIndex() throws IOException {
+        when(productSyncDataService.getPublishedProductEsDetails(anyLong(), anyInt()))
+            .thenThrow(new RestClientException("Product service unavailable"));
+
+        String buildIndexName = productReindexService.startReindex().indexName();
+
+        verify(productIndexDualWriter, timeout(5000)).stop();
+        assertThat(productReindexService.getStatus().state()).isEqualTo(ReindexState.FAILED);
+        assertThat(deletedIndices()).containsExactly(List.of(buildIndexName));
+        verify(indicesClient, never()).updateAliases(any(Function.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testStartReindex_whenIndexLeftOverByFailedBuild_keepPreviousLiveIndex() throws IOException {
+        when(productSyncDataService.getPublishedProductEsDetails(anyLong(), anyInt())).thenReturn(List.of());
+        when(indicesClient.existsAlias(any(Function.class))).thenReturn(new BooleanResponse(true));
+        GetAliasResponse getAliasResponse = mock(GetAliasResponse.class);
+        when(getAliasResponse.result()).thenReturn(Map.of(PREVIOUS_LIVE_INDEX, mock(IndexAliases.class)));
+        when(indicesClient.getAlias(any(Function.class))).thenReturn(getAliasResponse);
+        GetIndexResponse getIndexResponse = mock(GetIndexResponse.class);
+        when(getIndexResponse.result()).thenAnswer(invocation -> Map.of(
+            PREVIOUS_LIVE_INDEX, mock(IndexState.class),
+            NEVER_LIVE_INDEX, mock(IndexState.class),
+            productReindexService.getStatus().indexName(), mock(IndexState.class)));
+        when(indicesClient.get(any(Function.class))).thenReturn(getIndexResponse);
+
+        productReindexService.startReindex();
+
+        verify(productIndexDualWriter, timeout(5000)).stop();
+        assertThat(productReindexService.getStatus().state()).isEqualTo(ReindexState.COMPLETED);
+        assertThat(deletedIndices()).containsExactly(List.of(NEVER_LIVE_INDEX));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<List<String>> deletedIndices() throws IOException {
+        ArgumentCaptor<Function<DeleteIndexRequest.Builder, ObjectBuilder<DeleteIndexRequest>>> request =
+            ArgumentCaptor.forClass((Class) Function.class);
+        verify(indicesClient).delete(request.capture());
+        return request.getAllValues().stream()
+            .map(function -> function.apply(new DeleteIndexRequest.Builder()).build().index())
+            .toList();
+    }
+}
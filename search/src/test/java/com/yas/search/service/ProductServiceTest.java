@@ -1,26 +1,37 @@
 package com.yas.search.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.search.config.ProductSearchCacheConfig;
+import com.yas.search.config.ProductSearchFacetConfig;
+import com.yas.search.constant.enums.ProductFacet;
 import com.yas.search.constant.enums.SortType;
 import com.yas.search.model.Product;
 import com.yas.search.model.ProductCriteriaDto;
+import com.yas.search.model.ProductSearchCursor;
 import com.yas.search.viewmodel.ProductListGetVm;
-import com.yas.search.viewmodel.ProductNameGetVm;
-import com.yas.search.viewmodel.ProductNameListVm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +44,7 @@ import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.SearchPage;
 import org.springframework.data.elasticsearch.core.SearchShardStatistics;
 import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 import org.springframework.data.elasticsearch.core.suggest.response.Suggest;
 
 class ProductServiceTest {
@@ -41,10 +53,16 @@ class ProductServiceTest {
 
     private ProductService productService;
 
+    private ProductSearchCache productSearchCache;
+
     @BeforeEach
     void setUp() {
         elasticsearchOperations = mock(ElasticsearchOperations.class);
-        productService = new ProductService(elasticsearchOperations);
+        productSearchCache = new ProductSearchCache(
+            new ProductSearchCacheConfig(true, 100, Duration.ofMinutes(1), 10, Duration.ofMinutes(10)),
+            new SimpleMeterRegistry());
+        productService = new ProductService(elasticsearchOperations, productSearchCache,
+            new ProductSearchFacetConfig(10, Map.of(ProductFacet.BRANDS, 5)));
     }
 
     @Test
@@ -143,22 +161,102 @@ class ProductServiceTest {
     }
 
     @Test
-    void testAutoCompleteProductName_whenExistsProducts_returnProductNameListVm() {
+    void testFindProductAdvance_whenEquivalentCriteria_searchOnce() {
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class))).thenReturn(getSearchHits());
 
-        SearchHits<Product> searchHits =
-            getSearchHits();
+        productService.findProductAdvance(new ProductCriteriaDto(
+            "test", 0, 10, "b,A", null, null, null, null, SortType.DEFAULT));
+        productService.findProductAdvance(new ProductCriteriaDto(
+            " test ", 0, 10, "a,B,a", "", null, null, null, SortType.DEFAULT));
+
+        verify(elasticsearchOperations, times(1)).search(any(NativeQuery.class), eq(Product.class));
+    }
 
-        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class)))
-            .thenReturn(searchHits);
+    @Test
+    void testFindProductAdvance_whenResultsInvalidated_searchAgainWithCachedFacets() {
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class))).thenReturn(getSearchHits());
+        ProductCriteriaDto criteriaDto = new ProductCriteriaDto(
+            "test", 0, 10, null, null, null, null, null, SortType.DEFAULT, null, Set.of(ProductFacet.BRANDS));
 
-        ProductNameListVm result = productService.autoCompleteProductName("Product");
+        productService.findProductAdvance(criteriaDto);
+        productSearchCache.invalidateResults();
+        productService.findProductAdvance(criteriaDto);
 
-        assertNotNull(result);
-        assertEquals(1, result.productNames().size());
-        ProductNameGetVm productNameGetVm = result.productNames().getFirst();
-        assertEquals("Test Product", productNameGetVm.name());
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations, times(2)).search(captor.capture(), eq(Product.class));
+        assertFalse(captor.getAllValues().getFirst().getAggregations().isEmpty());
+        assertTrue(captor.getAllValues().getLast().getAggregations().isEmpty());
+    }
+
+    @Test
+    void testFindProductAdvance_whenFacetsRequested_aggregateOnlyRequestedFacets() {
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class))).thenReturn(getSearchHits());
+
+        ProductListGetVm result = productService.findProductAdvance(new ProductCriteriaDto(
+            "test", 0, 10, null, null, null, null, null, SortType.DEFAULT, null,
+            Set.of(ProductFacet.BRANDS, ProductFacet.CATEGORIES)));
+
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(Product.class));
+        assertEquals(Set.of("categories", "brands"), captor.getValue().getAggregations().keySet());
+        assertEquals(5, captor.getValue().getAggregations().get("brands").terms().size());
+        assertEquals(10, captor.getValue().getAggregations().get("categories").terms().size());
+        assertEquals(Set.of("categories", "brands"), result.aggregations().keySet());
+    }
+
+    @Test
+    void testFindProductAdvance_whenNoFacetsRequested_skipAggregations() {
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class))).thenReturn(getSearchHits());
+
+        ProductListGetVm result = productService.findProductAdvance(new ProductCriteriaDto(
+            "test", 0, 10, null, null, null, null, null, SortType.DEFAULT));
+
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(Product.class));
+        assertTrue(captor.getValue().getAggregations().isEmpty());
+        assertTrue(result.aggregations().isEmpty());
+    }
+
+    @Test
+    void testFindProductAdvance_whenCursorIsEmpty_searchLiveIndexAndReturnNextCursor() {
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class))).thenReturn(getSearchHits());
+
+        ProductListGetVm result = productService.findProductAdvance(new ProductCriteriaDto(
+            "test", 0, 1, null, null, null, null, null, SortType.PRICE_ASC, "", Set.of()));
+
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(Product.class));
+        verify(elasticsearchOperations, never()).openPointInTime(any(IndexCoordinates.class), any(Duration.class));
+        assertNull(captor.getValue().getPointInTime());
+        assertNull(captor.getValue().getSearchAfter());
+        assertEquals("price: ASC,id: ASC", Objects.requireNonNull(captor.getValue().getSort()).toString());
+        assertFalse(result.isLast());
+        ProductSearchCursor nextCursor = ProductSearchCursor.decode(result.nextCursor());
+        assertEquals(SortType.PRICE_ASC, nextCursor.sortType());
+    }
+
+    @Test
+    void testFindProductAdvance_whenLastCursorPage_returnNoNextCursor() {
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class))).thenReturn(getSearchHits());
+        String cursor = new ProductSearchCursor(SortType.DEFAULT, List.of(1, 1)).encode();
+
+        ProductListGetVm result = productService.findProductAdvance(new ProductCriteriaDto(
+            "test", 1, 10, null, null, null, null, null, SortType.DEFAULT, cursor, Set.of()));
+
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(Product.class));
+        assertEquals(List.of(1, 1), captor.getValue().getSearchAfter());
+        assertNull(captor.getValue().getPointInTime());
+        assertTrue(result.isLast());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void testFindProductAdvance_whenCursorIsInvalid_throwBadRequestException() {
+        ProductCriteriaDto criteriaDto = new ProductCriteriaDto(
+            "test", 0, 10, null, null, null, null, null, SortType.DEFAULT, "not-a-cursor", Set.of());
 
-        verify(elasticsearchOperations).search(any(NativeQuery.class), eq(Product.class));
+        assertThrows(BadRequestException.class, () -> productService.findProductAdvance(criteriaDto));
     }
 
     private static SearchHits<Product> getSearchHits() {
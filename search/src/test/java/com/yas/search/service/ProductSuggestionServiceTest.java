@@ -0,0 +1,141 @@
+package com.yas.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import com.yas.search.config.ProductSuggestConfig;
+import com.yas.search.model.Product;
+import com.yas.search.viewmodel.ProductNameGetVm;
+import com.yas.search.viewmodel.ProductNameListVm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+class ProductSuggestionServiceTest {
+
+    private ElasticsearchClient elasticsearchClient;
+
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ProductSuggestionService productSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        elasticsearchClient = mock(ElasticsearchClient.class);
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        when(elasticsearchOperations.getIndexCoordinatesFor(Product.class)).thenReturn(IndexCoordinates.of("product"));
+        productSuggestionService = new ProductSuggestionService(elasticsearchClient, elasticsearchOperations,
+            new ProductSuggestConfig(10, 100, Duration.ofMinutes(5)), new SimpleMeterRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testAutoCompleteProductName_whenSamePrefixRequestedTwice_queryOnce() throws IOException {
+        SearchResponse<ProductNameGetVm> response = SearchResponse.of(r -> r
+            .took(1)
+            .timedOut(false)
+            .shards(shards -> shards.total(1).successful(1).failed(0))
+            .hits(hits -> hits.hits(List.of()))
+            .suggest("name-suggestion", List.of(Suggestion.of(suggestion -> suggestion
+                .completion(completion -> completion
+                    .text("iph")
+                    .offset(0)
+                    .length(3)
+                    .options(option -> option.text("iPhone 15").source(new ProductNameGetVm("iPhone 15"))))))));
+        when(elasticsearchClient.search(any(Function.class), eq(ProductNameGetVm.class))).thenReturn(response);
+
+        ProductNameListVm first = productSuggestionService.autoCompleteProductName("iPh");
+        ProductNameListVm second = productSuggestionService.autoCompleteProductName(" iph ");
+
+        assertThat(first.productNames()).containsExactly(new ProductNameGetVm("iPhone 15"));
+        assertThat(second).isEqualTo(first);
+        verify(elasticsearchClient, times(1)).search(any(Function.class), eq(ProductNameGetVm.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testAutoCompleteProductName_whenNoCompletion_fallBackToNamePrefixQuery() throws IOException {
+        SearchResponse<ProductNameGetVm> suggestResponse = SearchResponse.of(r -> r
+            .took(1)
+            .timedOut(false)
+            .shards(shards -> shards.total(1).successful(1).failed(0))
+            .hits(hits -> hits.hits(List.of()))
+            .suggest("name-suggestion", List.of(Suggestion.of(suggestion -> suggestion
+                .completion(completion -> completion.text("iph").offset(0).length(3).options(List.of()))))));
+        SearchResponse<ProductNameGetVm> prefixResponse = SearchResponse.of(r -> r
+            .took(1)
+            .timedOut(false)
+            .shards(shards -> shards.total(1).successful(1).failed(0))
+            .hits(hits -> hits.hits(List.of(
+                Hit.of(hit -> hit.index("product").id("1").source(new ProductNameGetVm("iPhone 15"))),
+                Hit.of(hit -> hit.index("product").id("2").source(new ProductNameGetVm("iPhone 15")))))));
+        when(elasticsearchClient.search(any(Function.class), eq(ProductNameGetVm.class)))
+            .thenReturn(suggestResponse, prefixResponse);
+
+        ProductNameListVm result = productSuggestionService.autoCompleteProductName("iph");
+
+        assertThat(result.productNames()).containsExactly(new ProductNameGetVm("iPhone 15"));
+        verify(elasticsearchClient, times(2)).search(any(Function.class), eq(ProductNameGetVm.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testAutoCompleteProductName_whenKeywordIsBlank_returnEmptyList() throws IOException {
+        ProductNameListVm result = productSuggestionService.autoCompleteProductName(" ");
+
+        assertThat(result.productNames()).isEmpty();
+        verify(elasticsearchClient, never()).search(any(Function.class), eq(ProductNameGetVm.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testAutoCompleteProductName_whenSuggestRequestFails_returnEmptyListWithoutCaching() throws IOException {
+        ElasticsearchException exception = new ElasticsearchException("search", ErrorResponse.of(error -> error
+            .status(400)
+            .error(cause -> cause.type("search_phase_execution_exception").reason("Field is not a completion"))));
+        when(elasticsearchClient.search(any(Function.class), eq(ProductNameGetVm.class))).thenThrow(exception);
+
+        ProductNameListVm first = productSuggestionService.autoCompleteProductName("iph");
+        ProductNameListVm second = productSuggestionService.autoCompleteProductName("iph");
+
+        assertThat(first.productNames()).isEmpty();
+        assertThat(second.productNames()).isEmpty();
+        verify(elasticsearchClient, times(2)).search(any(Function.class), eq(ProductNameGetVm.class));
+    }
+
+    @Test
+    void testPutNameSuggestMapping_whenIndexExists_putMapping() {
+        IndexOperations productIndexOps = mock(IndexOperations.class);
+        when(elasticsearchOperations.indexOps(Product.class)).thenReturn(productIndexOps);
+        when(productIndexOps.exists()).thenReturn(true);
+
+        productSuggestionService.putNameSuggestMapping();
+
+        verify(productIndexOps).putMapping();
+    }
+
+    @Test
+    void testNameSuggestInputs_whenNameHasSeveralWords_returnWordSuffixes() {
+        assertThat(Product.nameSuggestInputs("Apple iPhone 15 Pro"))
+            .containsExactly("Apple iPhone 15 Pro", "iPhone 15 Pro", "15 Pro", "Pro");
+    }
+}
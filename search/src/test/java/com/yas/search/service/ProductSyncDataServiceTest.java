@@ -2,6 +2,7 @@ package com.yas.search.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -19,6 +20,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -31,6 +33,10 @@ class ProductSyncDataServiceTest {
 
     private ServiceUrlConfig serviceUrlConfig;
 
+    private ProductIndexDualWriter productIndexDualWriter;
+
+    private ProductEnrichmentService productEnrichmentService;
+
     RestClient.RequestHeadersUriSpec requestHeadersUriSpec;
 
     RestClient.ResponseSpec responseSpec;
@@ -45,7 +51,10 @@ class ProductSyncDataServiceTest {
         productRepository = mock(ProductRepository.class);
         restClient = mock(RestClient.class);
         serviceUrlConfig = mock(ServiceUrlConfig.class);
-        productSyncDataService = new ProductSyncDataService(restClient, serviceUrlConfig, productRepository);
+        productIndexDualWriter = mock(ProductIndexDualWriter.class);
+        productEnrichmentService = mock(ProductEnrichmentService.class);
+        productSyncDataService = new ProductSyncDataService(
+            restClient, serviceUrlConfig, productRepository, productIndexDualWriter, productEnrichmentService);
         requestHeadersUriSpec = mock(RestClient.RequestHeadersUriSpec.class);
         responseSpec = mock(RestClient.ResponseSpec.class);
 
@@ -205,6 +214,7 @@ class ProductSyncDataServiceTest {
         assertThat(actual.getBrand()).isEqualTo(productEsDetailVm.brand());
         assertThat(actual.getCategories()).isEqualTo(productEsDetailVm.categories());
         assertThat(actual.getAttributes()).isEqualTo(productEsDetailVm.attributes());
+        verify(productEnrichmentService).enrich(List.of(actual));
     }
 
 
@@ -232,4 +242,37 @@ class ProductSyncDataServiceTest {
 
         verify(productRepository, never()).deleteById(id);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSyncProducts_whenMixedEvents_bulkSavesPublishedAndDeletesOthers() {
+        ProductEsDetailVm published = getProductThumbnailVms();
+        ProductEsDetailVm unpublished = new ProductEsDetailVm(
+            2L, "Tablet", "tablet", 199.0, false, true, true, false, null, null, List.of(), List.of()
+        );
+        final URI url = UriComponentsBuilder.fromHttpUrl(PRODUCT_URL)
+            .path("/storefront/products-es").queryParam("ids", "1,2,3").build().toUri();
+
+        when(serviceUrlConfig.product()).thenReturn(PRODUCT_URL);
+        when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(url)).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(any(ParameterizedTypeReference.class))).thenReturn(List.of(published, unpublished));
+
+        productSyncDataService.syncProducts(List.of(ID, 2L, 3L), List.of(4L));
+
+        ArgumentCaptor<List<Product>> savedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).saveAll(savedCaptor.capture());
+        assertThat(savedCaptor.getValue()).extracting(Product::getId).containsExactly(ID);
+        verify(productEnrichmentService).enrich(savedCaptor.getValue());
+        verify(productRepository).deleteAllById(List.of(4L, 2L, 3L));
+    }
+
+    @Test
+    void testSyncProducts_whenOnlyDeleteEvents_doesNotCallProductService() {
+        productSyncDataService.syncProducts(List.of(), List.of(ID));
+
+        verify(restClient, never()).get();
+        verify(productRepository).deleteAllById(List.of(ID));
+    }
+}
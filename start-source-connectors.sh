@@ -5,4 +5,8 @@ curl -i -X PUT -H  "Content-Type:application/json" \
 
 curl -i -X PUT -H  "Content-Type:application/json" \
     http://localhost:8083/connectors/order-connector/config \
-    -d @kafka/connects/debezium-order.json
\ No newline at end of file
+    -d @kafka/connects/debezium-order.json
+
+curl -i -X PUT -H  "Content-Type:application/json" \
+    http://localhost:8083/connectors/rating-connector/config \
+    -d @kafka/connects/debezium-rating.json
\ No newline at end of file
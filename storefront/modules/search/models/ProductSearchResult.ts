@@ -3,5 +3,8 @@ export type ProductSearchResult = {
   name: string;
   slug: string;
   thumbnailId: number;
+  thumbnailUrl?: string;
   price: number;
+  averageRating?: number;
+  ratingCount?: number;
 };
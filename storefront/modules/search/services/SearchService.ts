@@ -15,7 +15,7 @@ export async function getSuggestions(keyword: string): Promise<ProductSearchSugg
 }
 
 export async function searchProducts(params: SearchParams): Promise<SearchProductResponse> {
-  let url = `api/search/storefront/catalog-search?keyword=${params.keyword}`;
+  let url = `api/search/storefront/catalog-search?keyword=${params.keyword}&facets=CATEGORIES,BRANDS`;
   if (params.category) {
     url += `&category=${params.category}`;
   }
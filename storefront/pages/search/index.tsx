@@ -108,10 +108,10 @@ const SearchPage = () => {
               id: product.id,
               name: product.name,
               price: product.price,
-              thumbnailUrl: '',
+              thumbnailUrl: product.thumbnailUrl ?? '',
               slug: product.slug,
             }}
-            thumbnailId={product.thumbnailId}
+            thumbnailId={product.thumbnailUrl ? undefined : product.thumbnailId}
           />
         </Col>
       ))}
@@ -0,0 +1,39 @@
+package com.yas.webhook.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Delivery of the webhook notifications.
+ *
+ * @param maxConcurrentDeliveries maximum number of notifications sent at once, each from its own virtual thread
+ * @param maxConcurrencyPerEndpoint maximum number of notifications sent at once to the same payload URL
+ * @param maxQueuedPerEndpoint maximum number of notifications of the same payload URL queued in memory, further
+ *                             ones are deferred to the database poller
+ * @param queueCapacity maximum number of notifications queued in memory, the event consumers wait for room beyond
+ * @param enqueueTimeout maximum wait of an event consumer for room in the queue, over all the notifications of an
+ *                       event, those not queued in time are left to the database poller
+ * @param maxAttempts number of failed attempts after which a notification is dead-lettered
+ * @param initialBackoff delay before the first retry, doubled on each further retry
+ * @param maxBackoff maximum delay between two retries
+ * @param lease time a claimed notification is reserved to its instance, it is claimed again once expired
+ * @param pollBatchSize maximum number of due notifications claimed at once
+ * @param connectTimeout maximum time to connect to a subscriber
+ * @param readTimeout maximum wait for the response of a subscriber
+ */
+@ConfigurationProperties(prefix = "yas.webhook.delivery")
+public record WebhookDeliveryConfig(
+    @DefaultValue("64") int maxConcurrentDeliveries,
+    @DefaultValue("4") int maxConcurrencyPerEndpoint,
+    @DefaultValue("100") int maxQueuedPerEndpoint,
+    @DefaultValue("1000") int queueCapacity,
+    @DefaultValue("10s") Duration enqueueTimeout,
+    @DefaultValue("8") int maxAttempts,
+    @DefaultValue("10s") Duration initialBackoff,
+    @DefaultValue("1h") Duration maxBackoff,
+    @DefaultValue("5m") Duration lease,
+    @DefaultValue("100") int pollBatchSize,
+    @DefaultValue("2s") Duration connectTimeout,
+    @DefaultValue("10s") Duration readTimeout) {
+}
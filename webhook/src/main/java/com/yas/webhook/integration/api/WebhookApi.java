@@ -1,30 +1,52 @@
 package com.yas.webhook.integration.api;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.yas.webhook.config.WebhookDeliveryConfig;
 import com.yas.webhook.utils.HmacUtils;
-import lombok.RequiredArgsConstructor;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.crypto.spec.SecretKeySpec;
 import lombok.SneakyThrows;
-import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClient.RequestBodySpec;
 
+/**
+ * Sender of the webhook notifications.
+ *
+ * <p>Each subscriber host gets its own HTTP client, so its own pool of kept-alive connections, and requests are
+ * bounded by the connect and read timeouts of the delivery.</p>
+ */
 @Component
-@RequiredArgsConstructor
-public class WebhookApi {
+public class WebhookApi implements DisposableBean {
 
     public static final String X_HUB_SIGNATURE_256 = "X-Hub-Signature-256";
 
-    private final RestClient restClient;
+    private final WebhookDeliveryConfig webhookDeliveryConfig;
+    private final RestClient.Builder restClientBuilder;
+    private final ExecutorService httpClientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, HttpClient> httpClients = new ConcurrentHashMap<>();
+    private final Map<String, RestClient> restClients = new ConcurrentHashMap<>();
+
+    public WebhookApi(WebhookDeliveryConfig webhookDeliveryConfig, RestClient.Builder restClientBuilder) {
+        this.webhookDeliveryConfig = webhookDeliveryConfig;
+        this.restClientBuilder = restClientBuilder;
+    }
 
     @SneakyThrows
-    public void notify(String url, String secret, JsonNode jsonNode) {
+    public void notify(String url, SecretKeySpec secretKey, JsonNode jsonNode) {
 
-        RequestBodySpec requestBodySpec = restClient.post()
+        RequestBodySpec requestBodySpec = getRestClient(url).post()
             .uri(url);
 
-        if (StringUtils.isNoneEmpty(secret)) {
-            String secretToken = HmacUtils.hash(jsonNode.toString(), secret);
+        if (secretKey != null) {
+            String secretToken = HmacUtils.hash(jsonNode.toString(), secretKey);
             requestBodySpec.header(X_HUB_SIGNATURE_256, secretToken);
         }
 
@@ -32,4 +54,28 @@ public class WebhookApi {
             .retrieve()
             .toBodilessEntity();
     }
+
+    @Override
+    public void destroy() {
+        httpClients.values().forEach(HttpClient::close);
+        httpClientExecutor.shutdownNow();
+    }
+
+    private RestClient getRestClient(String url) {
+        URI uri = URI.create(url);
+        return restClients.computeIfAbsent(uri.getScheme() + "://" + uri.getRawAuthority(), this::createRestClient);
+    }
+
+    private RestClient createRestClient(String origin) {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(webhookDeliveryConfig.connectTimeout())
+            .executor(httpClientExecutor)
+            .build();
+        httpClients.put(origin, httpClient);
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(webhookDeliveryConfig.readTimeout());
+        return restClientBuilder.clone()
+            .requestFactory(requestFactory)
+            .build();
+    }
 }
@@ -3,11 +3,14 @@ package com.yas.webhook.model;
 import com.yas.webhook.model.enums.NotificationStatus;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.ZonedDateTime;
 import lombok.Getter;
@@ -24,8 +27,11 @@ import org.hibernate.type.SqlTypes;
 @NoArgsConstructor
 public class WebhookEventNotification {
 
+    /* Ids allocated by blocks so the notifications of an event are inserted in a single batch */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "webhook_event_notification_id_seq")
+    @SequenceGenerator(name = "webhook_event_notification_id_seq", sequenceName = "webhook_event_notification_id_seq",
+        allocationSize = 50)
     private Long id;
 
     @Column(name = "webhook_event_id")
@@ -35,9 +41,20 @@ public class WebhookEventNotification {
     @Column(name = "payload", columnDefinition = "jsonb")
     private String payload;
 
+    @Enumerated(EnumType.STRING)
     @Column(name = "notification_status")
     private NotificationStatus notificationStatus;
 
+    @Column(name = "attempts")
+    private int attempts;
+
+    /* Null while the notification is handed to the in-memory queue right after its creation */
+    @Column(name = "next_attempt_at")
+    private ZonedDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
     @CreationTimestamp
     @Column(name = "created_on")
     private ZonedDateTime createdOn;
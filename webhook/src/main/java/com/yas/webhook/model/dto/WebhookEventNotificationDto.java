@@ -1,6 +1,7 @@
 package com.yas.webhook.model.dto;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import javax.crypto.spec.SecretKeySpec;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -10,6 +11,7 @@ public class WebhookEventNotificationDto {
 
     private Long notificationId;
     private String url;
-    private String secret;
+    private SecretKeySpec secretKey;
     private JsonNode payload;
+    private int attempts;
 }
@@ -0,0 +1,6 @@
+package com.yas.webhook.model.dto;
+
+import com.yas.webhook.model.enums.EventName;
+
+public record WebhookSubscriptionDto(EventName eventName, Long webhookEventId, String payloadUrl, String secret) {
+}
@@ -2,5 +2,6 @@ package com.yas.webhook.model.enums;
 
 public enum NotificationStatus {
     NOTIFYING,
-    NOTIFIED
+    NOTIFIED,
+    DEAD_LETTER
 }
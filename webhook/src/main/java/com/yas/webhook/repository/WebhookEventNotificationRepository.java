@@ -1,9 +1,71 @@
 package com.yas.webhook.repository;
 
 import com.yas.webhook.model.WebhookEventNotification;
+import com.yas.webhook.model.enums.NotificationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface WebhookEventNotificationRepository extends JpaRepository<WebhookEventNotification, Long> {
+
+    /**
+     * Lock the notifications due for a delivery attempt, skipping those locked by another instance. A notification
+     * without next attempt time is due once its lease from its creation expired.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT n FROM WebhookEventNotification n
+        WHERE n.notificationStatus = :status
+            AND (n.nextAttemptAt <= :now OR (n.nextAttemptAt IS NULL AND n.createdOn <= :leaseStart))
+        ORDER BY n.id
+        """)
+    List<WebhookEventNotification> findDueForUpdate(@Param("status") NotificationStatus status,
+                                                    @Param("now") ZonedDateTime now,
+                                                    @Param("leaseStart") ZonedDateTime leaseStart,
+                                                    Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WebhookEventNotification n SET n.nextAttemptAt = :leaseEnd WHERE n.id IN :ids")
+    void leaseDelivery(@Param("ids") Collection<Long> ids, @Param("leaseEnd") ZonedDateTime leaseEnd);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE WebhookEventNotification n
+        SET n.notificationStatus = com.yas.webhook.model.enums.NotificationStatus.NOTIFIED,
+            n.attempts = n.attempts + 1, n.nextAttemptAt = NULL, n.lastError = NULL
+        WHERE n.id IN :ids
+        """)
+    void markNotified(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE WebhookEventNotification n
+        SET n.notificationStatus = :status, n.attempts = :attempts, n.nextAttemptAt = :nextAttemptAt,
+            n.lastError = :lastError
+        WHERE n.id = :id
+        """)
+    void updateDelivery(@Param("id") Long id, @Param("status") NotificationStatus status,
+                        @Param("attempts") int attempts, @Param("nextAttemptAt") ZonedDateTime nextAttemptAt,
+                        @Param("lastError") String lastError);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WebhookEventNotification n SET n.nextAttemptAt = :nextAttemptAt WHERE n.id = :id")
+    void deferDelivery(@Param("id") Long id, @Param("nextAttemptAt") ZonedDateTime nextAttemptAt);
 }
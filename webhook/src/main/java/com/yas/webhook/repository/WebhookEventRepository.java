@@ -1,11 +1,21 @@
 package com.yas.webhook.repository;
 
 import com.yas.webhook.model.WebhookEvent;
+import com.yas.webhook.model.dto.WebhookSubscriptionDto;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface WebhookEventRepository extends JpaRepository<WebhookEvent, Long> {
 
     void deleteByWebhookId(Long webhookId);
+
+    @Query("""
+        SELECT new com.yas.webhook.model.dto.WebhookSubscriptionDto(e.name, we.id, w.payloadUrl, w.secret)
+        FROM WebhookEvent we JOIN we.webhook w JOIN we.event e
+        ORDER BY we.id
+        """)
+    List<WebhookSubscriptionDto> findAllSubscriptions();
 }
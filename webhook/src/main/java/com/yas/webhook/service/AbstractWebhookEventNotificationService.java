@@ -1,36 +1,48 @@
 package com.yas.webhook.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.yas.webhook.model.WebhookEvent;
 import com.yas.webhook.model.WebhookEventNotification;
 import com.yas.webhook.model.dto.WebhookEventNotificationDto;
 import com.yas.webhook.model.enums.NotificationStatus;
 import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import com.yas.webhook.service.WebhookRoutingTable.Subscriber;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
 
 abstract class AbstractWebhookEventNotificationService {
 
     protected abstract WebhookEventNotificationRepository getWebhookEventNotificationRepository();
 
-    protected Long persistNotification(Long webhookEventId, JsonNode payload) {
-        WebhookEventNotification notification = new WebhookEventNotification();
-        notification.setWebhookEventId(webhookEventId);
-        notification.setPayload(payload.toString());
-        notification.setNotificationStatus(NotificationStatus.NOTIFYING);
-        notification.setCreatedOn(ZonedDateTime.now());
-        WebhookEventNotification persistedNotification = getWebhookEventNotificationRepository().save(notification);
-        return persistedNotification.getId();
+    /**
+     * Persist the notifications of an event to its subscribers in a single batch.
+     *
+     * @return the notifications to deliver, in the order of the subscribers
+     */
+    protected List<WebhookEventNotificationDto> persistNotifications(List<Subscriber> subscribers, JsonNode payload) {
+        String serializedPayload = payload.toString();
+        ZonedDateTime createdOn = ZonedDateTime.now();
+        List<WebhookEventNotification> notifications = subscribers.stream().map(subscriber -> {
+            WebhookEventNotification notification = new WebhookEventNotification();
+            notification.setWebhookEventId(subscriber.webhookEventId());
+            notification.setPayload(serializedPayload);
+            notification.setNotificationStatus(NotificationStatus.NOTIFYING);
+            notification.setCreatedOn(createdOn);
+            return notification;
+        }).toList();
+        List<WebhookEventNotification> persistedNotifications
+            = getWebhookEventNotificationRepository().saveAll(notifications);
+        return IntStream.range(0, subscribers.size())
+            .mapToObj(i -> createNotificationDto(subscribers.get(i), payload, persistedNotifications.get(i).getId()))
+            .toList();
     }
 
-    protected WebhookEventNotificationDto createNotificationDto(WebhookEvent webhookEvent, JsonNode payload,
+    protected WebhookEventNotificationDto createNotificationDto(Subscriber subscriber, JsonNode payload,
                                                                 Long notificationId) {
-        String url = webhookEvent.getWebhook().getPayloadUrl();
-        String secret = webhookEvent.getWebhook().getSecret();
-
         return WebhookEventNotificationDto.builder()
-            .secret(secret)
+            .secretKey(subscriber.secretKey())
             .payload(payload)
-            .url(url)
+            .url(subscriber.payloadUrl())
             .notificationId(notificationId)
             .build();
     }
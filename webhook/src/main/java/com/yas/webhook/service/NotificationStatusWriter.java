@@ -0,0 +1,95 @@
+package com.yas.webhook.service;
+
+import com.yas.webhook.model.enums.NotificationStatus;
+import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writer of the delivery outcomes of the notifications, buffered for a short while then written in a single
+ * transaction, the sent notifications with a single update.
+ *
+ * <p>A notification whose outcome is lost is sent again once its lease expired.</p>
+ */
+@Slf4j
+@Component
+public class NotificationStatusWriter implements DisposableBean {
+
+    /* Bound of the ids in a single update, far below the bind parameters limit of PostgreSQL */
+    private static final int MAX_IDS_PER_UPDATE = 1000;
+
+    private final WebhookEventNotificationRepository webhookEventNotificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Queue<Long> notified = new ConcurrentLinkedQueue<>();
+    private final Queue<FailedDelivery> failed = new ConcurrentLinkedQueue<>();
+
+    public NotificationStatusWriter(WebhookEventNotificationRepository webhookEventNotificationRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.webhookEventNotificationRepository = webhookEventNotificationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void notified(Long notificationId) {
+        notified.add(notificationId);
+    }
+
+    /**
+     * Record a failed attempt, the notification being retried at the next attempt time, or dead-lettered.
+     */
+    public void failed(Long notificationId, NotificationStatus status, int attempts, ZonedDateTime nextAttemptAt,
+                       String lastError) {
+        failed.add(new FailedDelivery(notificationId, status, attempts, nextAttemptAt, lastError));
+    }
+
+    @Scheduled(fixedDelayString = "${yas.webhook.delivery.status-flush-delay-ms:200}")
+    public void flush() {
+        List<Long> notifiedIds = drain(notified);
+        List<FailedDelivery> failedDeliveries = drain(failed);
+        if (notifiedIds.isEmpty() && failedDeliveries.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < notifiedIds.size(); from += MAX_IDS_PER_UPDATE) {
+                    webhookEventNotificationRepository.markNotified(
+                        notifiedIds.subList(from, Math.min(from + MAX_IDS_PER_UPDATE, notifiedIds.size())));
+                }
+                failedDeliveries.forEach(delivery -> webhookEventNotificationRepository.updateDelivery(
+                    delivery.notificationId(), delivery.status(), delivery.attempts(), delivery.nextAttemptAt(),
+                    delivery.lastError()));
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to write the outcome of {} notifications, retrying",
+                notifiedIds.size() + failedDeliveries.size(), e);
+            notified.addAll(notifiedIds);
+            failed.addAll(failedDeliveries);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private static <T> List<T> drain(Queue<T> queue) {
+        List<T> drained = new ArrayList<>();
+        T element;
+        while ((element = queue.poll()) != null) {
+            drained.add(element);
+        }
+        return drained;
+    }
+
+    private record FailedDelivery(Long notificationId, NotificationStatus status, int attempts,
+                                  ZonedDateTime nextAttemptAt, String lastError) {
+    }
+}
@@ -1,15 +1,11 @@
 package com.yas.webhook.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.yas.commonlibrary.exception.NotFoundException;
-import com.yas.webhook.config.constants.MessageCode;
-import com.yas.webhook.model.Event;
-import com.yas.webhook.model.WebhookEvent;
 import com.yas.webhook.model.dto.WebhookEventNotificationDto;
 import com.yas.webhook.model.enums.EventName;
 import com.yas.webhook.model.enums.Operation;
-import com.yas.webhook.repository.EventRepository;
 import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import com.yas.webhook.service.WebhookRoutingTable.Subscriber;
 import java.util.List;
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +15,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ProductEventService extends AbstractWebhookEventNotificationService {
 
-    private final EventRepository eventRepository;
+    private final WebhookRoutingTable webhookRoutingTable;
     private final WebhookService webhookService;
     private final WebhookEventNotificationRepository webhookEventNotificationRepository;
 
@@ -28,17 +24,14 @@ public class ProductEventService extends AbstractWebhookEventNotificationService
         if (!Objects.equals(operation, Operation.UPDATE.getName())) {
             return;
         }
-        Event event = eventRepository.findByName(EventName.ON_PRODUCT_UPDATED)
-            .orElseThrow(() -> new NotFoundException(MessageCode.EVENT_NOT_FOUND, EventName.ON_PRODUCT_UPDATED));
-        List<WebhookEvent> hookEvents = event.getWebhookEvents();
-        hookEvents.forEach(hookEvent -> {
-            JsonNode payload = updatedEvent.get("after");
-            Long notificationId = super.persistNotification(hookEvent.getId(), payload);
-
-            WebhookEventNotificationDto dto = super.createNotificationDto(hookEvent, payload,
-                notificationId);
-            webhookService.notifyToWebhook(dto);
-        });
+        List<Subscriber> subscribers = webhookRoutingTable.getSubscribers(EventName.ON_PRODUCT_UPDATED);
+        JsonNode payload = updatedEvent.get("after");
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        List<WebhookEventNotificationDto> dtos = super.persistNotifications(subscribers, payload);
+        // Persisted first so a subscriber with a full queue does not hold back the notifications of the others
+        webhookService.notifyToWebhook(dtos);
     }
 
     @Override
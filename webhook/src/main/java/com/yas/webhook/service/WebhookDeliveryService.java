@@ -0,0 +1,304 @@
+package com.yas.webhook.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.webhook.config.WebhookDeliveryConfig;
+import com.yas.webhook.integration.api.WebhookApi;
+import com.yas.webhook.model.WebhookEventNotification;
+import com.yas.webhook.model.dto.WebhookEventNotificationDto;
+import com.yas.webhook.model.enums.NotificationStatus;
+import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import com.yas.webhook.utils.HmacUtils;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Delivery of the webhook notifications, the {@code webhook_event_notification} table being the durable queue.
+ *
+ * <p>New notifications are handed to a bounded in-memory queue, the event consumers waiting a bounded time for
+ * room when it is full. Each notification is sent from its own virtual thread, a limited number at once overall and
+ * per payload URL. A slow subscriber only delays its own notifications, those queued beyond its share of the queue
+ * are deferred to the poller instead of taking the room of the other subscribers. A failed notification is retried
+ * with an exponential backoff by the poller of the due notifications, then dead-lettered. The poller also recovers
+ * the notifications of a crashed instance once their lease expired. The outcomes of the attempts are written by
+ * the {@link NotificationStatusWriter}.</p>
+ */
+@Slf4j
+@Service
+public class WebhookDeliveryService implements DisposableBean {
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final WebhookDeliveryConfig webhookDeliveryConfig;
+    private final WebhookApi webhookApi;
+    private final WebhookEventNotificationRepository webhookEventNotificationRepository;
+    private final NotificationStatusWriter notificationStatusWriter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    /* Room left in memory, a permit is held by each queued or running notification */
+    private final Semaphore capacity;
+    private final Semaphore deliverySlots;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public WebhookDeliveryService(WebhookDeliveryConfig webhookDeliveryConfig, WebhookApi webhookApi,
+                                  WebhookEventNotificationRepository webhookEventNotificationRepository,
+                                  NotificationStatusWriter notificationStatusWriter, ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.webhookDeliveryConfig = webhookDeliveryConfig;
+        this.webhookApi = webhookApi;
+        this.webhookEventNotificationRepository = webhookEventNotificationRepository;
+        this.notificationStatusWriter = notificationStatusWriter;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("webhook-delivery-", 0).factory());
+        this.capacity = new Semaphore(webhookDeliveryConfig.queueCapacity());
+        this.deliverySlots = new Semaphore(webhookDeliveryConfig.maxConcurrentDeliveries());
+    }
+
+    /**
+     * Delay before the retry following a number of failed attempts, with a random jitter of up to a half.
+     */
+    static Duration getBackoff(int attempts, Duration initialBackoff, Duration maxBackoff) {
+        long delay = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        if (delay <= 0 || delay > maxBackoff.toMillis()) {
+            delay = maxBackoff.toMillis();
+        }
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    /**
+     * Queue the notifications of an event for delivery, waiting for room when the queue is full so the event consumer
+     * slows down. The wait is bounded for the whole event, the notifications left once it is over are queued only if
+     * room is available right away.
+     *
+     * @return the number of queued notifications, the others are delivered once claimed by the poller
+     */
+    public int enqueueAll(List<WebhookEventNotificationDto> notificationDtos) {
+        long deadline = System.nanoTime() + webhookDeliveryConfig.enqueueTimeout().toNanos();
+        int queuedCount = 0;
+        for (WebhookEventNotificationDto notificationDto : notificationDtos) {
+            try {
+                if (!capacity.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    log.warn("Delivery queue is full, notification {} is left to the poller",
+                        notificationDto.getNotificationId());
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return queuedCount;
+            }
+            if (dispatch(notificationDto)) {
+                queuedCount++;
+            }
+        }
+        return queuedCount;
+    }
+
+    /**
+     * Claim the due notifications, up to the room left in the queue, and queue them.
+     */
+    @Scheduled(fixedDelayString = "${yas.webhook.delivery.poll-delay-ms:1000}")
+    public void pollDueNotifications() {
+        int room = Math.min(capacity.availablePermits(), webhookDeliveryConfig.pollBatchSize());
+        if (room == 0) {
+            return;
+        }
+        List<WebhookEventNotificationDto> claimed = transactionTemplate.execute(status -> claim(room));
+        if (claimed == null) {
+            return;
+        }
+        for (int i = 0; i < claimed.size(); i++) {
+            if (!capacity.tryAcquire()) {
+                // The room was taken by the event consumers meanwhile, the rest is due again on the next poll
+                webhookEventNotificationRepository.leaseDelivery(claimed.subList(i, claimed.size()).stream()
+                    .map(WebhookEventNotificationDto::getNotificationId).toList(), ZonedDateTime.now());
+                return;
+            }
+            dispatch(claimed.get(i));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    void deliver(WebhookEventNotificationDto notificationDto) {
+        int attempts = notificationDto.getAttempts() + 1;
+        try {
+            webhookApi.notify(notificationDto.getUrl(), notificationDto.getSecretKey(), notificationDto.getPayload());
+        } catch (Exception e) {
+            onFailure(notificationDto, attempts, e);
+            return;
+        }
+        notificationStatusWriter.notified(notificationDto.getNotificationId());
+    }
+
+    private List<WebhookEventNotificationDto> claim(int limit) {
+        ZonedDateTime now = ZonedDateTime.now();
+        List<WebhookEventNotification> notifications = webhookEventNotificationRepository.findDueForUpdate(
+            NotificationStatus.NOTIFYING, now, now.minus(webhookDeliveryConfig.lease()), Limit.of(limit));
+        List<WebhookEventNotificationDto> claimed = notifications.stream()
+            .filter(notification -> !queued.contains(notification.getId()))
+            .map(this::toNotificationDto)
+            .toList();
+        if (!claimed.isEmpty()) {
+            webhookEventNotificationRepository.leaseDelivery(
+                claimed.stream().map(WebhookEventNotificationDto::getNotificationId).toList(),
+                now.plus(webhookDeliveryConfig.lease()));
+        }
+        return claimed;
+    }
+
+    private WebhookEventNotificationDto toNotificationDto(WebhookEventNotification notification) {
+        try {
+            return WebhookEventNotificationDto.builder()
+                .notificationId(notification.getId())
+                .url(notification.getWebhookEvent().getWebhook().getPayloadUrl())
+                .secretKey(HmacUtils.createSecretKey(notification.getWebhookEvent().getWebhook().getSecret()))
+                .payload(objectMapper.readTree(notification.getPayload()))
+                .attempts(notification.getAttempts())
+                .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid payload of notification " + notification.getId(), e);
+        }
+    }
+
+    private void onFailure(WebhookEventNotificationDto notificationDto, int attempts, Exception exception) {
+        String lastError = StringUtils.abbreviate(exception.toString(), MAX_ERROR_LENGTH);
+        if (attempts >= webhookDeliveryConfig.maxAttempts()) {
+            log.error("Notification {} to {} dead-lettered after {} attempts", notificationDto.getNotificationId(),
+                notificationDto.getUrl(), attempts, exception);
+            notificationStatusWriter.failed(notificationDto.getNotificationId(), NotificationStatus.DEAD_LETTER,
+                attempts, null, lastError);
+            return;
+        }
+        Duration backoff = getBackoff(attempts, webhookDeliveryConfig.initialBackoff(),
+            webhookDeliveryConfig.maxBackoff());
+        log.warn("Notification {} to {} failed, retrying in {}: {}", notificationDto.getNotificationId(),
+            notificationDto.getUrl(), backoff, lastError);
+        notificationStatusWriter.failed(notificationDto.getNotificationId(), NotificationStatus.NOTIFYING, attempts,
+            ZonedDateTime.now().plus(backoff), lastError);
+    }
+
+    /* The caller holds a capacity permit for the notification */
+    private boolean dispatch(WebhookEventNotificationDto notificationDto) {
+        queued.add(notificationDto.getNotificationId());
+        Endpoint endpoint = endpoints.computeIfAbsent(notificationDto.getUrl(), url -> new Endpoint());
+        Admission admission = endpoint.offer(notificationDto);
+        if (admission == Admission.FULL) {
+            release(notificationDto);
+            defer(notificationDto);
+            return false;
+        }
+        if (admission == Admission.SEND) {
+            execute(endpoint, notificationDto);
+        }
+        return true;
+    }
+
+    private void defer(WebhookEventNotificationDto notificationDto) {
+        log.warn("Too many notifications queued for {}, notification {} is deferred", notificationDto.getUrl(),
+            notificationDto.getNotificationId());
+        webhookEventNotificationRepository.deferDelivery(notificationDto.getNotificationId(),
+            ZonedDateTime.now().plus(webhookDeliveryConfig.initialBackoff()));
+    }
+
+    private void execute(Endpoint endpoint, WebhookEventNotificationDto notificationDto) {
+        try {
+            executor.execute(() -> run(endpoint, notificationDto));
+        } catch (RejectedExecutionException e) {
+            // Shutting down, the notification is claimed again once its lease expired
+            release(notificationDto);
+        }
+    }
+
+    private void run(Endpoint endpoint, WebhookEventNotificationDto notificationDto) {
+        try {
+            deliverySlots.acquire();
+            try {
+                deliver(notificationDto);
+            } finally {
+                deliverySlots.release();
+            }
+        } catch (InterruptedException e) {
+            // Shutting down, the notification is claimed again once its lease expired
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Failed to record the delivery of notification {}", notificationDto.getNotificationId(), e);
+        } finally {
+            release(notificationDto);
+            WebhookEventNotificationDto next = endpoint.next();
+            if (next != null) {
+                execute(endpoint, next);
+            }
+        }
+    }
+
+    private void release(WebhookEventNotificationDto notificationDto) {
+        queued.remove(notificationDto.getNotificationId());
+        capacity.release();
+    }
+
+    private enum Admission {
+        SEND,
+        PENDING,
+        FULL
+    }
+
+    /**
+     * Notifications of a payload URL waiting for one of its delivery slots.
+     */
+    private final class Endpoint {
+
+        private final Queue<WebhookEventNotificationDto> pending = new ArrayDeque<>();
+        private int active;
+
+        synchronized Admission offer(WebhookEventNotificationDto notificationDto) {
+            if (active < webhookDeliveryConfig.maxConcurrencyPerEndpoint()) {
+                active++;
+                return Admission.SEND;
+            }
+            if (pending.size() >= webhookDeliveryConfig.maxQueuedPerEndpoint()) {
+                return Admission.FULL;
+            }
+            pending.add(notificationDto);
+            return Admission.PENDING;
+        }
+
+        /**
+         * Hand the slot of a sent notification over to the next pending one.
+         *
+         * @return the next notification to send, or null when the slot is freed
+         */
+        synchronized WebhookEventNotificationDto next() {
+            WebhookEventNotificationDto next = pending.poll();
+            if (next == null) {
+                active--;
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.yas.webhook.service;
+
+import com.yas.webhook.model.dto.WebhookSubscriptionDto;
+import com.yas.webhook.model.enums.EventName;
+import com.yas.webhook.repository.WebhookEventRepository;
+import com.yas.webhook.utils.HmacUtils;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory table of the subscribers of each event, so events are dispatched without reading the database.
+ *
+ * <p>The table is rebuilt when webhooks are changed by this instance, once the change is committed, and
+ * periodically for the changes made by the other instances.</p>
+ */
+@Slf4j
+@Component
+public class WebhookRoutingTable {
+
+    private final WebhookEventRepository webhookEventRepository;
+    private volatile Map<EventName, List<Subscriber>> routes;
+
+    public WebhookRoutingTable(WebhookEventRepository webhookEventRepository) {
+        this.webhookEventRepository = webhookEventRepository;
+    }
+
+    public List<Subscriber> getSubscribers(EventName eventName) {
+        Map<EventName, List<Subscriber>> currentRoutes = routes;
+        if (currentRoutes == null) {
+            currentRoutes = rebuild();
+        }
+        return currentRoutes.getOrDefault(eventName, List.of());
+    }
+
+    /**
+     * Rebuild the table, after the commit of the current transaction if any.
+     */
+    public void refresh() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${yas.webhook.routing.refresh-delay-ms:60000}",
+        initialDelayString = "${yas.webhook.routing.refresh-delay-ms:60000}")
+    public void refreshPeriodically() {
+        rebuild();
+    }
+
+    private synchronized Map<EventName, List<Subscriber>> rebuild() {
+        Map<EventName, List<Subscriber>> rebuiltRoutes = webhookEventRepository.findAllSubscriptions().stream()
+            .collect(Collectors.groupingBy(WebhookSubscriptionDto::eventName, () -> new EnumMap<>(EventName.class),
+                Collectors.mapping(Subscriber::of, Collectors.toUnmodifiableList())));
+        routes = rebuiltRoutes;
+        log.debug("Webhook routing table rebuilt with {} events", rebuiltRoutes.size());
+        return rebuiltRoutes;
+    }
+
+    /**
+     * A webhook subscribed to an event, with the key signing its notifications, null when it has no secret.
+     */
+    public record Subscriber(Long webhookEventId, String payloadUrl, SecretKeySpec secretKey) {
+
+        static Subscriber of(WebhookSubscriptionDto subscription) {
+            return new Subscriber(subscription.webhookEventId(), subscription.payloadUrl(),
+                HmacUtils.createSecretKey(subscription.secret()));
+        }
+    }
+}
@@ -2,12 +2,9 @@ package com.yas.webhook.service;
 
 import com.yas.commonlibrary.exception.NotFoundException;
 import com.yas.webhook.config.constants.MessageCode;
-import com.yas.webhook.integration.api.WebhookApi;
 import com.yas.webhook.model.Webhook;
 import com.yas.webhook.model.WebhookEvent;
-import com.yas.webhook.model.WebhookEventNotification;
 import com.yas.webhook.model.dto.WebhookEventNotificationDto;
-import com.yas.webhook.model.enums.NotificationStatus;
 import com.yas.webhook.model.mapper.WebhookMapper;
 import com.yas.webhook.model.viewmodel.webhook.EventVm;
 import com.yas.webhook.model.viewmodel.webhook.WebhookDetailVm;
@@ -15,7 +12,6 @@ import com.yas.webhook.model.viewmodel.webhook.WebhookListGetVm;
 import com.yas.webhook.model.viewmodel.webhook.WebhookPostVm;
 import com.yas.webhook.model.viewmodel.webhook.WebhookVm;
 import com.yas.webhook.repository.EventRepository;
-import com.yas.webhook.repository.WebhookEventNotificationRepository;
 import com.yas.webhook.repository.WebhookEventRepository;
 import com.yas.webhook.repository.WebhookRepository;
 import java.util.List;
@@ -23,7 +19,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -35,9 +30,9 @@ public class WebhookService {
     private final WebhookRepository webhookRepository;
     private final EventRepository eventRepository;
     private final WebhookEventRepository webhookEventRepository;
-    private final WebhookEventNotificationRepository webhookEventNotificationRepository;
     private final WebhookMapper webhookMapper;
-    private final WebhookApi webHookApi;
+    private final WebhookDeliveryService webhookDeliveryService;
+    private final WebhookRoutingTable webhookRoutingTable;
 
     public WebhookListGetVm getPageableWebhooks(int pageNo, int pageSize) {
         PageRequest pageRequest = PageRequest.of(pageNo, pageSize, Sort.by(Sort.Direction.DESC, "id"));
@@ -64,6 +59,7 @@ public class WebhookService {
             webhookEvents = webhookEventRepository.saveAll(webhookEvents);
             createdWebhook.setWebhookEvents(webhookEvents);
         }
+        webhookRoutingTable.refresh();
         return webhookMapper.toWebhookDetailVm(createdWebhook);
     }
 
@@ -77,6 +73,7 @@ public class WebhookService {
             List<WebhookEvent> webhookEvents = initializeWebhookEvents(id, webhookPostVm.getEvents());
             webhookEventRepository.saveAll(webhookEvents);
         }
+        webhookRoutingTable.refresh();
     }
 
     @Transactional
@@ -86,17 +83,15 @@ public class WebhookService {
         }
         webhookEventRepository.deleteByWebhookId(id);
         webhookRepository.deleteById(id);
+        webhookRoutingTable.refresh();
     }
 
-    @Async
-    public void notifyToWebhook(WebhookEventNotificationDto notificationDto) {
-
-        webHookApi.notify(notificationDto.getUrl(), notificationDto.getSecret(), notificationDto.getPayload());
-        WebhookEventNotification notification = webhookEventNotificationRepository.findById(
-                notificationDto.getNotificationId())
-            .orElseThrow();
-        notification.setNotificationStatus(NotificationStatus.NOTIFIED);
-        webhookEventNotificationRepository.save(notification);
+    /**
+     * Queue the persisted notifications of an event for delivery, waiting a bounded time while the delivery queue is
+     * full.
+     */
+    public void notifyToWebhook(List<WebhookEventNotificationDto> notificationDtos) {
+        webhookDeliveryService.enqueueAll(notificationDtos);
     }
 
     private List<WebhookEvent> initializeWebhookEvents(Long webhookId, List<EventVm> events) {
@@ -5,6 +5,7 @@ import java.security.NoSuchAlgorithmException;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.experimental.UtilityClass;
+import org.apache.commons.lang3.StringUtils;
 
 @UtilityClass
 public class HmacUtils {
@@ -12,10 +13,21 @@ public class HmacUtils {
     public static final String HMAC_SHA_256 = "HmacSHA256";
 
     public static String hash(String data, String key) throws NoSuchAlgorithmException, InvalidKeyException {
-        SecretKeySpec secretKeySpec = new SecretKeySpec(key.getBytes(), HMAC_SHA_256);
+        return hash(data, createSecretKey(key));
+    }
+
+    public static String hash(String data, SecretKeySpec secretKeySpec)
+        throws NoSuchAlgorithmException, InvalidKeyException {
         Mac mac = Mac.getInstance(HMAC_SHA_256);
         mac.init(secretKeySpec);
 
         return new String(mac.doFinal(data.getBytes()));
     }
+
+    /**
+     * The signing key of a webhook secret, or null when the webhook has no secret.
+     */
+    public static SecretKeySpec createSecretKey(String key) {
+        return StringUtils.isEmpty(key) ? null : new SecretKeySpec(key.getBytes(), HMAC_SHA_256);
+    }
 }
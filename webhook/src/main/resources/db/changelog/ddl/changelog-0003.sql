@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset yas:webhook-delivery-queue
+update webhook_event_notification set notification_status = 'NOTIFYING' where notification_status = '0';
+update webhook_event_notification set notification_status = 'NOTIFIED' where notification_status = '1';
+alter table webhook_event_notification add column attempts int not null default 0, add column next_attempt_at timestamp, add column last_error text;
+create index idx_webhook_event_notification_due on webhook_event_notification (next_attempt_at, created_on) where notification_status = 'NOTIFYING';
@@ -0,0 +1,4 @@
+--liquibase formatted sql
+
+--changeset yas:webhook-notification-batch-insert
+alter sequence webhook_event_notification_id_seq increment by 50;
@@ -0,0 +1,71 @@
+package com.yas.webhook.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.yas.webhook.model.enums.NotificationStatus;
+import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationStatusWriterTest {
+
+    @Mock
+    WebhookEventNotificationRepository webhookEventNotificationRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private NotificationStatusWriter notificationStatusWriter;
+
+    @BeforeEach
+    void setUp() {
+        notificationStatusWriter = new NotificationStatusWriter(webhookEventNotificationRepository,
+            transactionManager);
+    }
+
+    @Test
+    void test_flush_whenNotified_updateAllInOneStatement() {
+        ZonedDateTime nextAttemptAt = ZonedDateTime.now().plusMinutes(1);
+        notificationStatusWriter.notified(1L);
+        notificationStatusWriter.notified(2L);
+        notificationStatusWriter.failed(3L, NotificationStatus.NOTIFYING, 2, nextAttemptAt, "Read timed out");
+
+        notificationStatusWriter.flush();
+        notificationStatusWriter.flush();
+
+        verify(webhookEventNotificationRepository).markNotified(List.of(1L, 2L));
+        verify(webhookEventNotificationRepository).updateDelivery(3L, NotificationStatus.NOTIFYING, 2, nextAttemptAt,
+            "Read timed out");
+    }
+
+    @Test
+    void test_flush_whenNothingRecorded_doNotUpdate() {
+        notificationStatusWriter.flush();
+
+        verify(webhookEventNotificationRepository, never()).markNotified(any());
+    }
+
+    @Test
+    void test_flush_whenUpdateFailed_retryOnNextFlush() {
+        notificationStatusWriter.notified(1L);
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+            .doNothing()
+            .when(webhookEventNotificationRepository).markNotified(List.of(1L));
+
+        notificationStatusWriter.flush();
+        notificationStatusWriter.flush();
+
+        verify(webhookEventNotificationRepository, times(2)).markNotified(List.of(1L));
+    }
+}
@@ -1,6 +1,6 @@
 package com.yas.webhook.service;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -8,15 +8,11 @@ import static org.mockito.Mockito.when;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.yas.webhook.integration.api.WebhookApi;
-import com.yas.webhook.model.Event;
-import com.yas.webhook.model.Webhook;
-import com.yas.webhook.model.WebhookEvent;
 import com.yas.webhook.model.WebhookEventNotification;
 import com.yas.webhook.model.enums.EventName;
-import com.yas.webhook.repository.EventRepository;
 import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import com.yas.webhook.service.WebhookRoutingTable.Subscriber;
 import java.util.List;
-import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -27,7 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class OrderEventServiceTest {
 
     @Mock
-    EventRepository eventRepository;
+    WebhookRoutingTable webhookRoutingTable;
     @Mock
     WebhookEventNotificationRepository webhookEventNotificationRepository;
     @Mock
@@ -45,23 +41,17 @@ class OrderEventServiceTest {
         objectNode.put("op", "c");
         objectNode.set("after", objectMapper.createObjectNode());
 
-        Event event = new Event();
-        WebhookEvent webhookEvent = new WebhookEvent();
-        Webhook webhook = new Webhook();
-        List<WebhookEvent> webhookEvents = List.of(webhookEvent);
-
-        event.setWebhookEvents(webhookEvents);
-        webhookEvent.setWebhook(webhook);
+        Subscriber subscriber = new Subscriber(1L, "http://subscriber/hook", null);
 
         WebhookEventNotification notification = new WebhookEventNotification();
         notification.setWebhookEventId(1L);
 
-        when(eventRepository.findByName(EventName.ON_ORDER_CREATED)).thenReturn(Optional.of(event));
-        when(webhookEventNotificationRepository.save(any(WebhookEventNotification.class))).thenReturn(notification);
+        when(webhookRoutingTable.getSubscribers(EventName.ON_ORDER_CREATED)).thenReturn(List.of(subscriber));
+        when(webhookEventNotificationRepository.saveAll(anyList())).thenReturn(List.of(notification));
 
         orderEventService.onOrderEvent(objectNode);
 
-        verify(webhookEventNotificationRepository).save(any(WebhookEventNotification.class));
+        verify(webhookEventNotificationRepository).saveAll(anyList());
     }
 
     @Test
@@ -77,23 +67,17 @@ class OrderEventServiceTest {
         after.put("order_status", "PAID");
         objectNode.set("after", after);
 
-        Event event = new Event();
-        WebhookEvent webhookEvent = new WebhookEvent();
-        Webhook webhook = new Webhook();
-        List<WebhookEvent> webhookEvents = List.of(webhookEvent);
-
-        event.setWebhookEvents(webhookEvents);
-        webhookEvent.setWebhook(webhook);
+        Subscriber subscriber = new Subscriber(1L, "http://subscriber/hook", null);
 
         WebhookEventNotification notification = new WebhookEventNotification();
         notification.setWebhookEventId(1L);
 
-        when(eventRepository.findByName(EventName.ON_ORDER_STATUS_UPDATED)).thenReturn(Optional.of(event));
-        when(webhookEventNotificationRepository.save(any(WebhookEventNotification.class))).thenReturn(notification);
+        when(webhookRoutingTable.getSubscribers(EventName.ON_ORDER_STATUS_UPDATED)).thenReturn(List.of(subscriber));
+        when(webhookEventNotificationRepository.saveAll(anyList())).thenReturn(List.of(notification));
 
         orderEventService.onOrderEvent(objectNode);
 
-        verify(webhookEventNotificationRepository).save(any(WebhookEventNotification.class));
+        verify(webhookEventNotificationRepository).saveAll(anyList());
     }
 
     @Test
@@ -105,7 +89,7 @@ class OrderEventServiceTest {
 
         orderEventService.onOrderEvent(objectNode);
 
-        verify(webhookEventNotificationRepository, times(0)).save(any(WebhookEventNotification.class));
+        verify(webhookEventNotificationRepository, times(0)).saveAll(anyList());
     }
 
     @Test
@@ -123,6 +107,6 @@ class OrderEventServiceTest {
 
         orderEventService.onOrderEvent(objectNode);
 
-        verify(webhookEventNotificationRepository, times(0)).save(any(WebhookEventNotification.class));
+        verify(webhookEventNotificationRepository, times(0)).saveAll(anyList());
     }
 }
@@ -1,22 +1,17 @@
 package com.yas.webhook.service;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.yas.webhook.model.Event;
-import com.yas.webhook.model.Webhook;
-import com.yas.webhook.model.WebhookEvent;
 import com.yas.webhook.model.WebhookEventNotification;
-import com.yas.webhook.model.dto.WebhookEventNotificationDto;
 import com.yas.webhook.model.enums.EventName;
-import com.yas.webhook.repository.EventRepository;
 import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import com.yas.webhook.service.WebhookRoutingTable.Subscriber;
 import java.util.List;
-import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -27,7 +22,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class ProductEventServiceTest {
 
     @Mock
-    EventRepository eventRepository;
+    WebhookRoutingTable webhookRoutingTable;
     @Mock
     WebhookEventNotificationRepository webhookEventNotificationRepository;
     @Mock
@@ -43,24 +38,18 @@ class ProductEventServiceTest {
         objectNode.put("op", "u");
         objectNode.set("after", objectMapper.createObjectNode());
 
-        Event event = new Event();
-        WebhookEvent webhookEvent = new WebhookEvent();
-        Webhook webhook = new Webhook();
-        List<WebhookEvent> webhookEvents = List.of(webhookEvent);
-
-        event.setWebhookEvents(webhookEvents);
-        webhookEvent.setWebhook(webhook);
+        Subscriber subscriber = new Subscriber(1L, "http://subscriber/hook", null);
 
         WebhookEventNotification notification = new WebhookEventNotification();
         notification.setWebhookEventId(1L);
 
-        when(eventRepository.findByName(EventName.ON_PRODUCT_UPDATED)).thenReturn(Optional.of(event));
-        when(webhookEventNotificationRepository.save(any(WebhookEventNotification.class))).thenReturn(notification);
+        when(webhookRoutingTable.getSubscribers(EventName.ON_PRODUCT_UPDATED)).thenReturn(List.of(subscriber));
+        when(webhookEventNotificationRepository.saveAll(anyList())).thenReturn(List.of(notification));
 
         productEventService.onProductEvent(objectNode);
 
-        verify(webhookEventNotificationRepository).save(any(WebhookEventNotification.class));
-        verify(webhookService).notifyToWebhook(any(WebhookEventNotificationDto.class));
+        verify(webhookEventNotificationRepository).saveAll(anyList());
+        verify(webhookService).notifyToWebhook(anyList());
     }
 
     @Test
@@ -72,7 +61,7 @@ class ProductEventServiceTest {
 
         productEventService.onProductEvent(objectNode);
 
-        verify(webhookEventNotificationRepository, times(0)).save(any(WebhookEventNotification.class));
-        verify(webhookService, times(0)).notifyToWebhook(any(WebhookEventNotificationDto.class));
+        verify(webhookEventNotificationRepository, times(0)).saveAll(anyList());
+        verify(webhookService, times(0)).notifyToWebhook(anyList());
     }
 }
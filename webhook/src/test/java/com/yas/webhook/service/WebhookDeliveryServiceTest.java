@@ -0,0 +1,229 @@
+package com.yas.webhook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.webhook.config.WebhookDeliveryConfig;
+import com.yas.webhook.integration.api.WebhookApi;
+import com.yas.webhook.model.Webhook;
+import com.yas.webhook.model.WebhookEvent;
+import com.yas.webhook.model.WebhookEventNotification;
+import com.yas.webhook.model.dto.WebhookEventNotificationDto;
+import com.yas.webhook.model.enums.NotificationStatus;
+import com.yas.webhook.repository.WebhookEventNotificationRepository;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.ResourceAccessException;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookDeliveryServiceTest {
+
+    private static final String URL = "http://subscriber/hook";
+
+    @Mock
+    WebhookApi webhookApi;
+    @Mock
+    WebhookEventNotificationRepository webhookEventNotificationRepository;
+    @Mock
+    NotificationStatusWriter notificationStatusWriter;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private WebhookDeliveryService webhookDeliveryService;
+
+    @BeforeEach
+    void setUp() {
+        webhookDeliveryService = createWebhookDeliveryService(10, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        webhookDeliveryService.destroy();
+    }
+
+    @Test
+    void test_deliver_whenNotified_markNotified() {
+        webhookDeliveryService.deliver(notification(1L, 0));
+
+        verify(notificationStatusWriter).notified(1L);
+    }
+
+    @Test
+    void test_deliver_whenFailed_scheduleRetry() {
+        doThrow(new ResourceAccessException("Read timed out")).when(webhookApi).notify(eq(URL), any(), any());
+        ZonedDateTime before = ZonedDateTime.now();
+
+        webhookDeliveryService.deliver(notification(1L, 1));
+
+        ArgumentCaptor<ZonedDateTime> nextAttemptAt = ArgumentCaptor.forClass(ZonedDateTime.class);
+        verify(notificationStatusWriter).failed(eq(1L), eq(NotificationStatus.NOTIFYING), eq(2),
+            nextAttemptAt.capture(), any(String.class));
+        assertThat(nextAttemptAt.getValue()).isBetween(before.plusSeconds(10), ZonedDateTime.now().plusSeconds(20));
+    }
+
+    @Test
+    void test_deliver_whenLastAttemptFailed_deadLetter() {
+        doThrow(new ResourceAccessException("Read timed out")).when(webhookApi).notify(eq(URL), any(), any());
+
+        webhookDeliveryService.deliver(notification(1L, 2));
+
+        verify(notificationStatusWriter).failed(eq(1L), eq(NotificationStatus.DEAD_LETTER), eq(3), isNull(),
+            any(String.class));
+    }
+
+    @Test
+    void test_getBackoff_whenManyAttempts_doubleUpToMaxBackoff() {
+        Duration initialBackoff = Duration.ofSeconds(10);
+        Duration maxBackoff = Duration.ofMinutes(1);
+
+        assertThat(WebhookDeliveryService.getBackoff(1, initialBackoff, maxBackoff))
+            .isBetween(Duration.ofSeconds(5), Duration.ofSeconds(10));
+        assertThat(WebhookDeliveryService.getBackoff(3, initialBackoff, maxBackoff))
+            .isBetween(Duration.ofSeconds(20), Duration.ofSeconds(40));
+        assertThat(WebhookDeliveryService.getBackoff(40, initialBackoff, maxBackoff))
+            .isBetween(Duration.ofSeconds(30), maxBackoff);
+    }
+
+    @Test
+    void test_enqueue_whenSameEndpoint_sendOneAtATime() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch sent = new CountDownLatch(3);
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            sent.countDown();
+            return null;
+        }).when(webhookApi).notify(eq(URL), any(), any());
+
+        for (long id = 1; id <= 3; id++) {
+            assertThat(webhookDeliveryService.enqueueAll(List.of(notification(id, 0)))).isEqualTo(1);
+        }
+
+        assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(1);
+        verify(notificationStatusWriter, timeout(1000)).notified(3L);
+    }
+
+    @Test
+    void test_enqueue_whenEndpointQueueFull_deferNotification() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            blocked.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(webhookApi).notify(eq(URL), any(), any());
+
+        assertThat(webhookDeliveryService.enqueueAll(List.of(notification(1L, 0)))).isEqualTo(1);
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(webhookDeliveryService.enqueueAll(List.of(notification(2L, 0)))).isEqualTo(1);
+        assertThat(webhookDeliveryService.enqueueAll(List.of(notification(3L, 0)))).isEqualTo(1);
+        assertThat(webhookDeliveryService.enqueueAll(List.of(notification(4L, 0)))).isZero();
+        blocked.countDown();
+
+        verify(webhookEventNotificationRepository).deferDelivery(eq(4L), any(ZonedDateTime.class));
+        verify(notificationStatusWriter, timeout(1000)).notified(3L);
+    }
+
+    @Test
+    void test_enqueueAll_whenQueueFull_boundTotalWait() throws InterruptedException {
+        webhookDeliveryService.destroy();
+        webhookDeliveryService = createWebhookDeliveryService(1, Duration.ofMillis(200));
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            blocked.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(webhookApi).notify(eq(URL), any(), any());
+        assertThat(webhookDeliveryService.enqueueAll(List.of(notification(1L, 0)))).isEqualTo(1);
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        int queuedCount = webhookDeliveryService.enqueueAll(
+            List.of(notification(2L, 0), notification(3L, 0), notification(4L, 0)));
+        Duration waited = Duration.ofNanos(System.nanoTime() - start);
+        blocked.countDown();
+
+        assertThat(queuedCount).isZero();
+        // A wait per notification would take 600ms
+        assertThat(waited).isLessThan(Duration.ofMillis(500));
+    }
+
+    @Test
+    void test_pollDueNotifications_whenRoomTakenMeanwhile_releaseClaimedNotifications()
+        throws InterruptedException {
+        webhookDeliveryService.destroy();
+        webhookDeliveryService = createWebhookDeliveryService(1, Duration.ofSeconds(1));
+        CountDownLatch blocked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            blocked.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(webhookApi).notify(eq(URL), any(), any());
+        when(webhookEventNotificationRepository.findDueForUpdate(any(), any(), any(), any())).thenAnswer(invocation -> {
+            // An event consumer takes the last room while the due notifications are claimed
+            webhookDeliveryService.enqueueAll(List.of(notification(1L, 0)));
+            return List.of(dueNotification(2L));
+        });
+
+        webhookDeliveryService.pollDueNotifications();
+        blocked.countDown();
+
+        ArgumentCaptor<ZonedDateTime> leaseEnd = ArgumentCaptor.forClass(ZonedDateTime.class);
+        verify(webhookEventNotificationRepository, times(2)).leaseDelivery(eq(List.of(2L)), leaseEnd.capture());
+        assertThat(leaseEnd.getAllValues().get(1)).isBeforeOrEqualTo(ZonedDateTime.now());
+    }
+
+    private WebhookDeliveryService createWebhookDeliveryService(int queueCapacity, Duration enqueueTimeout) {
+        WebhookDeliveryConfig config = new WebhookDeliveryConfig(4, 1, 2, queueCapacity, enqueueTimeout, 3,
+            Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofMinutes(5), 10, Duration.ofSeconds(1),
+            Duration.ofSeconds(1));
+        return new WebhookDeliveryService(config, webhookApi, webhookEventNotificationRepository,
+            notificationStatusWriter, new ObjectMapper(), transactionManager);
+    }
+
+    private static WebhookEventNotification dueNotification(Long id) {
+        Webhook webhook = new Webhook();
+        webhook.setPayloadUrl(URL);
+        WebhookEvent webhookEvent = new WebhookEvent();
+        webhookEvent.setWebhook(webhook);
+        WebhookEventNotification notification = new WebhookEventNotification();
+        notification.setId(id);
+        notification.setPayload("{}");
+        notification.setNotificationStatus(NotificationStatus.NOTIFYING);
+        notification.setWebhookEvent(webhookEvent);
+        return notification;
+    }
+
+    private static WebhookEventNotificationDto notification(Long id, int attempts) {
+        return WebhookEventNotificationDto.builder()
+            .notificationId(id)
+            .url(URL)
+            .payload(new ObjectMapper().createObjectNode())
+            .attempts(attempts)
+            .build();
+    }
+}
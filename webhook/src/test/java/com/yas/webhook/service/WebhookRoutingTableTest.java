@@ -0,0 +1,57 @@
+package com.yas.webhook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.webhook.model.dto.WebhookSubscriptionDto;
+import com.yas.webhook.model.enums.EventName;
+import com.yas.webhook.repository.WebhookEventRepository;
+import com.yas.webhook.service.WebhookRoutingTable.Subscriber;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookRoutingTableTest {
+
+    @Mock
+    WebhookEventRepository webhookEventRepository;
+    @InjectMocks
+    WebhookRoutingTable webhookRoutingTable;
+
+    @Test
+    void test_getSubscribers_whenCalledTwice_loadSubscriptionsOnce() {
+        when(webhookEventRepository.findAllSubscriptions()).thenReturn(List.of(
+            new WebhookSubscriptionDto(EventName.ON_ORDER_CREATED, 1L, "http://a/hook", "secret"),
+            new WebhookSubscriptionDto(EventName.ON_ORDER_CREATED, 2L, "http://b/hook", ""),
+            new WebhookSubscriptionDto(EventName.ON_PRODUCT_UPDATED, 3L, "http://a/hook", null)));
+
+        List<Subscriber> subscribers = webhookRoutingTable.getSubscribers(EventName.ON_ORDER_CREATED);
+        webhookRoutingTable.getSubscribers(EventName.ON_PRODUCT_UPDATED);
+
+        assertThat(subscribers).extracting(Subscriber::webhookEventId).containsExactly(1L, 2L);
+        assertThat(subscribers.getFirst().secretKey().getEncoded()).isEqualTo("secret".getBytes());
+        assertThat(subscribers.get(1).secretKey()).isNull();
+        assertThat(webhookRoutingTable.getSubscribers(EventName.ON_ORDER_STATUS_UPDATED)).isEmpty();
+        verify(webhookEventRepository).findAllSubscriptions();
+    }
+
+    @Test
+    void test_refresh_whenWebhookChanged_rebuildTable() {
+        when(webhookEventRepository.findAllSubscriptions())
+            .thenReturn(List.of())
+            .thenReturn(List.of(new WebhookSubscriptionDto(EventName.ON_PRODUCT_UPDATED, 1L, "http://a/hook",
+                null)));
+
+        assertThat(webhookRoutingTable.getSubscribers(EventName.ON_PRODUCT_UPDATED)).isEmpty();
+        webhookRoutingTable.refresh();
+
+        assertThat(webhookRoutingTable.getSubscribers(EventName.ON_PRODUCT_UPDATED)).hasSize(1);
+        verify(webhookEventRepository, times(2)).findAllSubscriptions();
+    }
+}
@@ -1,13 +1,9 @@
 package com.yas.webhook.service;
 
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
-import com.yas.webhook.integration.api.WebhookApi;
-import com.yas.webhook.model.WebhookEventNotification;
 import com.yas.webhook.model.dto.WebhookEventNotificationDto;
-import com.yas.webhook.repository.WebhookEventNotificationRepository;
-import java.util.Optional;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -18,9 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class WebhookServiceTest {
 
     @Mock
-    WebhookEventNotificationRepository webhookEventNotificationRepository;
-    @Mock
-    WebhookApi webHookApi;
+    WebhookDeliveryService webhookDeliveryService;
 
     @InjectMocks
     WebhookService webhookService;
@@ -32,16 +26,10 @@ class WebhookServiceTest {
             .builder()
             .notificationId(1L)
             .url("")
-            .secret("")
             .build();
 
-        WebhookEventNotification notification = new WebhookEventNotification();
-        when(webhookEventNotificationRepository.findById(notificationDto.getNotificationId()))
-            .thenReturn(Optional.of(notification));
-
-        webhookService.notifyToWebhook(notificationDto);
+        webhookService.notifyToWebhook(List.of(notificationDto));
 
-        verify(webhookEventNotificationRepository).save(notification);
-        verify(webHookApi).notify(notificationDto.getUrl(), notificationDto.getSecret(), notificationDto.getPayload());
+        verify(webhookDeliveryService).enqueueAll(List.of(notificationDto));
     }
 }